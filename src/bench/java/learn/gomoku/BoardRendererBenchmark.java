@@ -0,0 +1,84 @@
+package learn.gomoku;
+
+import learn.gomoku.game.BitBoard;
+import learn.gomoku.game.Gomoku;
+import learn.gomoku.game.MoveHistory;
+import learn.gomoku.game.Stone;
+import learn.gomoku.players.RandomPlayer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Printing a 15 wide board with 40 stones, as the console game does after every move:
+ * a frame built with one print call per cell, a BoardRenderer frame, and an ANSI mode
+ * frame where one stone changed. The frames go to a stream that drops them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardRendererBenchmark {
+
+    private final PrintStream out = new PrintStream(OutputStream.nullOutputStream());
+    private final BoardRenderer plain = new BoardRenderer();
+    private final BoardRenderer ansi = new BoardRenderer(true);
+    private Gomoku game;
+    private Stone stone;
+
+    @Setup
+    public void setup() {
+        game = new Gomoku(new RandomPlayer(), new RandomPlayer(), true);
+        for (int i = 0; i < 40; i++) {
+            game.place(game.getCurrent().generateMove(game.getMoveHistory()));
+        }
+        stone = game.undo();
+        ansi.render(game.getMoveHistory(), out);
+    }
+
+    @Benchmark
+    public void printPerCell() {
+        MoveHistory history = game.getMoveHistory();
+        int size = history.getWidth();
+        out.print("   ");
+        for (int col = 0; col < size; col++) {
+            out.printf("%02d ", col + 1);
+        }
+        out.println();
+        for (int row = 0; row < size; row++) {
+            out.printf("%02d ", row + 1);
+            for (int col = 0; col < size; col++) {
+                byte cell = history.getCell(row, col);
+                out.print(" " + (cell == BitBoard.BLACK ? 'B' : cell == BitBoard.WHITE ? 'W' : '_') + " ");
+            }
+            out.println();
+        }
+    }
+
+    @Benchmark
+    public void renderFrame() {
+        plain.render(game.getMoveHistory(), out);
+    }
+
+    // One move and its undo, so every call redraws two changed cells
+    @Benchmark
+    public void renderAnsiChanges() {
+        game.place(stone);
+        ansi.render(game.getMoveHistory(), out);
+        game.undo();
+        ansi.render(game.getMoveHistory(), out);
+    }
+}
@@ -0,0 +1,93 @@
+package learn.gomoku.book;
+
+import learn.gomoku.game.BitBoard;
+import learn.gomoku.game.Gomoku;
+import learn.gomoku.game.Stone;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Book lookups in a book of GAMES random openings, for a position ply moves into one of
+ * them (a hit) and for a position no game reached (a miss).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OpeningBookBenchmark {
+
+    static final int GAMES = 50_000;
+
+    @Param({"1", "6", "11"})
+    public int ply;
+
+    private Path path;
+    private OpeningBook book;
+    private List<Stone> hit;
+    private List<Stone> miss;
+
+    @Setup
+    public void setup() throws IOException {
+        Random random = new Random(5);
+        OpeningBookBuilder builder = new OpeningBookBuilder(Gomoku.WIDTH);
+        List<Stone> game = null;
+        for (int i = 0; i < GAMES; i++) {
+            game = randomOpening(random, OpeningBookBuilder.DEFAULT_MAX_PLY);
+            builder.addGame(game, random.nextBoolean() ? BitBoard.BLACK : BitBoard.WHITE);
+        }
+        path = Files.createTempFile("book", ".bin");
+        builder.write(path);
+        book = OpeningBook.open(path);
+
+        hit = new ArrayList<>(game.subList(0, ply));
+        miss = new ArrayList<>(randomOpening(new Random(99), ply));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    public Stone lookupHit() {
+        return book.lookup(hit, Gomoku.WIDTH, 1);
+    }
+
+    @Benchmark
+    public Stone lookupMiss() {
+        return book.lookup(miss, Gomoku.WIDTH, 1);
+    }
+
+    private static List<Stone> randomOpening(Random random, int length) {
+        List<Stone> moves = new ArrayList<>();
+        boolean[] taken = new boolean[Gomoku.WIDTH * Gomoku.WIDTH];
+        while (moves.size() < length) {
+            int cell = random.nextInt(taken.length);
+            if (!taken[cell]) {
+                taken[cell] = true;
+                moves.add(new Stone(cell / Gomoku.WIDTH, cell % Gomoku.WIDTH, moves.size() % 2 == 0));
+            }
+        }
+        return moves;
+    }
+}
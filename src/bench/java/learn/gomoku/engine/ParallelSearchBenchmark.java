@@ -0,0 +1,112 @@
+package learn.gomoku.engine;
+
+import learn.gomoku.game.Stone;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to search a fixed set of positions to a fixed depth with 1 to N Lazy SMP threads.
+ * Run through JMH to get the raw times, or run main() to also print the speedup over one thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParallelSearchBenchmark {
+
+    static final int DEPTH = 4;
+
+    // Row, column pairs, black first
+    static final int[][] POSITIONS = {
+            {7, 7, 5, 7, 5, 9, 4, 8, 6, 6, 6, 8},
+            {7, 7, 5, 7, 5, 9, 4, 8, 6, 6, 6, 8, 7, 9, 5, 8, 7, 8, 7, 10},
+            {7, 7, 7, 8, 8, 8, 6, 6, 8, 7, 8, 6, 9, 6, 6, 9},
+            {7, 7, 8, 8, 6, 8, 8, 6, 8, 7, 5, 9, 9, 7, 6, 7, 10, 7, 11, 7},
+    };
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private ParallelSearch search;
+    private List<List<Stone>> positions;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        search = new ParallelSearch(threads);
+        positions = new ArrayList<>();
+        for (int[] position : POSITIONS) {
+            positions.add(toStones(position));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        search.getTable().clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        search.close();
+    }
+
+    @Benchmark
+    public int timeToDepth() {
+        int checksum = 0;
+        for (List<Stone> position : positions) {
+            search.setPosition(position);
+            SearchResult result = search.search(0, 0, DEPTH);
+            checksum += result.getRow() * 15 + result.getColumn();
+        }
+        return checksum;
+    }
+
+    static List<Stone> toStones(int[] position) {
+        List<Stone> stones = new ArrayList<>();
+        for (int i = 0; i < position.length; i += 2) {
+            stones.add(new Stone(position[i], position[i + 1], stones.size() % 2 == 0));
+        }
+        return stones;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(ParallelSearchBenchmark.class.getSimpleName())
+                .build()).run();
+
+        double single = 0;
+        for (RunResult result : results) {
+            if ("1".equals(result.getParams().getParam("threads"))) {
+                single = result.getPrimaryResult().getScore();
+            }
+        }
+        System.out.println();
+        System.out.println("threads  ms/depth " + DEPTH + "  speedup");
+        for (RunResult result : results) {
+            double score = result.getPrimaryResult().getScore();
+            System.out.printf("%7s  %12.1f  %7.2f%n",
+                    result.getParams().getParam("threads"), score, single / score);
+        }
+    }
+}
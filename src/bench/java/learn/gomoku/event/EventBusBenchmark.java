@@ -0,0 +1,97 @@
+package learn.gomoku.event;
+
+import learn.gomoku.game.Gomoku;
+import learn.gomoku.game.Stone;
+import learn.gomoku.players.HumanPlayer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gomoku.place without an event bus and with one whose only listener sleeps a millisecond
+ * after every batch, and publishMove on its own to that bus. The bus drops events when full,
+ * so the slow listener should not show in the time of a move.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBusBenchmark {
+
+    static final int BATCH = 20;
+
+    @Param({"false", "true"})
+    public boolean events;
+
+    private final HumanPlayer one = new HumanPlayer("Dori");
+    private final HumanPlayer two = new HumanPlayer("Nemo");
+    private final Stone[] moves = new Stone[BATCH];
+    private EventBus bus;
+    private Gomoku game;
+    private int move;
+
+    @Setup(Level.Trial)
+    public void createBus() {
+        // Alternating colours along rows 0 and 2, so nobody makes five
+        for (int i = 0; i < BATCH; i++) {
+            moves[i] = new Stone(i / Gomoku.WIDTH * 2, i % Gomoku.WIDTH, i % 2 == 0);
+        }
+        bus = new EventBus();
+        bus.subscribe(new GameEventListener() {
+            @Override
+            public void onMove(long game, int move, int row, int column, boolean isBlack) {
+            }
+
+            @Override
+            public void onBatchEnd() {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareGame() {
+        game = new Gomoku(one, two, true);
+        if (events) {
+            game.setEventBus(bus);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void closeBus() {
+        bus.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void place(Blackhole blackhole) {
+        for (Stone stone : moves) {
+            blackhole.consume(game.place(stone));
+        }
+    }
+
+    @Benchmark
+    public boolean publishMove() {
+        return bus.publishMove(1, ++move, 7, 7, true);
+    }
+}
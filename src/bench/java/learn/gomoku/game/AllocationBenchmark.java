@@ -0,0 +1,102 @@
+package learn.gomoku.game;
+
+import learn.gomoku.players.HumanPlayer;
+import learn.gomoku.players.RandomPlayer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Garbage made by steady-state play: BATCH moves placed and taken back, with a new Stone per move
+ * as callers used to make, with the shared Stone.of and with place(int cell), and whole games of
+ * two RandomPlayers, which end with a win or a draw.
+ *
+ * Meant to be run with the GC profiler, whose gc.alloc.rate.norm is the bytes allocated per operation:
+ * mvn -Pbench compile exec:exec -Djmh.args="AllocationBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AllocationBenchmark {
+
+    static final int BATCH = 40;
+
+    private final HumanPlayer one = new HumanPlayer("Dori");
+    private final HumanPlayer two = new HumanPlayer("Nemo");
+    private List<Stone> moves;
+    private int[] cells;
+    private Gomoku game;
+
+    @Setup
+    public void createMoves() {
+        moves = GomokuBenchmark.drawnGame().subList(0, BATCH);
+        cells = new int[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            cells[i] = moves.get(i).getRow() * Gomoku.WIDTH + moves.get(i).getColumn();
+        }
+        game = new Gomoku(one, two, true);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void placeNewStones(Blackhole blackhole) {
+        for (Stone move : moves) {
+            blackhole.consume(game.place(new Stone(move.getRow(), move.getColumn(), move.isBlack())));
+        }
+        undoAll();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void placeSharedStones(Blackhole blackhole) {
+        for (Stone move : moves) {
+            blackhole.consume(game.place(Stone.of(move.getRow(), move.getColumn(), move.isBlack())));
+        }
+        undoAll();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void placeCells(Blackhole blackhole) {
+        for (int cell : cells) {
+            blackhole.consume(game.place(cell));
+        }
+        undoAll();
+    }
+
+    @State(Scope.Thread)
+    public static class RandomGame {
+        final RandomPlayer black = new RandomPlayer();
+        final RandomPlayer white = new RandomPlayer();
+    }
+
+    // Per game, including the Gomoku and its board
+    @Benchmark
+    public int randomGame(RandomGame players) {
+        Gomoku game = new Gomoku(players.black, players.white, true);
+        while (!game.isOver()) {
+            game.place(game.getCurrent().generateMove(game.getMoveHistory()));
+        }
+        return game.getMoveHistory().moveCount();
+    }
+
+    private void undoAll() {
+        while (game.undo() != null) {
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package learn.gomoku.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The dense BitBoard against the hash-based SparseBoard on the same widths, plus a
+ * sparse board far too large for a dense one. Every operation works on STONES stones
+ * scattered around the centre, about as many as a long game.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    static final int STONES = 100;
+
+    @Param({"dense:15", "sparse:15", "dense:19", "sparse:19", "sparse:1000000"})
+    public String board;
+
+    private Board target;
+    private final int[] rows = new int[STONES];
+    private final int[] columns = new int[STONES];
+
+    @Setup
+    public void setup() {
+        String[] parts = board.split(":");
+        int width = Integer.parseInt(parts[1]);
+        target = parts[0].equals("dense") ? new BitBoard(width) : new SparseBoard(width);
+
+        // Distinct cells within a 15 by 15 square in the middle of the board
+        Random random = new Random(11);
+        int offset = (width - Gomoku.WIDTH) / 2;
+        boolean[][] used = new boolean[Gomoku.WIDTH][Gomoku.WIDTH];
+        for (int i = 0; i < STONES; i++) {
+            int r;
+            int c;
+            do {
+                r = random.nextInt(Gomoku.WIDTH);
+                c = random.nextInt(Gomoku.WIDTH);
+            } while (used[r][c]);
+            used[r][c] = true;
+            rows[i] = offset + r;
+            columns[i] = offset + c;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STONES)
+    public int setGetClear() {
+        int found = 0;
+        for (int i = 0; i < STONES; i++) {
+            target.set(rows[i], columns[i], (i & 1) == 0);
+        }
+        for (int i = 0; i < STONES; i++) {
+            found += target.get(rows[i], columns[i]);
+        }
+        for (int i = 0; i < STONES; i++) {
+            target.clear(rows[i], columns[i]);
+        }
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STONES)
+    public int patternLookup() {
+        for (int i = 0; i < STONES; i++) {
+            target.set(rows[i], columns[i], (i & 1) == 0);
+        }
+        int patterns = 0;
+        for (int i = 0; i < STONES; i++) {
+            patterns += PatternTable.pattern(target, rows[i], columns[i], BitBoard.ROW, (i & 1) == 0);
+        }
+        for (int i = 0; i < STONES; i++) {
+            target.clear(rows[i], columns[i]);
+        }
+        return patterns;
+    }
+}
@@ -0,0 +1,112 @@
+package learn.gomoku.game;
+
+import learn.gomoku.players.HumanPlayer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gomoku.place (alone and followed by undo) on empty, mid-game and near-full boards, and getStones() copying
+ * compared with reading the last move through the non-copying MoveHistory, each with
+ * and without publishing snapshots.
+ *
+ * The moves come from a game that fills the board without anybody making five,
+ * so every phase places real, successful moves.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GomokuBenchmark {
+
+    static final int BATCH = 20;
+
+    @Param({"0", "100", "200"})
+    public int stonesBefore;
+
+    // Whether the game publishes a GameSnapshot after every move
+    @Param({"false", "true"})
+    public boolean snapshots;
+
+    private final HumanPlayer one = new HumanPlayer("Dori");
+    private final HumanPlayer two = new HumanPlayer("Nemo");
+    private List<Stone> moves;
+    private Gomoku game;
+
+    @Setup(Level.Trial)
+    public void createMoves() {
+        moves = drawnGame();
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareGame() {
+        game = new Gomoku(one, two, true);
+        for (int i = 0; i < stonesBefore; i++) {
+            game.place(moves.get(i));
+        }
+        if (snapshots) {
+            game.enableSnapshots();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void place(Blackhole blackhole) {
+        for (int i = stonesBefore; i < stonesBefore + BATCH; i++) {
+            blackhole.consume(game.place(moves.get(i)));
+        }
+    }
+
+    // Leaves the game as it was, so it could run without a fresh game per invocation
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void placeAndUndo(Blackhole blackhole) {
+        for (int i = stonesBefore; i < stonesBefore + BATCH; i++) {
+            blackhole.consume(game.place(moves.get(i)));
+        }
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(game.undo());
+        }
+    }
+
+    @Benchmark
+    public List<Stone> getStones() {
+        return game.getStones();
+    }
+
+    @Benchmark
+    public Stone moveHistoryLastMove() {
+        return game.getMoveHistory().lastMove();
+    }
+
+    /**
+     * Fills the board row by row, in a row order that never lines up five stones of one colour.
+     */
+    static List<Stone> drawnGame() {
+        int[] rows = {0, 2, 1, 3, 4, 6, 5, 7, 8, 10, 9, 11, 12, 14, 13};
+        List<Stone> stones = new ArrayList<>();
+        for (int row : rows) {
+            for (int col = 0; col < Gomoku.WIDTH; col++) {
+                stones.add(new Stone(row, col, stones.size() % 2 == 0));
+            }
+        }
+        return stones;
+    }
+}
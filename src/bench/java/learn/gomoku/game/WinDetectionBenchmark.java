@@ -0,0 +1,109 @@
+package learn.gomoku.game;
+
+import learn.gomoku.players.HumanPlayer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Five-in-a-row detection through the last stone of a five, in each of the four directions,
+ * with the BitBoard shift scan and with a PatternTable lookup, and on the game path as
+ * Gomoku.place of the winning stone followed by undo().
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WinDetectionBenchmark {
+
+    private static final int[][] DELTAS = {{0, 1}, {1, 0}, {1, 1}, {-1, 1}};
+
+    @Param({"ROW", "COLUMN", "DIAGONAL_DOWN", "DIAGONAL_UP"})
+    public String direction;
+
+    private final BitBoard board = new BitBoard();
+    private int directionIndex;
+    private int lastCell;
+    private Gomoku game;
+    private Stone winningMove;
+
+    @Setup
+    public void setup() {
+        switch (direction) {
+            case "COLUMN":
+                directionIndex = BitBoard.COLUMN;
+                break;
+            case "DIAGONAL_DOWN":
+                directionIndex = BitBoard.DIAGONAL_DOWN;
+                break;
+            case "DIAGONAL_UP":
+                directionIndex = BitBoard.DIAGONAL_UP;
+                break;
+            default:
+                directionIndex = BitBoard.ROW;
+        }
+
+        // A five through the middle of the board with the last stone in its centre
+        int[] delta = DELTAS[directionIndex];
+        for (int k = -2; k <= 2; k++) {
+            board.set(board.index(7 + k * delta[0], 7 + k * delta[1]), true);
+        }
+        lastCell = board.index(7, 7);
+
+        // The same five in a game, short of its centre stone, with white stones out of the way
+        game = new Gomoku(new HumanPlayer("Dori"), new HumanPlayer("Nemo"), true);
+        int white = 0;
+        for (int k = -2; k <= 2; k++) {
+            if (k != 0) {
+                game.place(Stone.of(7 + k * delta[0], 7 + k * delta[1], true));
+                game.place(Stone.of(14, white, false));
+                white += 2;
+            }
+        }
+        winningMove = Stone.of(7, 7, true);
+    }
+
+    @Benchmark
+    public boolean isFiveInDirection() {
+        return board.isFive(lastCell, directionIndex);
+    }
+
+    @Benchmark
+    public boolean isFive() {
+        return board.isFive(lastCell);
+    }
+
+    @Benchmark
+    public boolean tableLookupInDirection() {
+        return PatternTable.pattern(board, lastCell, directionIndex, true) == PatternTable.FIVE;
+    }
+
+    @Benchmark
+    public boolean tableLookup() {
+        for (int d = 0; d < BitBoard.DIRECTIONS; d++) {
+            if (PatternTable.pattern(board, lastCell, d, true) == PatternTable.FIVE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean placeWinningMove() {
+        boolean won = game.place(winningMove).getCode() == Result.Code.WIN;
+        game.undo();
+        return won;
+    }
+}
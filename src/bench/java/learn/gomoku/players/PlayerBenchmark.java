@@ -0,0 +1,101 @@
+package learn.gomoku.players;
+
+import learn.gomoku.game.Gomoku;
+import learn.gomoku.game.Result;
+import learn.gomoku.game.Stone;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move generation of every player type and whole random games.
+ *
+ * The engine players run with fixed work budgets (depth or playouts) instead of
+ * time limits so their scores are comparable across runs.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerBenchmark {
+
+    // A quiet mid-game position, row and column pairs with black first
+    private static final int[] POSITION = {7, 7, 5, 7, 5, 9, 4, 8, 6, 6, 6, 8, 7, 9, 5, 8, 7, 8, 7, 10};
+
+    private final RandomPlayer randomOne = new RandomPlayer();
+    private final RandomPlayer randomTwo = new RandomPlayer();
+    private final MctsPlayer mctsPlayer = new MctsPlayer("MCTS Engine", 0, 1);
+    private List<Stone> position;
+
+    @Setup
+    public void setup() {
+        position = new ArrayList<>();
+        for (int i = 0; i < POSITION.length; i += 2) {
+            position.add(new Stone(POSITION[i], POSITION[i + 1], position.size() % 2 == 0));
+        }
+        mctsPlayer.setPlayouts(1_000);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Stone randomGenerateMove() {
+        return randomOne.generateMove(position);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Player randomGame() {
+        Gomoku game = new Gomoku(randomOne, randomTwo, true);
+        while (!game.isOver()) {
+            Result result;
+            do {
+                result = game.place(game.getCurrent().generateMove(game.getStones()));
+            } while (!result.isSuccess());
+        }
+        return game.getWinner();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Stone searchDepthThree(FreshSearch fresh) {
+        return fresh.player.generateMove(position);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Stone mctsThousandPlayouts() {
+        return mctsPlayer.generateMove(position);
+    }
+
+    /**
+     * A new search player for every call, so no call finds the previous one's results in the transposition table.
+     */
+    @State(Scope.Thread)
+    public static class FreshSearch {
+
+        SearchPlayer player;
+
+        @Setup(Level.Invocation)
+        public void setup() {
+            player = new SearchPlayer("Search Engine", 0);
+            player.setMaxDepth(3);
+            player.setThreatCheck(false);
+        }
+    }
+}
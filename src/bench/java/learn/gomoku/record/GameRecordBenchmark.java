@@ -0,0 +1,91 @@
+package learn.gomoku.record;
+
+import learn.gomoku.game.Gomoku;
+import learn.gomoku.players.RandomPlayer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing and reading GAMES random games, about a hundred moves each, through a file.
+ * Scores are games per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameRecordBenchmark {
+
+    static final int GAMES = 10_000;
+
+    private final GameRecord[] records = new GameRecord[GAMES];
+    private Path written;
+    private Path scratch;
+
+    @Setup
+    public void setup() throws IOException {
+        RandomPlayer one = new RandomPlayer();
+        RandomPlayer two = new RandomPlayer();
+        for (int i = 0; i < GAMES; i++) {
+            Gomoku game = new Gomoku(one, two, i % 2 == 0);
+            while (!game.isOver()) {
+                game.place(game.getCurrent().generateMove(game.getMoveHistory()));
+            }
+            records[i] = GameRecord.of(game);
+        }
+        written = Files.createTempFile("games", ".gmr");
+        scratch = Files.createTempFile("scratch", ".gmr");
+        try (GameRecordWriter writer = new GameRecordWriter(
+                FileChannel.open(written, StandardOpenOption.WRITE), Gomoku.WIDTH)) {
+            for (GameRecord record : records) {
+                writer.write(record);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(written);
+        Files.deleteIfExists(scratch);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public void write() throws IOException {
+        try (GameRecordWriter writer = new GameRecordWriter(FileChannel.open(scratch,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING), Gomoku.WIDTH)) {
+            for (GameRecord record : records) {
+                writer.write(record);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public void read(Blackhole blackhole) throws IOException {
+        try (GameRecordReader reader = GameRecordReader.open(written)) {
+            for (GameRecord record = reader.next(); record != null; record = reader.next()) {
+                blackhole.consume(record);
+            }
+        }
+    }
+}
@@ -1,14 +1,229 @@
 package learn.gomoku;
 
-import java.util.Scanner;
+import learn.gomoku.analysis.GameAnalyzer;
+import learn.gomoku.book.BookPlayer;
+import learn.gomoku.book.OpeningBook;
+import learn.gomoku.book.OpeningBookBuilder;
+import learn.gomoku.engine.ParallelSearch;
+import learn.gomoku.engine.TranspositionTable;
+import learn.gomoku.game.Gomoku;
+import learn.gomoku.metrics.Metrics;
+import learn.gomoku.metrics.MetricsReporter;
+import learn.gomoku.players.Player;
+import learn.gomoku.players.SearchPlayer;
+import learn.gomoku.record.GameRecord;
+import learn.gomoku.record.GameRecordReader;
+import learn.gomoku.record.GameRecordWriter;
+import learn.gomoku.server.GameServer;
+import learn.gomoku.server.LoadGenerator;
+import learn.gomoku.tournament.Tournament;
+import learn.gomoku.tournament.TournamentResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 public class App {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        // With -Dgomoku.metrics=true, print the metrics to standard error every
+        // gomoku.metrics.interval seconds, as JSON lines with -Dgomoku.metrics.json=true
+        if (Metrics.ENABLED) {
+            MetricsReporter reporter = new MetricsReporter(Metrics.get(), System.err,
+                    Boolean.getBoolean("gomoku.metrics.json"));
+            reporter.start(Long.getLong("gomoku.metrics.interval", 10), TimeUnit.SECONDS);
+        }
+
+        // With arguments, run a headless tournament:
+        // tournament <first player> <second player> <games> [threads] [--book <file>] [--record <file>]
+        //     [--table <file>] [--table-mb <megabytes>]
+        // for example: tournament random search:20 1000 8
+        if (args.length > 0 && "tournament".equals(args[0])) {
+            runTournament(args);
+            return;
+        }
+        // Or build an opening book from recorded games:
+        // book <book file> <record file> [plies]
+        if (args.length > 0 && "book".equals(args[0])) {
+            buildBook(args);
+            return;
+        }
+
+        // Or print statistics of recorded games:
+        // analyze <record file>... [--threads <threads>]
+        if (args.length > 0 && "analyze".equals(args[0])) {
+            analyze(args);
+            return;
+        }
+
+        // Or host games over TCP, and load test a running server:
+        // server [port] [bot threads] [--book <file>] [--table <file>] [--table-mb <megabytes>]
+        // load [host:]port <sessions> [games per session] [opponent]
+        if (args.length > 0 && "server".equals(args[0])) {
+            int port = args.length > 1 && !args[1].startsWith("--")
+                    ? Integer.parseInt(args[1])
+                    : GameServer.DEFAULT_PORT;
+            int botThreads = args.length > 2 && !args[2].startsWith("--")
+                    ? Integer.parseInt(args[2])
+                    : Runtime.getRuntime().availableProcessors();
+            GameServer server = new GameServer(port, botThreads);
+            server.setOpeningBook(openBook(option(args, "--book")));
+            server.setTable(openTable(args));
+            server.start();
+            System.out.println("Serving Gomoku on port " + server.getPort() + ".");
+            return;
+        }
+        if (args.length > 0 && "load".equals(args[0])) {
+            LoadGenerator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         // Create a new instance of GameController
         // invoke the run method
         GameController gameController = new GameController();
 
+        // --ansi redraws only the cells that changed instead of printing the whole board after every move
+        if (Arrays.asList(args).contains("--ansi")) {
+            gameController.setRenderer(new BoardRenderer(true));
+        }
+
+        // --book <file> makes the engines play from an opening book
+        gameController.setOpeningBook(openBook(option(args, "--book")));
+        // --table <file> keeps what the search players learn in a file, for the next run
+        gameController.setTable(openTable(args));
+
+        // play <record file> saves every finished game to the file
+        if (args.length > 1 && "play".equals(args[0]) && !args[1].startsWith("--")) {
+            try (GameRecordWriter writer = GameRecordWriter.open(Path.of(args[1]), Gomoku.WIDTH)) {
+                gameController.setRecordWriter(writer);
+                gameController.run();
+            }
+            return;
+        }
+
         gameController.run();
     }
+
+    private static void runTournament(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.out.println("Usage: tournament <first player> <second player> <games> [threads]"
+                    + " [--book <file>] [--record <file>] [--table <file>] [--table-mb <megabytes>]");
+            System.out.println("Players: random, search[:millis], mcts[:millis]");
+            return;
+        }
+        long games = Long.parseLong(args[3]);
+        int threads = args.length > 4 && !args[4].startsWith("--")
+                ? Integer.parseInt(args[4])
+                : Runtime.getRuntime().availableProcessors();
+        String bookFile = option(args, "--book");
+        String recordFile = option(args, "--record");
+        OpeningBook book = openBook(bookFile);
+        TranspositionTable table = openTable(args);
+
+        Tournament tournament = new Tournament(
+                withBook(withTable(Tournament.playerType(args[1]), table), book),
+                withBook(withTable(Tournament.playerType(args[2]), table), book),
+                threads);
+        if (recordFile == null) {
+            System.out.println(tournament.run(games));
+            return;
+        }
+        try (GameRecordWriter writer = GameRecordWriter.open(Path.of(recordFile), Gomoku.WIDTH)) {
+            tournament.setGameListener(record -> {
+                try {
+                    writer.write(record);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            TournamentResult result = tournament.run(games);
+            System.out.println(result);
+        }
+    }
+
+    private static void buildBook(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.out.println("Usage: book <book file> <record file> [plies]");
+            System.out.println("Record games with: tournament <first player> <second player> <games> --record <file>");
+            return;
+        }
+        int plies = args.length > 3 ? Integer.parseInt(args[3]) : OpeningBookBuilder.DEFAULT_MAX_PLY;
+
+        OpeningBookBuilder builder;
+        try (GameRecordReader reader = GameRecordReader.open(Path.of(args[2]))) {
+            builder = new OpeningBookBuilder(reader.getWidth(), plies);
+            for (GameRecord record = reader.next(); record != null; record = reader.next()) {
+                builder.addGame(record);
+            }
+        }
+        builder.write(Path.of(args[1]));
+        System.out.println("Wrote " + OpeningBook.open(Path.of(args[1])).size()
+                + " book moves from " + builder.getGames() + " games to " + args[1]);
+    }
+
+    private static void analyze(String[] args) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].startsWith("--")) {
+                i++;
+            } else {
+                files.add(Path.of(args[i]));
+            }
+        }
+        if (files.isEmpty()) {
+            System.out.println("Usage: analyze <record file>... [--threads <threads>]");
+            return;
+        }
+        String threads = option(args, "--threads");
+        GameAnalyzer analyzer = threads == null ? new GameAnalyzer() : new GameAnalyzer(Integer.parseInt(threads));
+        System.out.println(analyzer.analyze(files));
+    }
+
+    private static Supplier<Player> withBook(Supplier<Player> player, OpeningBook book) {
+        return book == null ? player : () -> BookPlayer.of(book, player.get());
+    }
+
+    // Every search player shares the table, which is safe since tables need no locks
+    private static Supplier<Player> withTable(Supplier<Player> player, TranspositionTable table) {
+        if (table == null) {
+            return player;
+        }
+        return () -> {
+            Player created = player.get();
+            if (created instanceof SearchPlayer) {
+                ((SearchPlayer) created).setTable(table);
+            }
+            return created;
+        };
+    }
+
+    // The table on the file after --table, of --table-mb megabytes, or null without --table
+    private static TranspositionTable openTable(String[] args) throws IOException {
+        String file = option(args, "--table");
+        if (file == null) {
+            return null;
+        }
+        String megabytes = option(args, "--table-mb");
+        return TranspositionTable.open(Path.of(file),
+                megabytes == null ? ParallelSearch.DEFAULT_TABLE_MEGABYTES : Integer.parseInt(megabytes));
+    }
+
+    private static OpeningBook openBook(String file) throws IOException {
+        return file == null ? null : OpeningBook.open(Path.of(file));
+    }
+
+    // Value following name in args, or null when it isn't there
+    private static String option(String[] args, String name) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (name.equals(args[i])) {
+                return args[i + 1];
+            }
+        }
+        return null;
+    }
 }
@@ -0,0 +1,248 @@
+package learn.gomoku;
+
+import learn.gomoku.game.BitBoard;
+import learn.gomoku.game.Board;
+import learn.gomoku.game.Gomoku;
+import learn.gomoku.game.MoveHistory;
+import learn.gomoku.game.Stone;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Draws the board of a game as text, one frame per call.
+ *
+ * A frame is built as ASCII bytes in a buffer that is reused from frame to frame and
+ * goes out in a single write. The cells are read from the MoveHistory of the game.
+ * Boards up to Board.MAX_DENSE_WIDTH are drawn whole, larger ones only around their
+ * stones.
+ *
+ * In ANSI mode the first frame clears the screen, draws the board at the top and keeps
+ * it there by letting only the lines below it scroll. Every later frame moves the cursor
+ * to the cells that changed, redraws just those and puts the cursor back, so a move
+ * costs a few dozen bytes instead of a whole board. The board is drawn in full again
+ * when the part of the board shown changes.
+ */
+public class BoardRenderer {
+
+    private static final byte[] NEWLINE = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    private static final String ESCAPE = "\u001b[";
+    private static final String SAVE_CURSOR = "\u001b7";
+    private static final String RESTORE_CURSOR = "\u001b8";
+
+    private final boolean ansi;
+    private byte[] frame = new byte[4096];
+    private int length;
+
+    // Rows and columns drawn in the previous frame, and the cells as drawn
+    private int top = -1;
+    private int left;
+    private int bottom;
+    private int right;
+    private int width;
+    private byte[] shown = new byte[0];
+
+    // Stones looked at so far for the part of a large board to show
+    private int seen;
+    private Stone lastSeen;
+    private int minRow;
+    private int maxRow;
+    private int minColumn;
+    private int maxColumn;
+
+    /**
+     * Creates a renderer that prints every frame in full, the same as the console game always has.
+     */
+    public BoardRenderer() {
+        this(false);
+    }
+
+    public BoardRenderer(boolean ansi) {
+        this.ansi = ansi;
+    }
+
+    public boolean isAnsi() {
+        return ansi;
+    }
+
+    public void render(MoveHistory history, PrintStream out) {
+        int size = history.getWidth();
+        length = 0;
+
+        // Choosing the rows and columns to show
+        int newTop = 0;
+        int newLeft = 0;
+        int newBottom = size - 1;
+        int newRight = size - 1;
+        if (size > Board.MAX_DENSE_WIDTH) {
+            track(history);
+            int margin = history.isEmpty() ? Gomoku.WIDTH / 2 : 2;
+            newTop = Math.max(0, minRow - margin);
+            newLeft = Math.max(0, minColumn - margin);
+            newBottom = Math.min(size - 1, maxRow + margin);
+            newRight = Math.min(size - 1, maxColumn + margin);
+        }
+
+        boolean sameView = ansi && size == width && newTop == top && newLeft == left
+                && newBottom == bottom && newRight == right;
+        top = newTop;
+        left = newLeft;
+        bottom = newBottom;
+        right = newRight;
+        width = size;
+        int columns = right - left + 1;
+        int cells = (bottom - top + 1) * columns;
+        if (shown.length != cells) {
+            shown = new byte[cells];
+        }
+
+        // Numbers take at least two digits
+        int digits = Math.max(2, String.valueOf(Math.max(bottom, right) + 1).length());
+        if (sameView) {
+            drawChanges(history, digits);
+        } else {
+            drawAll(history, digits);
+        }
+
+        if (length > 0) {
+            out.write(frame, 0, length);
+            out.flush();
+        }
+    }
+
+    /**
+     * Releases the top of the screen again, for ANSI mode. Does nothing otherwise.
+     */
+    public void finish(PrintStream out) {
+        if (ansi) {
+            length = 0;
+            append(ESCAPE + "r");
+            out.write(frame, 0, length);
+            out.flush();
+            top = -1;
+        }
+    }
+
+    private void drawAll(MoveHistory history, int digits) {
+        if (ansi) {
+            append(ESCAPE + "2J" + ESCAPE + "H");
+        }
+
+        // Column numbers at the top of the board for easy reference
+        spaces(digits + 1);
+        for (int col = left; col <= right; col++) {
+            number(col + 1, digits);
+            append((byte) ' ');
+        }
+        append(NEWLINE);
+
+        // Rows with row numbers and board contents
+        int i = 0;
+        for (int row = top; row <= bottom; row++) {
+            number(row + 1, digits);
+            append((byte) ' ');
+            for (int col = left; col <= right; col++, i++) {
+                byte cell = history.getCell(row, col);
+                shown[i] = cell;
+                spaces(digits - 1);
+                append(symbol(cell));
+                append((byte) ' ');
+            }
+            append(NEWLINE);
+        }
+
+        if (ansi) {
+            // Only the lines below the board scroll from now on, and the cursor goes there
+            int lines = bottom - top + 2;
+            append(ESCAPE + (lines + 1) + ";r" + ESCAPE + (lines + 1) + ";1H");
+        }
+    }
+
+    private void drawChanges(MoveHistory history, int digits) {
+        boolean saved = false;
+        int i = 0;
+        for (int row = top; row <= bottom; row++) {
+            for (int col = left; col <= right; col++, i++) {
+                byte cell = history.getCell(row, col);
+                if (cell == shown[i]) {
+                    continue;
+                }
+                shown[i] = cell;
+                if (!saved) {
+                    append(SAVE_CURSOR);
+                    saved = true;
+                }
+                // Screen positions count from 1, the header is line 1 and every cell takes digits + 1 columns
+                int line = row - top + 2;
+                int column = (col - left + 1) * (digits + 1) + digits;
+                append(ESCAPE + line + ";" + column + "H");
+                append(symbol(cell));
+            }
+        }
+        if (saved) {
+            append(RESTORE_CURSOR);
+        }
+    }
+
+    // Grows the rows and columns with stones by the moves since the last frame, starting over
+    // when the moves are not a continuation of the ones seen, for example after an undo
+    private void track(MoveHistory history) {
+        int count = history.moveCount();
+        if (count < seen || seen > 0 && history.get(seen - 1) != lastSeen) {
+            seen = 0;
+        }
+        if (seen == 0) {
+            int centre = history.getWidth() / 2;
+            minRow = maxRow = minColumn = maxColumn = centre;
+        }
+        for (; seen < count; seen++) {
+            Stone stone = history.get(seen);
+            minRow = Math.min(minRow, stone.getRow());
+            maxRow = Math.max(maxRow, stone.getRow());
+            minColumn = Math.min(minColumn, stone.getColumn());
+            maxColumn = Math.max(maxColumn, stone.getColumn());
+        }
+        lastSeen = count > 0 ? history.get(count - 1) : null;
+    }
+
+    private static byte symbol(byte cell) {
+        return (byte) (cell == BitBoard.BLACK ? 'B' : cell == BitBoard.WHITE ? 'W' : '_');
+    }
+
+    private void number(int value, int digits) {
+        ensure(digits);
+        for (int i = digits - 1; i >= 0; i--) {
+            frame[length + i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        length += digits;
+    }
+
+    private void spaces(int count) {
+        ensure(count);
+        Arrays.fill(frame, length, length + count, (byte) ' ');
+        length += count;
+    }
+
+    private void append(byte value) {
+        ensure(1);
+        frame[length++] = value;
+    }
+
+    private void append(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, frame, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void append(String text) {
+        append(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private void ensure(int bytes) {
+        if (length + bytes > frame.length) {
+            frame = Arrays.copyOf(frame, Math.max(frame.length * 2, length + bytes));
+        }
+    }
+}
@@ -1,25 +1,54 @@
 package learn.gomoku;
 
+import learn.gomoku.book.BookPlayer;
+import learn.gomoku.book.OpeningBook;
+import learn.gomoku.engine.MctsResult;
+import learn.gomoku.engine.SearchResult;
+import learn.gomoku.engine.TranspositionTable;
+import learn.gomoku.game.Board;
 import learn.gomoku.game.Gomoku;
 import learn.gomoku.game.Result;
 import learn.gomoku.game.Stone;
+import learn.gomoku.players.ConsoleMoveSource;
 import learn.gomoku.players.HumanPlayer;
+import learn.gomoku.players.MctsPlayer;
+import learn.gomoku.players.MoveSource;
 import learn.gomoku.players.Player;
 import learn.gomoku.players.RandomPlayer;
+import learn.gomoku.players.SearchPlayer;
+import learn.gomoku.record.GameRecord;
+import learn.gomoku.record.GameRecordWriter;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static learn.gomoku.game.Gomoku.WIDTH;
 
-public class GameController {
+public class GameController implements AutoCloseable {
 
     // Fields
     private Scanner console;
 
     public Gomoku game;
-    public char[][] board;
     public Result result;
+    private int width = WIDTH;
+    private GameRecordWriter recordWriter;
+    private BoardRenderer renderer = new BoardRenderer();
+    private OpeningBook book;
+    private TranspositionTable table;
+    // Where the moves of each player come from, and the threads engines think on
+    private final Map<Player, MoveSource> sources = new HashMap<>();
+    private final ExecutorService engines = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "engine");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ConsoleMoveSource consoleSource;
+    private Scanner consoleScanner;
 
 
     // Methods
@@ -33,10 +62,12 @@ public class GameController {
      *  3. Enters a loop where the game is played until it is over:
      *      a. Calls the play method, allowing the player to make moves or the computer to generate moves.
      *      b. Checks if the game is over using the isOver method.
-     *  4. Prints a newline and the game result message.
-     *  5. Asks the player if they want to play again using the playAgain method and stores the answer.
-     *  6. If the player wants to play again, recursively calls the run method to start a new game.
-     *  7. If the player decides not to play again, prints a goodbye message.
+     *  4. Closes the MoveSources of the players, so engines don't keep pondering and release their threads.
+     *  5. Prints a newline and the game result message, and saves the game if a record writer is set.
+     *  6. Asks the player if they want to play again using the playAgain method and stores the answer.
+     *  7. If the player wants to play again, recursively calls the run method to start a new game.
+     *  8. If the player decides not to play again, hands the screen back from the renderer, closes the controller
+     *     and prints a goodbye message.
      */
 
     public void run() {
@@ -53,49 +84,136 @@ public class GameController {
             }
         }
 
+        // Stopping engines that are still thinking ahead and releasing their threads, a new game makes new players
+        for (MoveSource source : sources.values()) {
+            source.close();
+        }
+        sources.clear();
+
         // Printing the message who wins
         System.out.println("\n" + result);
         System.out.println(result.getMessage());
+        saveGame();
 
         // Asking the user if they want to play again
         if (playAgain()) {
            run();
         } else {
+            renderer.finish(System.out);
+            close();
             System.out.println("Goodbye!");
         }
     }
 
 
+    /**
+     * Method Name: setRecordWriter
+     * Method Output: none
+     * Method Input: GameRecordWriter recordWriter
+     * Explanation: This method sets the writer that every finished game is saved to. Without one, games aren't saved.
+     */
+
+    public void setRecordWriter(GameRecordWriter recordWriter) {
+        this.recordWriter = recordWriter;
+    }
+
+
+    /**
+     * Method Name: setRenderer
+     * Method Output: none
+     * Method Input: BoardRenderer renderer
+     * Explanation: This method sets the renderer the board is printed with, for example one in ANSI mode.
+     */
+
+    public void setRenderer(BoardRenderer renderer) {
+        this.renderer = renderer;
+    }
+
+
+    /**
+     * Method Name: setOpeningBook
+     * Method Output: none
+     * Method Input: OpeningBook book
+     * Explanation: This method sets the opening book that computer players play from while the game is in it,
+     * before they search. Null plays without a book.
+     */
+
+    public void setOpeningBook(OpeningBook book) {
+        this.book = book;
+    }
+
+
+    /**
+     * Method Name: setTable
+     * Method Output: none
+     * Method Input: TranspositionTable table
+     * Explanation: This method sets the transposition table that search players keep their results in, for example
+     * one opened on a file so the analysis carries over to later runs. Null gives every search player its own.
+     */
+
+    public void setTable(TranspositionTable table) {
+        this.table = table;
+    }
+
+
+    /**
+     * Method Name: saveGame
+     * Method Output: none
+     * Method Input: none
+     * Explanation: This method saves the finished game to the record writer, if there is one. It follows these steps:
+     *  1. Returns if no record writer is set.
+     *  2. Skips games on a board of another width than the record file, with a message.
+     *  3. Writes the game and flushes it to the file, so it is kept even if the program is stopped.
+     *  4. Prints a message if writing fails instead of ending the program.
+     */
+
+    private void saveGame() {
+        if (recordWriter == null) {
+            return;
+        }
+        if (game.getWidth() != recordWriter.getWidth()) {
+            System.out.println("Games on a " + game.getWidth() + " wide board can't be saved to this record file.");
+            return;
+        }
+        try {
+            recordWriter.write(GameRecord.of(game));
+            recordWriter.flush();
+        } catch (IOException e) {
+            System.out.println("Could not save the game: " + e.getMessage());
+        }
+    }
+
+
     /**
      * Method Name: setup
      * Method Output: none
      * Method Input: none
      * Explanation: This method initializes the Gomoku game by performing the following steps:
-     *  1. Creates a new char array to represent the game board with dimensions WIDTH x WIDTH.
-     *  2. Prints a welcome message to the console.
+     *  1. Prints a welcome message to the console.
+     *  2. Asks for the board width using the getWidth method.
      *  3. Asks for the name of Player 1 and sets it if Player 1 is a human player.
      *  4. Asks for the name of Player 2 and sets it if Player 2 is a human player.
-     *  5. Creates a new Gomoku game instance with the initialized players.
+     *  5. Creates a new Gomoku game instance with the initialized players and board width.
      *  6. Prints a message indicating the randomization of the starting player.
      *  7. Prints a message announcing which player goes first.
      */
 
     public void setup() {
 
-        // Initializing the board
-        board = new char[WIDTH][WIDTH];
-
         System.out.println("Welcome to Gomoku");
         System.out.println("=================");
 
         console = new Scanner(System.in);
 
+        // Asking for the size of the board
+        width = getWidth(console);
+
         // Creating the players
         Player player1 = getPlayer(1, console);
         Player player2 = getPlayer(2, console);
 
         // Creating the game
-        game = new Gomoku(player1, player2);
+        game = new Gomoku(player1, player2, Math.random() < 0.5, width);
 
         System.out.println("\n(Randomizing)");
 
@@ -104,6 +222,36 @@ public class GameController {
 
     }
 
+    /**
+     * Method Name: getWidth
+     * Method Output: int
+     * Method Input: Scanner console
+     * Explanation: This method asks for the width of the board and returns it. It follows these steps:
+     *  1. Prompts the user for a width, showing the standard width as the default.
+     *  2. Returns the standard width if the user just presses Enter.
+     *  3. Re-prompts until the answer is a whole number of at least 5, the length of a winning row.
+     *  4. Boards wider than Board.MAX_DENSE_WIDTH only store their stones and are printed around the stones.
+     */
+
+    public int getWidth(Scanner console) {
+        while (true) {
+            System.out.print("Board width [" + WIDTH + "]: ");
+            String answer = console.nextLine().trim();
+            if (answer.isEmpty()) {
+                return WIDTH;
+            }
+            try {
+                int choice = Integer.parseInt(answer);
+                if (choice >= 5) {
+                    return choice;
+                }
+            } catch (NumberFormatException ex) {
+                // Falls through to the message below
+            }
+            System.out.println("The width must be a whole number of at least 5.");
+        }
+    }
+
     /**
      * Method Name: getPlayer
      * Method Output: Player
@@ -115,9 +263,13 @@ public class GameController {
      *  3. Displays the player number and options to the user:
      *      - 1 for Human Player
      *      - 2 for Random Player
+     *      - 3 for Search Player
+     *      - 4 for MCTS Player
      *  4. Reads the user's choice and creates the corresponding player instance.
      *  5. Marks the choice as valid, and exits the loop.
-     *  6. Returns the selected player instance.
+     *  6. Gives a search player the transposition table, if one is set.
+     *  7. Returns the selected player instance, playing from the opening book if it is a computer player
+     *     and a book is set.
      */
 
     public Player getPlayer(int playerNumber, Scanner console) {
@@ -128,7 +280,9 @@ public class GameController {
             System.out.println("Player " + playerNumber + " is:");
             System.out.println("1. Human");
             System.out.println("2. Random Player");
-            System.out.print("Select [1-2]: ");
+            System.out.println("3. Search Player");
+            System.out.println("4. MCTS Player");
+            System.out.print("Select [1-4]: ");
 
             int choice = Integer.parseInt(console.nextLine());
 
@@ -150,13 +304,26 @@ public class GameController {
                     // Creating random player
                     player = new RandomPlayer();
                     break;
+                case 3:
+                case 4:
+                    // The engines keep a dense board of their own
+                    if (width > Board.MAX_DENSE_WIDTH) {
+                        System.out.println("Engines can only play on boards up to " + Board.MAX_DENSE_WIDTH + " wide.");
+                        break;
+                    }
+                    // Creating search player or Monte Carlo tree search player
+                    player = choice == 3 ? new SearchPlayer() : new MctsPlayer();
+                    break;
                 default:
                     System.out.println("Invalid choice.");
             }
         } while (player == null);
 
         //System.out.println("human player2");
-        return player;
+        if (player instanceof SearchPlayer && table != null) {
+            ((SearchPlayer) player).setTable(table);
+        }
+        return player instanceof HumanPlayer ? player : BookPlayer.of(book, player);
     }
 
 
@@ -165,64 +332,34 @@ public class GameController {
  * Method Output: none
  * Method Input: none
  * Explanation: This method prints the current state of the game board to the console. It follows these steps:
- *  1. Retrieves the list of stones from the game using game.getStones().
- *  2. Iterates through each stone in the list, updating the board array based on stone positions and colors.
- *  3. Prints column numbers at the top of the board for easy reference.
- *  4. Prints each row of the board, indicating 'B' for black stones, 'W' for white stones, and '_' for empty spots.
- *  5. Ensures proper formatting and spacing for a clear and readable board display.
- *  6. This method does not return any value.
+ *  1. Retrieves the move history of the game using game.getMoveHistory(), which doesn't copy the moves.
+ *  2. Hands it to the BoardRenderer, which reads the cells from it and prints the whole frame with one write:
+ *     all of the board for standard sizes, and for boards wider than Board.MAX_DENSE_WIDTH the area around
+ *     the stones (or around the centre before the first move).
+ *  3. In ANSI mode the renderer only redraws the cells that changed since the last frame.
+ *  4. This method does not return any value.
  */
 
 
     public void printBoard() {
-        // Initializing the list of moves
-        ArrayList<Stone> stones = (ArrayList<Stone>) game.getStones();
-
-        // Iterating through the board and filling with available moves
-        for (char[] row : board) {
-            java.util.Arrays.fill(row, '_');
-        }
-
-        // Placing stones on the board
-        for (Stone stone : stones) {
-            // Selecting the stone symbol
-            char st = stone.isBlack() ? 'B' : 'W';
-            board[stone.getRow()][stone.getColumn()] = st;
-        }
-
-        // Print column numbers
-        System.out.print("   ");
-        for (int col = 0; col < Gomoku.WIDTH; col ++) {
-            // Print columns with leading zero if necessary
-            System.out.printf("%02d ", col + 1);
-        }
-        System.out.println();
-
-        // Print rows with row numbers and board contents
-        for (int row = 0; row < Gomoku.WIDTH; row ++) {
-            // Print row number with leading zero if necessary
-            System.out.printf("%02d ", row + 1);
-            for (int col = 0; col < Gomoku.WIDTH; col++) {
-                // Print board contents
-                System.out.print(" " + board[row][col] + " ");
-            }
-            System.out.println();
-        }
+        // Reading the cells of the game without copying the moves
+        renderer.render(game.getMoveHistory(), System.out);
     }
 
 
-
     /**
      * Method Name: play
      * Method Output: Result
      * Method Input: Scanner console
      * Explanation: This method represents a player's turn in the Gomoku game. It performs the following steps:
      *  1. Prints a newline and a message indicating whose turn it is.
-     *  2. Declares variables for row, column, and a Stone instance.
-     *  3. If the current player is a HumanPlayer, prompts the user to enter a row and column and creates a Stone.
-     *  4. If the current player is not a HumanPlayer, generates a move using generateMove and creates a Stone.
-     *  5. Places the Stone on the game board and updates the game result.
-     *  6. If the placement is unsuccessful, prints an error message.
+     *  2. Requests the move from the MoveSource of the current player and waits for it: the console asks a
+     *     human player for a row and a column, and other players compute their move on an engine thread.
+     *  3. Places the Stone on the game board and updates the game result.
+     *  4. If the game goes on, tells the MoveSource of the player who just moved that its opponent is thinking,
+     *     so an engine can ponder while the human player types.
+     *  5. If the placement is unsuccessful, prints an error message.
+     *  6. If the move came from a SearchPlayer or MctsPlayer, prints the statistics of its search.
      *  7. Prints the current state of the game board.
      *  8. Returns the result of the player's move.
      */
@@ -231,39 +368,117 @@ public class GameController {
         System.out.println("");
         System.out.println(game.getCurrent().getName() + "'s turn.");
 
-        int row;
-        int column;
-        Stone stone;
-
-        // Checking if the current player is a human player
-        if (game.getCurrent() instanceof HumanPlayer) {
-            System.out.print("Enter a row: ");
-            row = Integer.parseInt(console.nextLine());
+        Player player = game.getCurrent();
 
-            System.out.print("Enter a column: ");
-            column = Integer.parseInt(console.nextLine());
-
-            // Creating the stone
-            stone = new Stone(row, column, game.isBlacksTurn());
-        } else {
-
-            // Gernerating the move if the current player is a random player
-            stone = game.getCurrent().generateMove(game.getStones());
-        }
+        // Asking the player for its move, from the console for a human player
+        Stone stone = MoveSource.await(moveSource(player, console).requestMove(game.getMoveHistory(), MoveSource.NO_DEADLINE));
 
         // Placing the stone
         result = game.place(stone);
 
+        // Letting the player who just moved think ahead while the opponent takes its turn
+        if (result.isSuccess() && !game.isOver()) {
+            moveSource(player, console).opponentThinking(game.getMoveHistory());
+        }
+
         // Printing the message
         if (!result.isSuccess()) {
             System.out.println(result.getMessage());
         }
 
+        // Printing the search statistics of an engine move
+        if (player instanceof SearchPlayer) {
+            printSearchStatistics((SearchPlayer) player);
+        } else if (player instanceof MctsPlayer) {
+            printSearchStatistics((MctsPlayer) player);
+        }
+
         printBoard();
 
         return result;
     }
 
+    /**
+     * Method Name: moveSource
+     * Method Output: MoveSource
+     * Method Input: Player player, Scanner console
+     * Explanation: This method returns the MoveSource a player's moves come from. Human players type their moves
+     * at the console, every other player is adapted with a PlayerMoveSource that runs on the engine threads.
+     * Sources are kept for the whole game so that engines can reuse their pondering.
+     */
+
+    private MoveSource moveSource(Player player, Scanner console) {
+        if (player instanceof HumanPlayer) {
+            if (consoleSource == null || consoleScanner != console) {
+                if (consoleSource != null) {
+                    consoleSource.close();
+                }
+                consoleSource = new ConsoleMoveSource(console, System.out);
+                consoleScanner = console;
+            }
+            return consoleSource;
+        }
+        return sources.computeIfAbsent(player, p -> MoveSource.of(p, engines));
+    }
+
+    /**
+     * Method Name: close
+     * Method Output: none
+     * Method Input: none
+     * Explanation: This method releases the threads of the controller once nobody plays any more. It follows these steps:
+     *  1. Closes the MoveSources of the players, which stops engines that are still pondering and closes them.
+     *  2. Closes the console MoveSource, which ends its reading thread.
+     *  3. Shuts down the engine threads. The controller can't play after this.
+     */
+
+    @Override
+    public void close() {
+        for (MoveSource source : sources.values()) {
+            source.close();
+        }
+        sources.clear();
+        if (consoleSource != null) {
+            consoleSource.close();
+            consoleSource = null;
+            consoleScanner = null;
+        }
+        engines.shutdownNow();
+    }
+
+    /**
+     * Method Name: printSearchStatistics
+     * Method Output: none
+     * Method Input: SearchPlayer player
+     * Explanation: This method prints how deep the last move of the player was searched and how many nodes
+     * per second the search visited. It does nothing if no search has been run yet.
+     */
+
+    private void printSearchStatistics(SearchPlayer player) {
+        SearchResult searchResult = player.getLastResult();
+        if (searchResult == null) {
+            return;
+        }
+        System.out.printf("(depth %d, %d nodes, %d nodes/s)%n",
+                searchResult.getDepth(), searchResult.getNodes(), searchResult.getNodesPerSecond());
+    }
+
+    /**
+     * Method Name: printSearchStatistics
+     * Method Output: none
+     * Method Input: MctsPlayer player
+     * Explanation: This method prints how many playouts the last move of the player ran and how many playouts
+     * per second the search managed. It does nothing if no search has been run yet.
+     */
+
+    private void printSearchStatistics(MctsPlayer player) {
+        MctsResult mctsResult = player.getLastResult();
+        if (mctsResult == null) {
+            return;
+        }
+        System.out.printf("(%d playouts, %d playouts/s)%n",
+                mctsResult.getPlayouts(), mctsResult.getPlayoutsPerSecond());
+    }
+
     /**
      * Method Name: readRequiredString
      * Method Output: String
@@ -0,0 +1,136 @@
+package learn.gomoku.analysis;
+
+import learn.gomoku.game.Board;
+import learn.gomoku.record.GameRecord;
+import learn.gomoku.record.GameRecordReader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Computes GameStats over record files on all cores.
+ *
+ * The calling thread streams the files with a GameRecordReader and hands the games to
+ * the workers in batches through a bounded queue, so at most a few batches per worker
+ * are in memory however large the files are. Every worker replays its games on its own
+ * board into its own GameStats, and the results are merged once the files are read.
+ */
+public class GameAnalyzer {
+
+    static final int BATCH = 256;
+
+    // Marks the end of the games for a worker
+    private static final GameRecord[] END = new GameRecord[0];
+
+    private final int threads;
+
+    public GameAnalyzer() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public GameAnalyzer(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is required.");
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Analyzes the games of all files, which must be on boards of the same width.
+     */
+    public GameStats analyze(List<Path> files) throws IOException {
+        if (files.isEmpty()) {
+            throw new IllegalArgumentException("No record files to analyze.");
+        }
+        int width;
+        try (GameRecordReader reader = GameRecordReader.open(files.get(0))) {
+            width = reader.getWidth();
+        }
+
+        BlockingQueue<GameRecord[]> queue = new ArrayBlockingQueue<>(threads * 2);
+        ExecutorService workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "game-analyzer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<GameStats>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(workers.submit(() -> work(queue, width)));
+            }
+            try {
+                for (Path file : files) {
+                    read(file, width, queue);
+                }
+            } finally {
+                for (int i = 0; i < threads; i++) {
+                    put(queue, END);
+                }
+            }
+
+            GameStats total = new GameStats(width);
+            for (Future<GameStats> result : results) {
+                total.merge(result.get());
+            }
+            return total;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while analyzing games.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Analyzing games failed.", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private static void read(Path file, int width, BlockingQueue<GameRecord[]> queue) throws IOException {
+        try (GameRecordReader reader = GameRecordReader.open(file)) {
+            if (reader.getWidth() != width) {
+                throw new IOException(file + " holds games on a " + reader.getWidth()
+                        + " wide board, not " + width + ".");
+            }
+            GameRecord[] batch = new GameRecord[BATCH];
+            int size = 0;
+            for (GameRecord record = reader.next(); record != null; record = reader.next()) {
+                batch[size++] = record;
+                if (size == BATCH) {
+                    put(queue, batch);
+                    batch = new GameRecord[BATCH];
+                    size = 0;
+                }
+            }
+            if (size > 0) {
+                put(queue, Arrays.copyOf(batch, size));
+            }
+        }
+    }
+
+    private static GameStats work(BlockingQueue<GameRecord[]> queue, int width) throws InterruptedException {
+        GameStats stats = new GameStats(width);
+        Board board = Board.create(width);
+        for (GameRecord[] batch = queue.take(); batch != END; batch = queue.take()) {
+            for (GameRecord record : batch) {
+                stats.record(record, board);
+            }
+        }
+        return stats;
+    }
+
+    private static void put(BlockingQueue<GameRecord[]> queue, GameRecord[] batch) {
+        try {
+            queue.put(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while analyzing games.", e);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package learn.gomoku.analysis;
+
+import learn.gomoku.game.BitBoard;
+import learn.gomoku.game.Board;
+import learn.gomoku.game.PatternTable;
+import learn.gomoku.record.GameRecord;
+
+/**
+ * Mergeable statistics over a set of recorded games. Every worker of a GameAnalyzer
+ * fills its own instance and the instances are merged at the end.
+ *
+ * Games are replayed on a board to check them and to find the line that won. A game
+ * with a move on a taken or missing cell, or a recorded win without a five, is counted
+ * as invalid and left out of everything else.
+ */
+public class GameStats {
+
+    private static final String[] DIRECTION_NAMES = {"Horizontal", "Vertical", "Diagonal down", "Diagonal up"};
+
+    private final int width;
+    private long games;
+    private long invalid;
+    private long blackWins;
+    private long whiteWins;
+    private long draws;
+    private long unfinished;
+    private long moves;
+    // Indexed by the cell of black's first move, row * width + column
+    private final long[] openingGames;
+    private final long[] openingBlackWins;
+    private final long[] openingWhiteWins;
+    // Indexed by BitBoard direction; a move can make five along two lines at once
+    private final long[] winDirections = new long[BitBoard.DIRECTIONS];
+
+    public GameStats(int width) {
+        this.width = width;
+        this.openingGames = new long[width * width];
+        this.openingBlackWins = new long[width * width];
+        this.openingWhiteWins = new long[width * width];
+    }
+
+    /**
+     * Replays a game on board and counts it. The board must be empty and is empty again afterwards.
+     */
+    public void record(GameRecord record, Board board) {
+        int placed = 0;
+        boolean valid = true;
+        int count = record.getMoveCount();
+        for (; placed < count; placed++) {
+            int row = record.getRow(placed);
+            int column = record.getColumn(placed);
+            if (!board.isOnBoard(row, column) || !board.isEmpty(row, column)) {
+                valid = false;
+                break;
+            }
+            board.set(row, column, placed % 2 == 0);
+        }
+
+        int directions = 0;
+        if (valid && record.getResult() == GameRecord.WIN) {
+            int last = count - 1;
+            boolean isBlack = last % 2 == 0;
+            valid = count > 0 && record.getWinner() == (isBlack ? BitBoard.BLACK : BitBoard.WHITE);
+            for (int direction = 0; valid && direction < BitBoard.DIRECTIONS; direction++) {
+                if (PatternTable.pattern(board, record.getRow(last), record.getColumn(last), direction, isBlack)
+                        == PatternTable.FIVE) {
+                    directions |= 1 << direction;
+                }
+            }
+            valid &= directions != 0;
+        }
+
+        for (int i = 0; i < placed; i++) {
+            board.clear(record.getRow(i), record.getColumn(i));
+        }
+
+        if (!valid) {
+            invalid++;
+            return;
+        }
+        games++;
+        moves += count;
+        for (int direction = 0; direction < BitBoard.DIRECTIONS; direction++) {
+            if ((directions & 1 << direction) != 0) {
+                winDirections[direction]++;
+            }
+        }
+
+        boolean blackWon = record.getWinner() == BitBoard.BLACK;
+        boolean whiteWon = record.getWinner() == BitBoard.WHITE;
+        if (blackWon) {
+            blackWins++;
+        } else if (whiteWon) {
+            whiteWins++;
+        } else if (record.getResult() == GameRecord.DRAW) {
+            draws++;
+        } else {
+            unfinished++;
+        }
+        if (count > 0) {
+            int opening = record.getCell(0);
+            openingGames[opening]++;
+            openingBlackWins[opening] += blackWon ? 1 : 0;
+            openingWhiteWins[opening] += whiteWon ? 1 : 0;
+        }
+    }
+
+    public GameStats merge(GameStats other) {
+        if (other.width != width) {
+            throw new IllegalArgumentException("Can't merge statistics of boards of different widths.");
+        }
+        games += other.games;
+        invalid += other.invalid;
+        blackWins += other.blackWins;
+        whiteWins += other.whiteWins;
+        draws += other.draws;
+        unfinished += other.unfinished;
+        moves += other.moves;
+        for (int i = 0; i < openingGames.length; i++) {
+            openingGames[i] += other.openingGames[i];
+            openingBlackWins[i] += other.openingBlackWins[i];
+            openingWhiteWins[i] += other.openingWhiteWins[i];
+        }
+        for (int i = 0; i < winDirections.length; i++) {
+            winDirections[i] += other.winDirections[i];
+        }
+        return this;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Number of valid games counted.
+     */
+    public long getGames() {
+        return games;
+    }
+
+    public long getInvalid() {
+        return invalid;
+    }
+
+    public long getBlackWins() {
+        return blackWins;
+    }
+
+    public long getWhiteWins() {
+        return whiteWins;
+    }
+
+    public long getDraws() {
+        return draws;
+    }
+
+    public long getUnfinished() {
+        return unfinished;
+    }
+
+    public double getAverageLength() {
+        return games == 0 ? 0 : (double) moves / games;
+    }
+
+    /**
+     * First-player advantage: black's share of the points of finished games, a draw
+     * counting half, minus one half. Positive when black, who moves first, does better.
+     */
+    public double getFirstPlayerAdvantage() {
+        long finished = blackWins + whiteWins + draws;
+        return finished == 0 ? 0 : (blackWins + draws / 2.0) / finished - 0.5;
+    }
+
+    public long getOpeningGames(int row, int column) {
+        return openingGames[row * width + column];
+    }
+
+    /**
+     * Share of the games opened on the cell that black won, 0 if none were.
+     */
+    public double getOpeningBlackWinRate(int row, int column) {
+        long count = openingGames[row * width + column];
+        return count == 0 ? 0 : (double) openingBlackWins[row * width + column] / count;
+    }
+
+    public long getOpeningWhiteWins(int row, int column) {
+        return openingWhiteWins[row * width + column];
+    }
+
+    /**
+     * Number of wins along a direction, BitBoard.ROW (horizontal), COLUMN (vertical),
+     * DIAGONAL_DOWN or DIAGONAL_UP.
+     */
+    public long getWinDirection(int direction) {
+        return winDirections[direction];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("Games:          %d (%d invalid)%n", games, invalid));
+        text.append(String.format("Black / White:  %d / %d%n", blackWins, whiteWins));
+        text.append(String.format("Draws:          %d, unfinished: %d%n", draws, unfinished));
+        text.append(String.format("First player advantage: %+.3f%n", getFirstPlayerAdvantage()));
+        text.append(String.format("Average length: %.1f stones%n", getAverageLength()));
+        text.append("Winning lines");
+        for (int direction = 0; direction < BitBoard.DIRECTIONS; direction++) {
+            text.append(String.format("%n  %-14s %d", DIRECTION_NAMES[direction] + ":", winDirections[direction]));
+        }
+        text.append(String.format("%nMost played openings (row,column: games, black wins)"));
+        // Ten most played, picked without sorting the whole board
+        boolean[] shown = new boolean[openingGames.length];
+        for (int n = 0; n < 10; n++) {
+            int best = -1;
+            for (int i = 0; i < openingGames.length; i++) {
+                if (!shown[i] && openingGames[i] > 0 && (best < 0 || openingGames[i] > openingGames[best])) {
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            shown[best] = true;
+            text.append(String.format("%n  %2d,%-2d: %d, %.1f%%", best / width, best % width, openingGames[best],
+                    100.0 * openingBlackWins[best] / openingGames[best]));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,92 @@
+package learn.gomoku.book;
+
+import learn.gomoku.game.Gomoku;
+import learn.gomoku.game.MoveHistory;
+import learn.gomoku.game.Stone;
+import learn.gomoku.players.MctsPlayer;
+import learn.gomoku.players.Player;
+import learn.gomoku.players.SearchPlayer;
+
+import java.util.List;
+
+/**
+ * Player that plays from an opening book while the game is in it, and leaves every
+ * other move to the player it wraps, so no search runs for known openings.
+ * SearchPlayer and MctsPlayer look up their own book with setOpeningBook(), this
+ * wrapper gives one to any other player.
+ */
+public class BookPlayer implements Player {
+
+    public static final int DEFAULT_MIN_GAMES = OpeningBook.DEFAULT_MIN_GAMES;
+
+    private final OpeningBook book;
+    private final Player player;
+    private final int minGames;
+    private int bookMoves;
+
+    public BookPlayer(OpeningBook book, Player player) {
+        this(book, player, DEFAULT_MIN_GAMES);
+    }
+
+    /**
+     * @param minGames  book moves played in fewer games than this are ignored
+     */
+    public BookPlayer(OpeningBook book, Player player, int minGames) {
+        this.book = book;
+        this.player = player;
+        this.minGames = minGames;
+    }
+
+    /**
+     * Makes player play from the book: engines look the book up themselves, any other player
+     * is wrapped in a BookPlayer. Returns player unchanged when book is null.
+     */
+    public static Player of(OpeningBook book, Player player) {
+        if (book == null) {
+            return player;
+        }
+        if (player instanceof SearchPlayer) {
+            ((SearchPlayer) player).setOpeningBook(book);
+            return player;
+        }
+        if (player instanceof MctsPlayer) {
+            ((MctsPlayer) player).setOpeningBook(book);
+            return player;
+        }
+        return new BookPlayer(book, player);
+    }
+
+    @Override
+    public void setName(String name) {
+        player.setName(name);
+    }
+
+    @Override
+    public String getName() {
+        return player.getName();
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Number of moves this player took from the book so far.
+     */
+    public int getBookMoves() {
+        return bookMoves;
+    }
+
+    @Override
+    public Stone generateMove(List<Stone> previousMoves) {
+        int width = previousMoves instanceof MoveHistory
+                ? ((MoveHistory) previousMoves).getWidth()
+                : Gomoku.WIDTH;
+        Stone move = book.lookup(previousMoves, width, minGames);
+        if (move != null) {
+            bookMoves++;
+            return move;
+        }
+        return player.generateMove(previousMoves);
+    }
+}
@@ -0,0 +1,158 @@
+package learn.gomoku.book;
+
+import learn.gomoku.game.Stone;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Read-only opening book, memory-mapped from a file written by OpeningBookBuilder.
+ *
+ * The file is a header followed by fixed-size entries sorted by key, one entry per
+ * position and move:
+ *
+ *   header  int magic, int version, int board width, int entry count
+ *   entry   long canonical key, byte row, byte column, short unused, int games, int wins
+ *
+ * The key is the canonical hash of the position before the move (see Symmetry), and the
+ * move is stored in the orientation of that canonical image, so all eight rotations and
+ * mirror images of a position share their entries. A lookup hashes the position eight
+ * times and binary searches the mapped file, so nothing but the header is read into the
+ * heap and the book can be shared by any number of players and threads.
+ */
+public final class OpeningBook {
+
+    /**
+     * Book moves played in fewer games than this are ignored unless asked otherwise.
+     */
+    public static final int DEFAULT_MIN_GAMES = 2;
+
+    static final int MAGIC = 0x474D4B42;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int ENTRY_BYTES = 20;
+
+    private static final int ROW = 8;
+    private static final int COLUMN = 9;
+    private static final int GAMES = 12;
+    private static final int WINS = 16;
+
+    // Hashes of the eight orientations of the position, one buffer per thread looking up
+    private static final ThreadLocal<long[]> HASHES = ThreadLocal.withInitial(() -> new long[Symmetry.COUNT]);
+
+    private final ByteBuffer entries;
+    private final int width;
+    private final int size;
+
+    private OpeningBook(ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not an opening book.");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported opening book version " + buffer.getInt(4) + ".");
+        }
+        this.width = buffer.getInt(8);
+        this.size = buffer.getInt(12);
+        if ((long) size * ENTRY_BYTES + HEADER_BYTES != buffer.capacity()) {
+            throw new IOException("Opening book is truncated.");
+        }
+        this.entries = buffer.position(HEADER_BYTES).slice();
+    }
+
+    /**
+     * Maps a book file. The mapping stays valid after the file is closed.
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new OpeningBook(buffer);
+        }
+    }
+
+    /**
+     * Width of the board the book was built for.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Number of position and move entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the book move for the position after moves, or null when the position is not
+     * in the book or has fewer than minGames games. Of the moves played in the position,
+     * the one with the best win rate is chosen, ties going to the more often played.
+     */
+    public Stone lookup(List<Stone> moves, int width, int minGames) {
+        if (width != this.width) {
+            return null;
+        }
+        long[] hashes = HASHES.get();
+        Symmetry.hashes(moves, moves.size(), width, hashes);
+        int symmetry = Symmetry.canonicalSymmetry(hashes);
+        long key = hashes[symmetry];
+
+        int best = -1;
+        for (int i = first(key); i < size && key(i) == key; i++) {
+            if (games(i) >= Math.max(1, minGames) && (best < 0 || isBetter(i, best))) {
+                best = i;
+            }
+        }
+        if (best < 0) {
+            return null;
+        }
+
+        // Back from the canonical image to the orientation of the game
+        int inverse = Symmetry.inverse(symmetry);
+        int row = entries.get(best * ENTRY_BYTES + ROW);
+        int column = entries.get(best * ENTRY_BYTES + COLUMN);
+        return Stone.of(
+                Symmetry.row(inverse, row, column, width),
+                Symmetry.column(inverse, row, column, width),
+                moves.size() % 2 == 0);
+    }
+
+    // Compares win rates wins(i) / games(i) without dividing
+    private boolean isBetter(int i, int j) {
+        long left = (long) wins(i) * games(j);
+        long right = (long) wins(j) * games(i);
+        return left > right || left == right && games(i) > games(j);
+    }
+
+    // Index of the first entry whose key is not less than key
+    private int first(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (key(middle) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long key(int i) {
+        return entries.getLong(i * ENTRY_BYTES);
+    }
+
+    private int games(int i) {
+        return entries.getInt(i * ENTRY_BYTES + GAMES);
+    }
+
+    private int wins(int i) {
+        return entries.getInt(i * ENTRY_BYTES + WINS);
+    }
+}
@@ -0,0 +1,142 @@
+package learn.gomoku.book;
+
+import learn.gomoku.game.BitBoard;
+import learn.gomoku.game.Board;
+import learn.gomoku.game.Stone;
+import learn.gomoku.record.GameRecord;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the openings of finished games and writes them as an OpeningBook file.
+ *
+ * For each of the first maxPly moves of a game, the builder counts one game for the move
+ * in the position it was played in and one win when the side that played it went on to
+ * win. Positions are keyed canonically, so games that start in different orientations
+ * add up. addGame() is synchronized, so a builder can also be the GameListener of
+ * a multithreaded Tournament.
+ */
+public class OpeningBookBuilder {
+
+    public static final int DEFAULT_MAX_PLY = 12;
+
+    private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+
+    private final int width;
+    private final int maxPly;
+    // Canonical key -> canonical move (row * width + column) -> {games, wins}
+    private final Map<Long, Map<Integer, int[]>> positions = new HashMap<>();
+    private final long[] hashes = new long[Symmetry.COUNT];
+    private long games;
+
+    public OpeningBookBuilder(int width) {
+        this(width, DEFAULT_MAX_PLY);
+    }
+
+    public OpeningBookBuilder(int width, int maxPly) {
+        if (width < 1 || width > Board.MAX_DENSE_WIDTH) {
+            throw new IllegalArgumentException("Opening books are limited to boards up to "
+                    + Board.MAX_DENSE_WIDTH + " wide.");
+        }
+        if (maxPly < 1) {
+            throw new IllegalArgumentException("Books need at least one move per game.");
+        }
+        this.width = width;
+        this.maxPly = maxPly;
+    }
+
+    /**
+     * Adds the opening of a finished game.
+     *
+     * @param moves   the moves of the game in order
+     * @param winner  BitBoard.BLACK, BitBoard.WHITE or BitBoard.EMPTY for a draw
+     */
+    public synchronized void addGame(List<Stone> moves, byte winner) {
+        games++;
+        int plies = Math.min(maxPly, moves.size());
+        for (int ply = 0; ply < plies; ply++) {
+            Symmetry.hashes(moves, ply, width, hashes);
+            int symmetry = Symmetry.canonicalSymmetry(hashes);
+
+            Stone move = moves.get(ply);
+            int row = Symmetry.row(symmetry, move.getRow(), move.getColumn(), width);
+            int column = Symmetry.column(symmetry, move.getRow(), move.getColumn(), width);
+            int[] stats = positions
+                    .computeIfAbsent(hashes[symmetry], key -> new HashMap<>())
+                    .computeIfAbsent(row * width + column, key -> new int[2]);
+            stats[0]++;
+            byte mover = move.isBlack() ? BitBoard.BLACK : BitBoard.WHITE;
+            if (winner == mover) {
+                stats[1]++;
+            }
+        }
+    }
+
+    /**
+     * Adds the opening of a recorded game, which must be on a board of the book's width.
+     */
+    public void addGame(GameRecord record) {
+        if (record.getWidth() != width) {
+            throw new IllegalArgumentException("Game is on a " + record.getWidth()
+                    + " wide board, the book is " + width + " wide.");
+        }
+        addGame(record.toStones(), record.getWinner());
+    }
+
+    public synchronized long getGames() {
+        return games;
+    }
+
+    /**
+     * Writes the book, replacing the file if it exists.
+     */
+    public synchronized void write(Path path) throws IOException {
+        List<long[]> entries = new ArrayList<>();
+        for (Map.Entry<Long, Map<Integer, int[]>> position : positions.entrySet()) {
+            for (Map.Entry<Integer, int[]> move : position.getValue().entrySet()) {
+                int[] stats = move.getValue();
+                entries.add(new long[]{position.getKey(), move.getKey(), stats[0], stats[1]});
+            }
+        }
+        entries.sort(Comparator.comparingLong(entry -> entry[0]));
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+            buffer.putInt(OpeningBook.MAGIC)
+                    .putInt(OpeningBook.VERSION)
+                    .putInt(width)
+                    .putInt(entries.size());
+            for (long[] entry : entries) {
+                if (buffer.remaining() < OpeningBook.ENTRY_BYTES) {
+                    drain(channel, buffer);
+                }
+                int move = (int) entry[1];
+                buffer.putLong(entry[0])
+                        .put((byte) (move / width))
+                        .put((byte) (move % width))
+                        .putShort((short) 0)
+                        .putInt((int) entry[2])
+                        .putInt((int) entry[3]);
+            }
+            drain(channel, buffer);
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
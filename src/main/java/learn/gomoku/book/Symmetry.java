@@ -0,0 +1,86 @@
+package learn.gomoku.book;
+
+import learn.gomoku.game.Stone;
+import learn.gomoku.game.Zobrist;
+
+import java.util.List;
+
+/**
+ * The eight symmetries of a square board: four rotations, each with and without a mirror.
+ *
+ * Positions that are rotations or mirror images of each other are the same position
+ * for the book. The canonical key of a position is the smallest of the Zobrist hashes of
+ * its eight images, and canonicalSymmetry() tells which image that was, so a move can be
+ * turned into the book's orientation and back.
+ */
+final class Symmetry {
+
+    static final int COUNT = 8;
+
+    private Symmetry() {
+    }
+
+    static int row(int symmetry, int row, int column, int width) {
+        int last = width - 1;
+        switch (symmetry) {
+            case 0: return row;
+            case 1: return column;
+            case 2: return last - row;
+            case 3: return last - column;
+            case 4: return row;
+            case 5: return column;
+            case 6: return last - row;
+            default: return last - column;
+        }
+    }
+
+    static int column(int symmetry, int row, int column, int width) {
+        int last = width - 1;
+        switch (symmetry) {
+            case 0: return column;
+            case 1: return last - row;
+            case 2: return last - column;
+            case 3: return row;
+            case 4: return last - column;
+            case 5: return row;
+            case 6: return column;
+            default: return last - row;
+        }
+    }
+
+    // The quarter turns undo each other, every other symmetry is its own inverse
+    static int inverse(int symmetry) {
+        return symmetry == 1 ? 3 : symmetry == 3 ? 1 : symmetry;
+    }
+
+    /**
+     * Fills hashes with the Zobrist hash of each of the eight images of the position after moves.
+     */
+    static void hashes(List<Stone> moves, int count, int width, long[] hashes) {
+        int stride = width + 1;
+        for (int s = 0; s < COUNT; s++) {
+            hashes[s] = count % 2 == 1 ? Zobrist.WHITE_TO_MOVE : 0;
+        }
+        for (int i = 0; i < count; i++) {
+            Stone stone = moves.get(i);
+            for (int s = 0; s < COUNT; s++) {
+                int r = row(s, stone.getRow(), stone.getColumn(), width);
+                int c = column(s, stone.getRow(), stone.getColumn(), width);
+                hashes[s] ^= Zobrist.stone(r * stride + c, stone.isBlack());
+            }
+        }
+    }
+
+    /**
+     * Index of the smallest hash, the symmetry that takes the position to its canonical image.
+     */
+    static int canonicalSymmetry(long[] hashes) {
+        int best = 0;
+        for (int s = 1; s < COUNT; s++) {
+            if (hashes[s] < hashes[best]) {
+                best = s;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,165 @@
+package learn.gomoku.engine;
+
+import learn.gomoku.game.BitBoard;
+import learn.gomoku.game.PatternTable;
+
+import java.util.Arrays;
+
+/**
+ * Incrementally maintained line patterns of a board, for evaluation and move ordering.
+ *
+ * For every cell, direction and colour this keeps the PatternTable code of the cells
+ * around it, and for the empty cells the pattern that colour would make along that line
+ * by playing there. A stone only changes the codes of the cells within REACH of it on
+ * the four lines through it, and each of those codes changes by one digit, so update()
+ * is a fixed number of additions and table lookups and evaluate() is O(1).
+ *
+ * The patterns are read from a BitBoard owned by the caller, who calls update() after
+ * every change to it.
+ */
+public class LinePatterns {
+
+    // Worth of one empty cell where a colour would make the pattern, indexed by pattern
+    static final int[] WEIGHTS = {0, 2, 8, 10, 60, 80, 1_000, 10_000, 0};
+
+    private static final int BLACK = 0;
+    private static final int WHITE = 1;
+    private static final int REACH = PatternTable.REACH;
+    private static final int MAX_SCORE = Search.WIN - Search.MAX_PLY - 1;
+    // Row and column steps of the BitBoard directions
+    private static final int[][] STEPS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+    private final BitBoard board;
+    private final int width;
+    // Stone on every cell as of the last update, to tell what changed
+    private final byte[] stones;
+    // Code and pattern of colour on cell along direction, at [colour][cell * DIRECTIONS + direction]
+    private final int[][] codes;
+    private final byte[][] patterns;
+    private final int[][] counts = new int[2][PatternTable.PATTERNS];
+    private final int[] scores = new int[2];
+
+    public LinePatterns(BitBoard board) {
+        this.board = board;
+        this.width = board.getWidth();
+        int cells = width * board.getStride();
+        this.stones = new byte[cells];
+        this.codes = new int[2][cells * BitBoard.DIRECTIONS];
+        this.patterns = new byte[2][cells * BitBoard.DIRECTIONS];
+        reset();
+    }
+
+    /**
+     * Recomputes every pattern from the board, for when it changed in more than one cell.
+     */
+    public void reset() {
+        for (int colour = BLACK; colour <= WHITE; colour++) {
+            Arrays.fill(patterns[colour], (byte) PatternTable.NONE);
+            Arrays.fill(counts[colour], 0);
+            counts[colour][PatternTable.NONE] = width * width * BitBoard.DIRECTIONS;
+            scores[colour] = 0;
+        }
+        for (int row = 0; row < width; row++) {
+            for (int col = 0; col < width; col++) {
+                int cell = board.index(row, col);
+                stones[cell] = board.get(cell);
+                for (int direction = 0; direction < BitBoard.DIRECTIONS; direction++) {
+                    int slot = cell * BitBoard.DIRECTIONS + direction;
+                    codes[BLACK][slot] = PatternTable.code(board, cell, direction, true);
+                    codes[WHITE][slot] = PatternTable.code(board, cell, direction, false);
+                    refresh(cell, slot);
+                }
+            }
+        }
+    }
+
+    /**
+     * Brings the patterns up to date after a stone was placed on or removed from cell.
+     */
+    public void update(int cell) {
+        byte before = stones[cell];
+        byte after = board.get(cell);
+        if (before == after) {
+            return;
+        }
+        stones[cell] = after;
+        int blackChange = digit(after, BitBoard.BLACK) - digit(before, BitBoard.BLACK);
+        int whiteChange = digit(after, BitBoard.WHITE) - digit(before, BitBoard.WHITE);
+
+        int row = board.row(cell);
+        int col = board.column(cell);
+        for (int direction = 0; direction < BitBoard.DIRECTIONS; direction++) {
+            int deltaRow = STEPS[direction][0];
+            int deltaCol = STEPS[direction][1];
+            for (int k = -REACH; k <= REACH; k++) {
+                int r = row + k * deltaRow;
+                int c = col + k * deltaCol;
+                if (k == 0 || !board.isOnBoard(r, c)) {
+                    continue;
+                }
+                // Seen from the other cell, the changed cell is -k steps away
+                int other = board.index(r, c);
+                int slot = other * BitBoard.DIRECTIONS + direction;
+                int weight = PatternTable.weight(-k);
+                codes[BLACK][slot] += blackChange * weight;
+                codes[WHITE][slot] += whiteChange * weight;
+                refresh(other, slot);
+            }
+            refresh(cell, cell * BitBoard.DIRECTIONS + direction);
+        }
+    }
+
+    /**
+     * Pattern the colour would make along direction by playing on cell, NONE if the cell is taken.
+     */
+    public int getPattern(int cell, int direction, boolean isBlack) {
+        return patterns[isBlack ? BLACK : WHITE][cell * BitBoard.DIRECTIONS + direction];
+    }
+
+    /**
+     * True if the colour would make exactly five by playing on the empty cell.
+     */
+    public boolean isFivePoint(int cell, boolean isBlack) {
+        byte[] own = patterns[isBlack ? BLACK : WHITE];
+        int slot = cell * BitBoard.DIRECTIONS;
+        return own[slot] == PatternTable.FIVE || own[slot + 1] == PatternTable.FIVE
+                || own[slot + 2] == PatternTable.FIVE || own[slot + 3] == PatternTable.FIVE;
+    }
+
+    /**
+     * Number of cell and direction pairs where the colour would make the pattern.
+     * A FIVE count above zero means the colour can win with its next move.
+     */
+    public int getCount(boolean isBlack, int pattern) {
+        return counts[isBlack ? BLACK : WHITE][pattern];
+    }
+
+    /**
+     * Static score of the position from the point of view of the side to move.
+     */
+    public int evaluate(boolean blackToMove) {
+        int score = blackToMove ? scores[BLACK] - scores[WHITE] : scores[WHITE] - scores[BLACK];
+        return Math.max(-MAX_SCORE, Math.min(MAX_SCORE, score));
+    }
+
+    private void refresh(int cell, int slot) {
+        boolean empty = stones[cell] == BitBoard.EMPTY;
+        for (int colour = BLACK; colour <= WHITE; colour++) {
+            int pattern = empty ? PatternTable.pattern(codes[colour][slot]) : PatternTable.NONE;
+            int old = patterns[colour][slot];
+            if (pattern != old) {
+                patterns[colour][slot] = (byte) pattern;
+                counts[colour][old]--;
+                counts[colour][pattern]++;
+                scores[colour] += WEIGHTS[pattern] - WEIGHTS[old];
+            }
+        }
+    }
+
+    private static int digit(byte stone, byte own) {
+        if (stone == BitBoard.EMPTY) {
+            return PatternTable.EMPTY_DIGIT;
+        }
+        return stone == own ? PatternTable.OWN_DIGIT : PatternTable.BLOCKED_DIGIT;
+    }
+}
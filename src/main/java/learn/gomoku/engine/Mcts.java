@@ -0,0 +1,297 @@
+package learn.gomoku.engine;
+
+import learn.gomoku.game.BitBoard;
+import learn.gomoku.game.Gomoku;
+import learn.gomoku.game.Stone;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Monte Carlo tree search (UCT) with root parallelism.
+ *
+ * Every thread grows its own tree from the same root on its own PlayoutBoard,
+ * so the threads share nothing while they run. At the end the visit counts of
+ * the root moves are summed over all trees and the most visited move wins.
+ */
+public class Mcts implements AutoCloseable {
+
+    public static final double EXPLORATION = 1.4;
+
+    static final int RADIUS = 2;
+
+    private final int width;
+    private final Worker[] workers;
+    private final ExecutorService helpers;
+    // Set by stop(), read by every worker between playouts
+    private volatile boolean stopped;
+
+    public Mcts(int threads) {
+        this(threads, Gomoku.WIDTH);
+    }
+
+    public Mcts(int threads, int width) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one playout thread is required.");
+        }
+        this.width = width;
+        this.workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(new SplittableRandom(), width);
+        }
+        this.helpers = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "mcts-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getThreads() {
+        return workers.length;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Searches the position after the given moves.
+     *
+     * @param playouts        total playouts over all threads, 0 for no limit
+     * @param timeLimitMillis wall-clock budget, 0 for no limit
+     * @return the move chosen, or null if the board is full
+     */
+    public MctsResult search(List<Stone> moves, long playouts, long timeLimitMillis) {
+        if (playouts <= 0 && timeLimitMillis <= 0) {
+            throw new IllegalArgumentException("A playout or time budget is required.");
+        }
+        long start = System.nanoTime();
+        long deadline = timeLimitMillis > 0 ? start + timeLimitMillis * 1_000_000L : Long.MAX_VALUE;
+        long share = playouts > 0 ? (playouts + workers.length - 1) / workers.length : Long.MAX_VALUE;
+
+        stopped = false;
+        for (Worker worker : workers) {
+            worker.board.setPosition(moves);
+        }
+        if (workers[0].board.isFull()) {
+            return null;
+        }
+
+        List<Future<Long>> futures = new ArrayList<>();
+        for (int i = 1; i < workers.length; i++) {
+            Worker worker = workers[i];
+            futures.add(helpers.submit(() -> worker.run(share, deadline, this)));
+        }
+        long total = workers[0].run(share, deadline, this);
+        for (Future<Long> future : futures) {
+            total += await(future);
+        }
+
+        // Sum the root statistics of all trees by move
+        BitBoard board = workers[0].board.getBoard();
+        int cells = board.getWidth() * board.getStride();
+        long[] visits = new long[cells];
+        double[] wins = new double[cells];
+        for (Worker worker : workers) {
+            Node root = worker.root;
+            for (int i = 0; i < root.childCount; i++) {
+                Node child = root.children[i];
+                visits[child.move] += child.visits;
+                wins[child.move] += child.wins;
+            }
+        }
+
+        int best = -1;
+        for (int cell = 0; cell < cells; cell++) {
+            if (visits[cell] > 0 && (best < 0 || visits[cell] > visits[best])) {
+                best = cell;
+            }
+        }
+        if (best < 0) {
+            best = workers[0].root.children[0].move;
+        }
+
+        return new MctsResult(board.row(best), board.column(best), visits[best],
+                visits[best] == 0 ? 0 : wins[best] / visits[best], total, System.nanoTime() - start);
+    }
+
+    /**
+     * Asks a running search to return as soon as possible, with the playouts it has run so far.
+     * Safe to call from another thread. Stays in effect until the next search starts.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    @Override
+    public void close() {
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+
+    private static long await(Future<Long> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Playout thread failed.", ex.getCause());
+        }
+    }
+
+    static final class Node {
+        final int move;
+        // Colour of the stone played to reach this node; wins are counted for that colour
+        final boolean black;
+        Node[] children;
+        int childCount;
+        int visits;
+        double wins;
+        boolean terminal;
+        int result;
+
+        Node(int move, boolean black) {
+            this.move = move;
+            this.black = black;
+        }
+    }
+
+    static final class Worker {
+        final PlayoutBoard board;
+        final SplittableRandom random;
+        final Node[] path;
+        final int[] stamps;
+        int stamp;
+        Node root;
+
+        Worker(SplittableRandom random, int width) {
+            this.board = new PlayoutBoard(width);
+            this.random = random;
+            BitBoard bitBoard = board.getBoard();
+            this.path = new Node[bitBoard.getWidth() * bitBoard.getWidth() + 1];
+            this.stamps = new int[bitBoard.getWidth() * bitBoard.getStride()];
+        }
+
+        long run(long playouts, long deadline, Mcts mcts) {
+            root = new Node(-1, !board.isBlackToMove());
+            int rootCount = board.getCount();
+            long done = 0;
+            // At least one playout, so the root always has its children
+            while (done == 0 || done < playouts
+                    && ((done & 63) != 0 || System.nanoTime() < deadline && !mcts.stopped)) {
+                iterate();
+                board.rewind(rootCount);
+                done++;
+            }
+            return done;
+        }
+
+        // One selection, expansion, playout and backpropagation.
+        private void iterate() {
+            Node node = root;
+            path[0] = root;
+            int length = 1;
+            int result = -1;
+
+            while (true) {
+                if (node.terminal) {
+                    result = node.result;
+                    break;
+                }
+                if (node.children == null) {
+                    // A new leaf is only expanded on its second visit; the first one is a plain playout.
+                    if (node.visits == 0 && node != root) {
+                        break;
+                    }
+                    expand(node);
+                }
+
+                Node child = select(node);
+                boolean black = board.isBlackToMove();
+                boolean five = board.play(child.move);
+                path[length++] = child;
+                if (five || board.isFull()) {
+                    child.terminal = true;
+                    child.result = !five ? PlayoutBoard.DRAW
+                            : black ? PlayoutBoard.BLACK_WINS : PlayoutBoard.WHITE_WINS;
+                    result = child.result;
+                    break;
+                }
+                node = child;
+            }
+
+            if (result < 0) {
+                result = board.playout(random);
+            }
+
+            for (int i = 0; i < length; i++) {
+                Node visited = path[i];
+                visited.visits++;
+                if (result == PlayoutBoard.DRAW) {
+                    visited.wins += 0.5;
+                } else if ((result == PlayoutBoard.BLACK_WINS) == visited.black) {
+                    visited.wins += 1;
+                }
+            }
+        }
+
+        private Node select(Node node) {
+            double logVisits = Math.log(Math.max(1, node.visits));
+            Node best = null;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < node.childCount; i++) {
+                Node child = node.children[i];
+                if (child.visits == 0) {
+                    return child;
+                }
+                double value = child.wins / child.visits + EXPLORATION * Math.sqrt(logVisits / child.visits);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        // Creates a child for every empty cell within RADIUS of a stone.
+        private void expand(Node node) {
+            BitBoard bitBoard = board.getBoard();
+            int width = bitBoard.getWidth();
+            boolean black = board.isBlackToMove();
+            int[] candidates = new int[width * width];
+            int count = 0;
+            stamp++;
+
+            if (board.getCount() == 0) {
+                candidates[count++] = bitBoard.index(width / 2, width / 2);
+            }
+            for (int i = 0; i < board.getCount(); i++) {
+                int stone = board.getMove(i);
+                int row = bitBoard.row(stone);
+                int col = bitBoard.column(stone);
+                for (int r = Math.max(0, row - RADIUS); r <= Math.min(width - 1, row + RADIUS); r++) {
+                    for (int c = Math.max(0, col - RADIUS); c <= Math.min(width - 1, col + RADIUS); c++) {
+                        int cell = bitBoard.index(r, c);
+                        if (stamps[cell] != stamp && bitBoard.isEmpty(cell)) {
+                            stamps[cell] = stamp;
+                            candidates[count++] = cell;
+                        }
+                    }
+                }
+            }
+
+            node.children = new Node[count];
+            for (int i = 0; i < count; i++) {
+                node.children[i] = new Node(candidates[i], black);
+            }
+            node.childCount = count;
+        }
+    }
+}
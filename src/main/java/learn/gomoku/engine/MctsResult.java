@@ -0,0 +1,69 @@
+package learn.gomoku.engine;
+
+/**
+ * Outcome of one Monte Carlo tree search: the move chosen and how much work it took.
+ */
+public class MctsResult {
+
+    private final int row;
+    private final int column;
+    private final long visits;
+    private final double winRate;
+    private final long playouts;
+    private final long nanos;
+
+    public MctsResult(int row, int column, long visits, double winRate, long playouts, long nanos) {
+        this.row = row;
+        this.column = column;
+        this.visits = visits;
+        this.winRate = winRate;
+        this.playouts = playouts;
+        this.nanos = nanos;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
+    /**
+     * Playouts that went through the chosen move, summed over all threads.
+     */
+    public long getVisits() {
+        return visits;
+    }
+
+    /**
+     * Share of those playouts won by the side to move, counting draws as half.
+     */
+    public double getWinRate() {
+        return winRate;
+    }
+
+    public long getPlayouts() {
+        return playouts;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public long getPlayoutsPerSecond() {
+        return nanos == 0 ? 0 : playouts * 1_000_000_000L / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "MctsResult{" +
+                "row=" + row +
+                ", column=" + column +
+                ", visits=" + visits +
+                ", winRate=" + winRate +
+                ", playouts=" + playouts +
+                ", playoutsPerSecond=" + getPlayoutsPerSecond() +
+                '}';
+    }
+}
@@ -0,0 +1,148 @@
+package learn.gomoku.engine;
+
+import learn.gomoku.game.Gomoku;
+import learn.gomoku.game.Stone;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Lazy SMP: several threads search the same root, each on its own board, and
+ * share one lock-free TranspositionTable. The threads don't coordinate beyond
+ * the table; results found by one thread cut off the searches of the others.
+ *
+ * The calling thread runs the main search. When it finishes, the helpers are
+ * stopped and the deepest finished result of any thread is returned.
+ */
+public class ParallelSearch implements AutoCloseable {
+
+    public static final int DEFAULT_TABLE_MEGABYTES = 64;
+
+    private final TranspositionTable table;
+    private final int width;
+    private final Search[] workers;
+    private final ExecutorService helpers;
+
+    public ParallelSearch(int threads) {
+        this(threads, new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+    }
+
+    public ParallelSearch(int threads, TranspositionTable table) {
+        this(threads, table, Gomoku.WIDTH);
+    }
+
+    public ParallelSearch(int threads, TranspositionTable table, int width) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one search thread is required.");
+        }
+        this.table = table;
+        this.width = width;
+        this.workers = new Search[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Search(width, table);
+        }
+        this.helpers = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getThreads() {
+        return workers.length;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    public void setPosition(List<Stone> moves) {
+        for (Search worker : workers) {
+            worker.setPosition(moves);
+        }
+    }
+
+    /**
+     * Asks all threads of a running search to return as soon as possible.
+     */
+    public void stop() {
+        for (Search worker : workers) {
+            worker.stop();
+        }
+    }
+
+    /**
+     * Searches the position set by setPosition with all threads.
+     * Limits mean the same as in Search.search, the node limit applies to each thread.
+     * The node count of the result is the total over all threads.
+     */
+    public SearchResult search(long timeLimitMillis, long nodeLimit, int maxDepth) {
+        long start = System.nanoTime();
+        List<Future<SearchResult>> futures = new ArrayList<>();
+        // The result of the main search first, then those of the helpers
+        List<SearchResult> results = new ArrayList<>();
+        try {
+            for (int i = 1; i < workers.length; i++) {
+                Search worker = workers[i];
+                // Every other helper starts one ply deeper
+                int startDepth = 1 + (i & 1);
+                futures.add(helpers.submit(() -> worker.search(timeLimitMillis, nodeLimit, maxDepth, startDepth)));
+            }
+            results.add(workers[0].search(timeLimitMillis, nodeLimit, maxDepth));
+        } finally {
+            // Whichever way the search ends, no helper may still write to the table when the next one starts
+            for (int i = 1; i < workers.length; i++) {
+                workers[i].stop();
+            }
+            for (Future<SearchResult> future : futures) {
+                results.add(await(future));
+            }
+        }
+
+        SearchResult best = results.get(0);
+        if (best == null) {
+            return null;
+        }
+
+        long nodes = 0;
+        for (SearchResult result : results) {
+            if (result == null) {
+                continue;
+            }
+            nodes += result.getNodes();
+            if (result.getDepth() > best.getDepth()) {
+                best = result;
+            }
+        }
+
+        return new SearchResult(best.getRow(), best.getColumn(), best.getScore(), best.getDepth(),
+                nodes, System.nanoTime() - start);
+    }
+
+    @Override
+    public void close() {
+        if (helpers != null) {
+            stop();
+            helpers.shutdownNow();
+        }
+    }
+
+    private static SearchResult await(Future<SearchResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Search helper failed.", ex.getCause());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package learn.gomoku.engine;
+
+import learn.gomoku.game.BitBoard;
+import learn.gomoku.game.FreeCells;
+import learn.gomoku.game.Gomoku;
+import learn.gomoku.game.Stone;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Board for Monte Carlo playouts. Moves are played on a BitBoard and random moves
+ * are drawn from a FreeCells set, so a playout never allocates and never retries.
+ * Every move goes on a stack so the board can be rewound to the search root.
+ */
+final class PlayoutBoard {
+
+    static final int DRAW = 0;
+    static final int BLACK_WINS = 1;
+    static final int WHITE_WINS = 2;
+
+    private final BitBoard board;
+    private final FreeCells free;
+    private final int[] stack;
+    private final int cells;
+    private int count;
+    private boolean blackToMove = true;
+
+    PlayoutBoard() {
+        this(Gomoku.WIDTH);
+    }
+
+    PlayoutBoard(int width) {
+        this.board = new BitBoard(width);
+        this.free = FreeCells.of(board);
+        this.cells = width * width;
+        this.stack = new int[cells];
+    }
+
+    void setPosition(List<Stone> moves) {
+        rewind(0);
+        blackToMove = true;
+        for (Stone stone : moves) {
+            blackToMove = stone.isBlack();
+            play(board.index(stone.getRow(), stone.getColumn()));
+        }
+    }
+
+    BitBoard getBoard() {
+        return board;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    int getMove(int i) {
+        return stack[i];
+    }
+
+    boolean isBlackToMove() {
+        return blackToMove;
+    }
+
+    boolean isFull() {
+        return count == cells;
+    }
+
+    /**
+     * Plays a move for the side to move and returns true if it made five.
+     */
+    boolean play(int cell) {
+        board.set(cell, blackToMove);
+        free.remove(cell);
+        stack[count++] = cell;
+        blackToMove = !blackToMove;
+        return board.isFive(cell);
+    }
+
+    void rewind(int toCount) {
+        while (count > toCount) {
+            int cell = stack[--count];
+            board.clear(cell);
+            free.add(cell);
+            blackToMove = !blackToMove;
+        }
+    }
+
+    /**
+     * Plays uniformly random moves until someone makes five or the board is full.
+     * The moves stay on the board; rewind to take them back.
+     */
+    int playout(SplittableRandom random) {
+        while (!free.isEmpty()) {
+            boolean black = blackToMove;
+            int cell = free.get(random.nextInt(free.size()));
+            if (play(cell)) {
+                return black ? BLACK_WINS : WHITE_WINS;
+            }
+        }
+        return DRAW;
+    }
+}
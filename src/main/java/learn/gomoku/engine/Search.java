@@ -0,0 +1,390 @@
+package learn.gomoku.engine;
+
+import learn.gomoku.game.BitBoard;
+import learn.gomoku.game.Gomoku;
+import learn.gomoku.game.Stone;
+import learn.gomoku.game.Zobrist;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Negamax alpha-beta search with iterative deepening.
+ *
+ * The search keeps its own board and plays moves in place (make/unmake), so a
+ * search never copies the position. Only empty cells within RADIUS of a stone
+ * are considered. The search stops at a deadline, a node budget or when stop()
+ * is called, and then returns the best move of the deepest finished iteration.
+ * Leaves are scored and moves ordered by LinePatterns, which make/unmake keep up to date.
+ *
+ * An optional TranspositionTable caches results by position hash. The table can
+ * be shared by several Search instances running on different threads.
+ */
+public class Search {
+
+    public static final int WIN = 1_000_000;
+    public static final int MAX_PLY = 128;
+
+    static final int RADIUS = 2;
+
+    private static final int INFINITY = WIN + 1;
+
+    private final BitBoard board;
+    private final LinePatterns patterns;
+    private final TranspositionTable table;
+    private final int width;
+    private final int[] near;
+    private final int[][] moveBuffers;
+    private final int[][] scoreBuffers;
+    private int moveCount;
+    private boolean blackToMove = true;
+    private long hash;
+
+    private long nodes;
+    private long nodeLimit;
+    private long deadline;
+    private boolean aborted;
+    private volatile boolean stopped;
+
+    public Search() {
+        this(Gomoku.WIDTH, null);
+    }
+
+    public Search(int width, TranspositionTable table) {
+        this.board = new BitBoard(width);
+        this.patterns = new LinePatterns(board);
+        this.table = table;
+        this.width = width;
+        int cells = width * board.getStride();
+        this.near = new int[cells];
+        this.moveBuffers = new int[MAX_PLY][width * width];
+        this.scoreBuffers = new int[MAX_PLY][width * width];
+    }
+
+    public void reset() {
+        board.clear();
+        patterns.reset();
+        Arrays.fill(near, 0);
+        moveCount = 0;
+        blackToMove = true;
+        hash = 0;
+    }
+
+    /**
+     * Replaces the position with the given moves. Whose turn it is follows the colour of the last stone.
+     */
+    public void setPosition(List<Stone> moves) {
+        reset();
+        stopped = false;
+        for (Stone stone : moves) {
+            blackToMove = stone.isBlack();
+            make(board.index(stone.getRow(), stone.getColumn()));
+        }
+    }
+
+    public boolean isBlackToMove() {
+        return blackToMove;
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Asks a running search to return as soon as possible. Safe to call from another thread.
+     * Stays in effect, also for searches that haven't started yet, until the next setPosition.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Searches the current position.
+     *
+     * @param timeLimitMillis wall-clock budget, 0 for none
+     * @param nodeLimit       node budget, 0 for none
+     * @param maxDepth        deepest iteration to start
+     * @return the best move found, or null if the board is full
+     */
+    public SearchResult search(long timeLimitMillis, long nodeLimit, int maxDepth) {
+        return search(timeLimitMillis, nodeLimit, maxDepth, 1);
+    }
+
+    /**
+     * Searches the current position, starting iterative deepening at startDepth.
+     * Helper threads of a parallel search start at different depths so they don't
+     * all repeat the same work.
+     */
+    public SearchResult search(long timeLimitMillis, long nodeLimit, int maxDepth, int startDepth) {
+        long start = System.nanoTime();
+        this.deadline = timeLimitMillis > 0 ? start + timeLimitMillis * 1_000_000L : Long.MAX_VALUE;
+        this.nodeLimit = nodeLimit > 0 ? nodeLimit : Long.MAX_VALUE;
+        this.nodes = 0;
+        this.aborted = false;
+
+        int count = generate(0);
+        if (count == 0) {
+            return null;
+        }
+        boostTableMove(0, count);
+        int[] rootMoves = new int[count];
+        for (int i = 0; i < count; i++) {
+            rootMoves[i] = pick(0, i, count);
+        }
+
+        int bestCell = rootMoves[0];
+        int bestScore = 0;
+        int completedDepth = 0;
+
+        for (int depth = Math.max(1, startDepth); depth <= Math.min(maxDepth, MAX_PLY - 1); depth++) {
+            int alpha = -INFINITY;
+            int iterationBest = -1;
+
+            for (int i = 0; i < count; i++) {
+                int cell = rootMoves[i];
+                int score = searchMove(cell, depth, alpha, INFINITY, 0);
+                if (aborted) {
+                    break;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    iterationBest = i;
+                }
+            }
+
+            // An unfinished iteration still counts if it found a move that beat the previous best,
+            // which is always searched first.
+            if (iterationBest >= 0) {
+                bestCell = rootMoves[iterationBest];
+                bestScore = alpha;
+                moveToFront(rootMoves, iterationBest);
+            }
+            if (aborted) {
+                break;
+            }
+            completedDepth = depth;
+            if (table != null) {
+                table.store(hash, bestCell, bestScore, depth, TranspositionTable.EXACT);
+            }
+
+            if (Math.abs(bestScore) >= WIN - MAX_PLY) {
+                break;
+            }
+        }
+
+        return new SearchResult(board.row(bestCell), board.column(bestCell), bestScore,
+                completedDepth, nodes, System.nanoTime() - start);
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        if ((++nodes & 1023) == 0 && (System.nanoTime() > deadline || stopped)) {
+            aborted = true;
+        }
+        if (nodes >= nodeLimit) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+
+        if (table != null) {
+            long entry = table.probe(hash);
+            if (entry != 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || bound == TranspositionTable.LOWER && score >= beta
+                        || bound == TranspositionTable.UPPER && score <= alpha) {
+                    return score;
+                }
+            }
+        }
+
+        if (depth == 0 || ply >= MAX_PLY - 1) {
+            return patterns.evaluate(blackToMove);
+        }
+
+        int count = generate(ply);
+        if (count == 0) {
+            return 0;
+        }
+        boostTableMove(ply, count);
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestCell = TranspositionTable.NO_MOVE;
+        for (int i = 0; i < count; i++) {
+            int cell = pick(ply, i, count);
+            int score = searchMove(cell, depth, alpha, beta, ply);
+            if (aborted) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestCell = cell;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (table != null) {
+            int bound = best <= originalAlpha ? TranspositionTable.UPPER
+                    : best >= beta ? TranspositionTable.LOWER
+                    : TranspositionTable.EXACT;
+            table.store(hash, bestCell, toTable(best, ply), depth, bound);
+        }
+        return best;
+    }
+
+    // Moves the best move stored in the table for this position to the front of the ordering.
+    private void boostTableMove(int ply, int count) {
+        if (table == null) {
+            return;
+        }
+        long entry = table.probe(hash);
+        if (entry == 0) {
+            return;
+        }
+        int move = TranspositionTable.move(entry);
+        int[] moves = moveBuffers[ply];
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move) {
+                scoreBuffers[ply][i] = Integer.MAX_VALUE;
+                return;
+            }
+        }
+    }
+
+    // Win scores count plies from the root, the table stores them counted from the position itself.
+    private static int toTable(int score, int ply) {
+        if (score >= WIN - MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -WIN + MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= WIN - MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -WIN + MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    // Plays cell, scores it for the side that played it and takes it back.
+    private int searchMove(int cell, int depth, int alpha, int beta, int ply) {
+        boolean five = patterns.isFivePoint(cell, blackToMove);
+        make(cell);
+        int score;
+        if (five) {
+            score = WIN - ply - 1;
+        } else if (moveCount == width * width) {
+            score = 0;
+        } else {
+            score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+        }
+        unmake(cell);
+        return score;
+    }
+
+    void make(int cell) {
+        board.set(cell, blackToMove);
+        patterns.update(cell);
+        hash ^= Zobrist.stone(cell, blackToMove) ^ Zobrist.WHITE_TO_MOVE;
+        moveCount++;
+        blackToMove = !blackToMove;
+        updateNear(cell, 1);
+    }
+
+    void unmake(int cell) {
+        updateNear(cell, -1);
+        blackToMove = !blackToMove;
+        moveCount--;
+        hash ^= Zobrist.stone(cell, blackToMove) ^ Zobrist.WHITE_TO_MOVE;
+        board.clear(cell);
+        patterns.update(cell);
+    }
+
+    private void updateNear(int cell, int change) {
+        int row = board.row(cell);
+        int col = board.column(cell);
+        for (int r = Math.max(0, row - RADIUS); r <= Math.min(width - 1, row + RADIUS); r++) {
+            for (int c = Math.max(0, col - RADIUS); c <= Math.min(width - 1, col + RADIUS); c++) {
+                near[board.index(r, c)] += change;
+            }
+        }
+    }
+
+    // Fills the move buffer of ply with the candidate moves and their ordering scores.
+    private int generate(int ply) {
+        int[] moves = moveBuffers[ply];
+        int[] scores = scoreBuffers[ply];
+
+        if (moveCount == 0) {
+            moves[0] = board.index(width / 2, width / 2);
+            scores[0] = 0;
+            return 1;
+        }
+
+        int count = 0;
+        for (int row = 0; row < width; row++) {
+            for (int col = 0; col < width; col++) {
+                int cell = board.index(row, col);
+                if (near[cell] > 0 && board.isEmpty(cell)) {
+                    moves[count] = cell;
+                    scores[count] = orderScore(cell);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    // Selection sort step: swaps the best remaining move of ply into slot i and returns it.
+    private int pick(int ply, int i, int count) {
+        int[] moves = moveBuffers[ply];
+        int[] scores = scoreBuffers[ply];
+        int best = i;
+        for (int j = i + 1; j < count; j++) {
+            if (scores[j] > scores[best]) {
+                best = j;
+            }
+        }
+        int move = moves[best];
+        moves[best] = moves[i];
+        moves[i] = move;
+        int score = scores[best];
+        scores[best] = scores[i];
+        scores[i] = score;
+        return move;
+    }
+
+    // Scores a move by the patterns it would make for the side to move and block for the opponent.
+    private int orderScore(int cell) {
+        int score = 0;
+        for (int direction = 0; direction < BitBoard.DIRECTIONS; direction++) {
+            score += LinePatterns.WEIGHTS[patterns.getPattern(cell, direction, blackToMove)] * 2
+                    + LinePatterns.WEIGHTS[patterns.getPattern(cell, direction, !blackToMove)];
+        }
+        return score;
+    }
+
+    private static void moveToFront(int[] moves, int index) {
+        int move = moves[index];
+        System.arraycopy(moves, 0, moves, 1, index);
+        moves[0] = move;
+    }
+}
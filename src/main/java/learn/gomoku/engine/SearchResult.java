@@ -0,0 +1,74 @@
+package learn.gomoku.engine;
+
+/**
+ * Outcome of one search: the move found, its score and how much work it took.
+ */
+public class SearchResult {
+
+    private final int row;
+    private final int column;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long nanos;
+
+    public SearchResult(int row, int column, int score, int depth, long nodes, long nanos) {
+        this.row = row;
+        this.column = column;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.nanos = nanos;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Deepest fully completed iteration.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public long getNodesPerSecond() {
+        return nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos;
+    }
+
+    public boolean isWin() {
+        return score >= Search.WIN - Search.MAX_PLY;
+    }
+
+    public boolean isLoss() {
+        return score <= -Search.WIN + Search.MAX_PLY;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchResult{" +
+                "row=" + row +
+                ", column=" + column +
+                ", score=" + score +
+                ", depth=" + depth +
+                ", nodes=" + nodes +
+                ", nps=" + getNodesPerSecond() +
+                '}';
+    }
+}
@@ -0,0 +1,482 @@
+package learn.gomoku.engine;
+
+import learn.gomoku.game.BitBoard;
+import learn.gomoku.game.Board;
+import learn.gomoku.game.Gomoku;
+import learn.gomoku.game.PatternTable;
+import learn.gomoku.game.Stone;
+import learn.gomoku.game.Zobrist;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Searches for forced wins using only forcing moves.
+ *
+ * VCF (victory by continuous fours) only tries moves that make a four, so the
+ * defender's reply is always forced. VCT (victory by continuous threats) also
+ * tries moves that make an open three, answered by every move that stops the
+ * three or counters with a four. Both are much narrower than a full-width search.
+ *
+ * The solver tracks five-points, the empty cells where a colour would make
+ * exactly five, per direction. A move can only change the five-points on the four
+ * lines through it, so only those cells are re-checked after every move. Fours and
+ * threes are read from LinePatterns, kept up to date the same way.
+ */
+public class ThreatSolver {
+
+    public static final int DEFAULT_VCF_DEPTH = 30;
+    public static final int DEFAULT_VCT_DEPTH = 4;
+    public static final long DEFAULT_NODE_LIMIT = 100_000;
+
+    private static final int[][] DIRECTIONS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+    private static final int BLACK = 0;
+    private static final int WHITE = 1;
+    private static final int MAX_PLY = 128;
+    private static final int FAILED_SIZE = 1 << 16;
+
+    private final BitBoard board;
+    private final LinePatterns patterns;
+    private final int width;
+    // Bit d is set if the colour would make exactly five on the cell along direction d
+    private final byte[][] fivePoints;
+    private final int[] fivePointCounts = new int[2];
+    private final int[][] moveBuffers;
+    private final int[] counterMoves;
+    // Marks cells already collected, one generation per search of moves
+    private final int[] stamps;
+    private int stamp;
+    private final int[] line = new int[MAX_PLY];
+    private int lineLength;
+
+    // Positions already shown to have no VCF within the stored depth
+    private final long[] failedKeys = new long[FAILED_SIZE];
+    private final byte[] failedDepths = new byte[FAILED_SIZE];
+
+    private boolean blackToMove = true;
+    private long hash;
+    private long nodes;
+    private long nodeLimit = DEFAULT_NODE_LIMIT;
+    private boolean aborted;
+
+    public ThreatSolver() {
+        this(Gomoku.WIDTH);
+    }
+
+    /**
+     * @throws IllegalArgumentException for boards wider than Board.MAX_DENSE_WIDTH, which have no BitBoard
+     */
+    public ThreatSolver(int width) {
+        if (width < 1 || width > Board.MAX_DENSE_WIDTH) {
+            throw new IllegalArgumentException("The threat solver is limited to boards up to "
+                    + Board.MAX_DENSE_WIDTH + " wide.");
+        }
+        this.board = new BitBoard(width);
+        this.patterns = new LinePatterns(board);
+        this.width = width;
+        int cells = width * board.getStride();
+        this.fivePoints = new byte[2][cells];
+        this.moveBuffers = new int[MAX_PLY][width * width];
+        this.counterMoves = new int[width * width];
+        this.stamps = new int[cells];
+    }
+
+    /**
+     * Looks for a forced win for the side to move in a game, on a board of the game's width.
+     */
+    public static List<Stone> solve(Gomoku game) {
+        ThreatSolver solver = new ThreatSolver(game.getWidth());
+        solver.setPosition(game.getMoveHistory());
+        List<Stone> win = solver.solveVcf();
+        return win.isEmpty() ? solver.solveVct() : win;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getNodeLimit() {
+        return nodeLimit;
+    }
+
+    /**
+     * Node budget for one solve call. A search that runs out reports no forced win.
+     */
+    public void setNodeLimit(long nodeLimit) {
+        this.nodeLimit = nodeLimit > 0 ? nodeLimit : Long.MAX_VALUE;
+    }
+
+    /**
+     * Replaces the position with the given moves. Whose turn it is follows the colour of the last stone.
+     */
+    public void setPosition(List<Stone> moves) {
+        board.clear();
+        patterns.reset();
+        for (byte[] points : fivePoints) {
+            Arrays.fill(points, (byte) 0);
+        }
+        fivePointCounts[BLACK] = 0;
+        fivePointCounts[WHITE] = 0;
+        hash = 0;
+        blackToMove = true;
+        for (Stone stone : moves) {
+            blackToMove = !stone.isBlack();
+            put(board.index(stone.getRow(), stone.getColumn()), stone.isBlack());
+        }
+        if (!moves.isEmpty() && !blackToMove) {
+            hash ^= Zobrist.WHITE_TO_MOVE;
+        }
+    }
+
+    /**
+     * Searches for a win by continuous fours for the side to move.
+     *
+     * @return the winning line, attacker and defender moves alternating and ending
+     * with the five, or an empty list if there is no forced win
+     */
+    public List<Stone> solveVcf() {
+        return solve(false, DEFAULT_VCF_DEPTH);
+    }
+
+    /**
+     * Searches for a win by continuous fours and threes for the side to move.
+     * The line returned follows one of the defender's replies at every three.
+     */
+    public List<Stone> solveVct() {
+        return solve(true, DEFAULT_VCT_DEPTH);
+    }
+
+    private List<Stone> solve(boolean threes, int depth) {
+        nodes = 0;
+        aborted = false;
+        lineLength = 0;
+        boolean attacker = blackToMove;
+        boolean won = threes ? vct(depth, 0) : vcf(depth, 0);
+
+        List<Stone> result = new ArrayList<>();
+        if (won) {
+            for (int i = 0; i < lineLength; i++) {
+                int cell = line[i];
+                result.add(Stone.of(board.row(cell), board.column(cell), i % 2 == 0 == attacker));
+            }
+        }
+        return result;
+    }
+
+    private boolean vcf(int depth, int ply) {
+        if (++nodes > nodeLimit) {
+            aborted = true;
+        }
+        if (aborted || ply >= MAX_PLY - 3) {
+            return false;
+        }
+
+        int attacker = blackToMove ? BLACK : WHITE;
+        int defender = 1 - attacker;
+
+        // A five on the board wins straight away
+        if (fivePointCounts[attacker] > 0) {
+            line[ply] = findFivePoint(attacker);
+            lineLength = ply + 1;
+            return true;
+        }
+        if (depth == 0 || isKnownFailure(depth)) {
+            return false;
+        }
+
+        int count;
+        int[] moves = moveBuffers[ply];
+        if (fivePointCounts[defender] > 1) {
+            return false;
+        } else if (fivePointCounts[defender] == 1) {
+            // The defender threatens five: the block is the only move, and it has to be a four itself.
+            moves[0] = findFivePoint(defender);
+            count = 1;
+        } else {
+            count = findMoves(attacker, PatternTable.FOUR, PatternTable.OPEN_FOUR, moves);
+        }
+
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            make(move);
+            boolean won = false;
+            if (fivePointCounts[attacker] >= 2) {
+                // An open four (or a double four): the defender can only block one of the fives
+                int block = findFivePoint(attacker);
+                make(block);
+                line[ply + 2] = findFivePoint(attacker);
+                unmake(block);
+                line[ply + 1] = block;
+                lineLength = ply + 3;
+                won = true;
+            } else if (fivePointCounts[attacker] == 1) {
+                int block = findFivePoint(attacker);
+                boolean blockWins = fivePoints[defender][block] != 0;
+                make(block);
+                won = !blockWins && vcf(depth - 1, ply + 2);
+                unmake(block);
+                line[ply + 1] = block;
+            }
+            unmake(move);
+
+            if (won) {
+                line[ply] = move;
+                return true;
+            }
+            if (aborted) {
+                return false;
+            }
+        }
+
+        rememberFailure(depth);
+        return false;
+    }
+
+    private boolean vct(int depth, int ply) {
+        if (vcf(DEFAULT_VCF_DEPTH, ply)) {
+            return true;
+        }
+        if (aborted || depth == 0 || ply >= MAX_PLY - 3) {
+            return false;
+        }
+
+        int attacker = blackToMove ? BLACK : WHITE;
+        int defender = 1 - attacker;
+        if (fivePointCounts[defender] > 0) {
+            return false;
+        }
+
+        int[] moves = moveBuffers[ply];
+        int count = findMoves(attacker, PatternTable.OPEN_THREE, PatternTable.OPEN_THREE, moves);
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            make(move);
+
+            // Fours were already tried by the VCF search, so only a pure three is new here
+            int[] defences = moveBuffers[ply + 1];
+            int defenceCount = fivePointCounts[attacker] == 0 ? findDefences(move, attacker, defences) : 0;
+            boolean won = defenceCount > 0;
+            for (int j = 0; j < defenceCount && won; j++) {
+                int defence = defences[j];
+                boolean defenceWins = fivePoints[defender][defence] != 0;
+                make(defence);
+                won = !defenceWins && vct(depth - 1, ply + 2);
+                unmake(defence);
+                line[ply + 1] = defence;
+            }
+            unmake(move);
+
+            if (won) {
+                line[ply] = move;
+                return true;
+            }
+            if (aborted) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    // Replies to a three made by move: every cell where the attacker would make an open four,
+    // the five-points of that open four, and every four the defender can make instead.
+    private int findDefences(int move, int attacker, int[] defences) {
+        int count = 0;
+        int row = board.row(move);
+        int col = board.column(move);
+        boolean attackerBlack = attacker == BLACK;
+        stamp++;
+
+        for (int[] direction : DIRECTIONS) {
+            for (int k = -4; k <= 4; k++) {
+                int r = row + k * direction[0];
+                int c = col + k * direction[1];
+                if (!board.isOnBoard(r, c) || !board.isEmpty(board.index(r, c))) {
+                    continue;
+                }
+                int cell = board.index(r, c);
+                put(cell, attackerBlack);
+                if (fivePointCounts[attacker] >= 2) {
+                    count = addOnce(defences, count, cell);
+                    for (int j = -5; j <= 5; j++) {
+                        int fr = r + j * direction[0];
+                        int fc = c + j * direction[1];
+                        if (board.isOnBoard(fr, fc) && fivePoints[attacker][board.index(fr, fc)] != 0) {
+                            count = addOnce(defences, count, board.index(fr, fc));
+                        }
+                    }
+                }
+                remove(cell);
+            }
+        }
+
+        if (count == 0) {
+            return 0;
+        }
+        int counterCount = findMoves(1 - attacker, PatternTable.FOUR, PatternTable.OPEN_FOUR, counterMoves);
+        for (int i = 0; i < counterCount; i++) {
+            count = addOnce(defences, count, counterMoves[i]);
+        }
+        return count;
+    }
+
+    private int addOnce(int[] cells, int count, int cell) {
+        if (stamps[cell] == stamp) {
+            return count;
+        }
+        stamps[cell] = stamp;
+        cells[count] = cell;
+        return count + 1;
+    }
+
+    // Empty cells where the colour would make a pattern from lowest to highest along some line.
+    private int findMoves(int colour, int lowest, int highest, int[] moves) {
+        boolean isBlack = colour == BLACK;
+        int count = 0;
+
+        for (int row = 0; row < width; row++) {
+            for (int col = 0; col < width; col++) {
+                int cell = board.index(row, col);
+                for (int direction = 0; direction < BitBoard.DIRECTIONS; direction++) {
+                    int pattern = patterns.getPattern(cell, direction, isBlack);
+                    if (pattern >= lowest && pattern <= highest) {
+                        moves[count++] = cell;
+                        break;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private int findFivePoint(int colour) {
+        byte[] points = fivePoints[colour];
+        for (int cell = 0; cell < points.length; cell++) {
+            if (points[cell] != 0) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+
+    private void make(int cell) {
+        put(cell, blackToMove);
+        blackToMove = !blackToMove;
+        hash ^= Zobrist.WHITE_TO_MOVE;
+    }
+
+    private void unmake(int cell) {
+        blackToMove = !blackToMove;
+        hash ^= Zobrist.WHITE_TO_MOVE;
+        remove(cell);
+    }
+
+    private void put(int cell, boolean isBlack) {
+        board.set(cell, isBlack);
+        hash ^= Zobrist.stone(cell, isBlack);
+        patterns.update(cell);
+        updateFivePoints(cell);
+    }
+
+    private void remove(int cell) {
+        hash ^= Zobrist.stone(cell, board.get(cell) == BitBoard.BLACK);
+        board.clear(cell);
+        patterns.update(cell);
+        updateFivePoints(cell);
+    }
+
+    // Re-checks the five-points on the four lines through a cell that just changed.
+    private void updateFivePoints(int changed) {
+        int row = board.row(changed);
+        int col = board.column(changed);
+        for (int d = 0; d < DIRECTIONS.length; d++) {
+            for (int k = -5; k <= 5; k++) {
+                int r = row + k * DIRECTIONS[d][0];
+                int c = col + k * DIRECTIONS[d][1];
+                if (!board.isOnBoard(r, c)) {
+                    continue;
+                }
+                int cell = board.index(r, c);
+                if (k == 0) {
+                    // The changed cell itself can gain or lose five-points in every direction
+                    for (int direction = 0; direction < DIRECTIONS.length; direction++) {
+                        updateFivePoint(cell, direction, BLACK);
+                        updateFivePoint(cell, direction, WHITE);
+                    }
+                } else {
+                    updateFivePoint(cell, d, BLACK);
+                    updateFivePoint(cell, d, WHITE);
+                }
+            }
+        }
+    }
+
+    private void updateFivePoint(int cell, int direction, int colour) {
+        boolean five = patterns.getPattern(cell, direction, colour == BLACK) == PatternTable.FIVE;
+
+        byte before = fivePoints[colour][cell];
+        byte after = (byte) (five ? before | 1 << direction : before & ~(1 << direction));
+        if (before == 0 && after != 0) {
+            fivePointCounts[colour]++;
+        } else if (before != 0 && after == 0) {
+            fivePointCounts[colour]--;
+        }
+        fivePoints[colour][cell] = after;
+    }
+
+    private boolean isKnownFailure(int depth) {
+        int i = (int) hash & (FAILED_SIZE - 1);
+        return failedKeys[i] == hash && failedDepths[i] >= depth;
+    }
+
+    private void rememberFailure(int depth) {
+        if (aborted) {
+            return;
+        }
+        int i = (int) hash & (FAILED_SIZE - 1);
+        failedKeys[i] = hash;
+        failedDepths[i] = (byte) Math.min(depth, Byte.MAX_VALUE);
+    }
+
+    /**
+     * Solves a position given on the command line as row,column pairs, black first, for example
+     * 7,7 7,8 8,8 6,6 and prints the winning line. A first argument without a comma is the board
+     * width, Gomoku.WIDTH if it is left out: 19 7,7 7,8 solves on a 19 wide board.
+     */
+    public static void main(String[] args) {
+        List<Stone> moves = new ArrayList<>();
+        int width = Gomoku.WIDTH;
+        int first = 0;
+        if (args.length > 0 && !args[0].contains(",")) {
+            width = Integer.parseInt(args[0].trim());
+            first = 1;
+        }
+        for (String arg : Arrays.copyOfRange(args, first, args.length)) {
+            String[] parts = arg.split(",");
+            moves.add(Stone.of(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()),
+                    moves.size() % 2 == 0));
+        }
+
+        ThreatSolver solver = new ThreatSolver(width);
+        solver.setPosition(moves);
+        long start = System.nanoTime();
+        List<Stone> win = solver.solveVcf();
+        String kind = "VCF";
+        if (win.isEmpty()) {
+            win = solver.solveVct();
+            kind = "VCT";
+        }
+        long micros = (System.nanoTime() - start) / 1000;
+
+        if (win.isEmpty()) {
+            System.out.printf("No forced win (%d nodes, %d us)%n", solver.getNodes(), micros);
+            return;
+        }
+        StringBuilder text = new StringBuilder();
+        for (Stone stone : win) {
+            text.append(stone.isBlack() ? " B" : " W")
+                    .append(stone.getRow()).append(',').append(stone.getColumn());
+        }
+        System.out.printf("%s:%s (%d nodes, %d us)%n", kind, text, solver.getNodes(), micros);
+    }
+}
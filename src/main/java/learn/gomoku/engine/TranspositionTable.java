@@ -0,0 +1,170 @@
+package learn.gomoku.engine;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Fixed-size transposition table that many search threads can share without locks.
+ *
+ * Every slot is two longs: the position hash xor the packed data, and the packed data.
+ * Threads read and write the two halves without synchronisation. A slot torn by two
+ * racing writers fails the key check on the next probe and is treated as a miss,
+ * so a race costs at most one lost entry.
+ *
+ * The slots live off the heap in a direct buffer, accessed through a VarHandle, so a
+ * large table is a single allocation the garbage collector never scans. A table opened
+ * on a file is a memory mapping of it instead: entries are written through to the file
+ * and are still there when the same file is opened again by a later run. Zobrist keys
+ * are fixed, so stored hashes stay valid across runs.
+ */
+public class TranspositionTable {
+
+    public static final int EXACT = 0;
+    public static final int LOWER = 1;
+    public static final int UPPER = 2;
+
+    public static final int NO_MOVE = 0xFFFF;
+
+    private static final int SLOT_BYTES = 16;
+    // A buffer is indexed by int, which caps a table at 2^26 slots of 16 bytes, 1 GB
+    private static final long MAX_SLOTS = 1L << 26;
+    // File header: magic and slot count, one slot wide to keep the slots aligned
+    private static final long MAGIC = 0x474D4B5454424C31L;
+    private static final int HEADER_BYTES = SLOT_BYTES;
+    private static final VarHandle LONGS =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final ByteBuffer slots;
+    private final int offset;
+    private final int mask;
+
+    public TranspositionTable(int megabytes) {
+        this(ByteBuffer.allocateDirect(slotCount(megabytes) * SLOT_BYTES), 0, slotCount(megabytes));
+    }
+
+    private TranspositionTable(ByteBuffer slots, int offset, int slotCount) {
+        this.slots = slots;
+        this.offset = offset;
+        this.mask = slotCount - 1;
+    }
+
+    /**
+     * Opens a table backed by a file, creating it if needed. A file written by an earlier
+     * table of the same size keeps its entries, anything else is started over empty.
+     */
+    public static TranspositionTable open(Path path, int megabytes) throws IOException {
+        int slotCount = slotCount(megabytes);
+        long bytes = HEADER_BYTES + (long) slotCount * SLOT_BYTES;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            boolean sameSize = channel.size() == bytes;
+            if (!sameSize) {
+                // Mapping grows the emptied file with zeros, which is an empty table
+                channel.truncate(0);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            TranspositionTable table = new TranspositionTable(buffer, HEADER_BYTES, slotCount);
+            if ((long) LONGS.get(buffer, 0) != MAGIC || (long) LONGS.get(buffer, 8) != slotCount) {
+                if (sameSize) {
+                    table.clear();
+                }
+                LONGS.set(buffer, 0, MAGIC);
+                LONGS.set(buffer, 8, (long) slotCount);
+            }
+            return table;
+        }
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Returns the packed data stored for hash, or 0 if the table holds nothing for it.
+     * Unpack with move(), score(), depth() and bound().
+     */
+    public long probe(long hash) {
+        int i = index(hash);
+        long key = (long) LONGS.getOpaque(slots, i);
+        long data = (long) LONGS.getOpaque(slots, i + 8);
+        if (data != 0 && (key ^ data) == hash) {
+            return data;
+        }
+        return 0;
+    }
+
+    /**
+     * Stores a search result. An entry for a different position is only replaced by a search
+     * that went at least as deep, so shallow results don't push out expensive ones.
+     */
+    public void store(long hash, int move, int score, int depth, int bound) {
+        int i = index(hash);
+        long oldData = (long) LONGS.getOpaque(slots, i + 8);
+        long oldKey = (long) LONGS.getOpaque(slots, i);
+        if (oldData != 0 && (oldKey ^ oldData) != hash && depth(oldData) > depth) {
+            return;
+        }
+        long data = pack(move, score, depth, bound);
+        LONGS.setOpaque(slots, i, hash ^ data);
+        LONGS.setOpaque(slots, i + 8, data);
+    }
+
+    public void clear() {
+        int end = offset + getCapacity() * SLOT_BYTES;
+        for (int i = offset; i < end; i += 8) {
+            LONGS.setOpaque(slots, i, 0L);
+        }
+    }
+
+    /**
+     * Writes the entries of a file-backed table out to the file. Does nothing for an in-memory table.
+     */
+    public void flush() {
+        if (slots instanceof MappedByteBuffer) {
+            ((MappedByteBuffer) slots).force();
+        }
+    }
+
+    public static int move(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> 16 & 0xFF);
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> 24 & 0x3);
+    }
+
+    public static int score(long data) {
+        return (int) (data >> 32);
+    }
+
+    // Layout: move in bits 0-15, depth in 16-23, bound in 24-25, bit 26 marks a used slot, score in 32-63.
+    static long pack(int move, int score, int depth, int bound) {
+        return (move & 0xFFFFL)
+                | (long) (depth & 0xFF) << 16
+                | (long) (bound & 0x3) << 24
+                | 1L << 26
+                | (long) score << 32;
+    }
+
+    // Largest power of two number of slots that fits in megabytes
+    private static int slotCount(int megabytes) {
+        long slotCount = Long.highestOneBit(Math.max(1, (long) megabytes * 1024 * 1024 / SLOT_BYTES));
+        return (int) Math.min(slotCount, MAX_SLOTS);
+    }
+
+    // Byte offset of the first half of the slot for hash
+    private int index(long hash) {
+        return offset + (((int) (hash ^ (hash >>> 32)) & mask) << 4);
+    }
+}
@@ -0,0 +1,276 @@
+package learn.gomoku.event;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Delivers the moves and results of games to listeners on a thread of its own.
+ *
+ * Events go into a bounded ring buffer of preallocated primitive arrays, so publishing
+ * allocates nothing and takes no lock: a game claims a slot with one compare-and-set,
+ * fills it in and marks it published. Any number of games on any threads may publish
+ * to the same bus. One delivery thread hands the events to every listener in the order
+ * they were claimed, up to batchSize at a time, and calls onBatchEnd() after each batch.
+ *
+ * When the listeners fall so far behind that the buffer is full, the Overflow policy
+ * decides: DROP discards the new event and reports the count to onDropped(), so games
+ * are never held up; BLOCK makes the game wait for a free slot, for listeners such as
+ * recorders that must see every event.
+ */
+public class EventBus implements Closeable {
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    public static final int DEFAULT_BATCH = 256;
+
+    static final byte MOVE = 0;
+    static final byte WIN = 1;
+    static final byte DRAW = 2;
+    // Set in the type of a black move or a black win
+    private static final byte BLACK = 4;
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final int mask;
+    private final int batchSize;
+    private final Overflow overflow;
+
+    // One event per slot, at index sequence & mask
+    private final byte[] types;
+    private final long[] games;
+    private final int[] moves;
+    private final int[] rows;
+    private final int[] columns;
+    // Sequence of the event published in each slot, the slot is free to read when it matches
+    private final AtomicLongArray published;
+
+    // Next sequence to claim, and the first one the delivery thread hasn't finished with
+    private final AtomicLong next = new AtomicLong();
+    private volatile long delivered;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong gameIds = new AtomicLong();
+
+    private final List<GameEventListener> listeners = new CopyOnWriteArrayList<>();
+    private final Thread thread;
+    // Set while the delivery thread is about to park, so publishers only wake it then
+    private volatile boolean idle;
+    private volatile boolean closed;
+
+    public EventBus() {
+        this(DEFAULT_CAPACITY, DEFAULT_BATCH, Overflow.DROP);
+    }
+
+    /**
+     * @param capacity   events the buffer holds, rounded up to a power of two
+     * @param batchSize  most events delivered before onBatchEnd(), 1 to end a batch after every event
+     * @param overflow   what publishing does when the buffer is full
+     */
+    public EventBus(int capacity, int batchSize, Overflow overflow) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30.");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive.");
+        }
+        int slots = Integer.highestOneBit(capacity);
+        if (slots < capacity) {
+            slots <<= 1;
+        }
+        this.mask = slots - 1;
+        this.batchSize = batchSize;
+        this.overflow = overflow;
+        this.types = new byte[slots];
+        this.games = new long[slots];
+        this.moves = new int[slots];
+        this.rows = new int[slots];
+        this.columns = new int[slots];
+        this.published = new AtomicLongArray(slots);
+        for (int i = 0; i < slots; i++) {
+            published.set(i, -1);
+        }
+        this.thread = new Thread(this::deliver, "event-bus");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void subscribe(GameEventListener listener) {
+        listeners.add(listener);
+    }
+
+    public void unsubscribe(GameEventListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns a new id for a game publishing to this bus.
+     */
+    public long nextGameId() {
+        return gameIds.incrementAndGet();
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Events dropped so far because the buffer was full.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * @return false if the event was dropped
+     */
+    public boolean publishMove(long game, int move, int row, int column, boolean isBlack) {
+        return publish(isBlack ? (byte) (MOVE | BLACK) : MOVE, game, move, row, column);
+    }
+
+    public boolean publishWin(long game, int moves, boolean blackWins) {
+        return publish(blackWins ? (byte) (WIN | BLACK) : WIN, game, moves, 0, 0);
+    }
+
+    public boolean publishDraw(long game, int moves) {
+        return publish(DRAW, game, moves, 0, 0);
+    }
+
+    /**
+     * Delivers the events already published, then stops the delivery thread.
+     * Events published after this are dropped.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean publish(byte type, long game, int move, int row, int column) {
+        long sequence;
+        while (true) {
+            if (closed) {
+                dropped.incrementAndGet();
+                return false;
+            }
+            sequence = next.get();
+            if (sequence - delivered > mask) {
+                if (overflow == Overflow.DROP) {
+                    dropped.incrementAndGet();
+                    return false;
+                }
+                // Gives the delivery thread the CPU, which matters when there are few cores
+                wake();
+                Thread.yield();
+                continue;
+            }
+            if (next.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+
+        int slot = (int) sequence & mask;
+        types[slot] = type;
+        games[slot] = game;
+        moves[slot] = move;
+        rows[slot] = row;
+        columns[slot] = column;
+        // The volatile write makes the fields above visible to the delivery thread
+        published.set(slot, sequence);
+        wake();
+        return true;
+    }
+
+    private void wake() {
+        if (idle) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void deliver() {
+        long sequence = delivered;
+        long reported = 0;
+        while (true) {
+            int count = 0;
+            while (count < batchSize && published.get((int) sequence & mask) == sequence) {
+                dispatch((int) sequence & mask);
+                sequence++;
+                count++;
+            }
+            if (count > 0) {
+                delivered = sequence;
+                for (GameEventListener listener : listeners) {
+                    try {
+                        listener.onBatchEnd();
+                    } catch (RuntimeException e) {
+                        report(e);
+                    }
+                }
+            }
+
+            long drops = dropped.get();
+            if (drops != reported) {
+                for (GameEventListener listener : listeners) {
+                    try {
+                        listener.onDropped(drops - reported);
+                    } catch (RuntimeException e) {
+                        report(e);
+                    }
+                }
+                reported = drops;
+            }
+
+            if (count > 0) {
+                continue;
+            }
+            // Claimed events are always published soon after, so only stop once they are delivered
+            if (closed && next.get() == sequence) {
+                return;
+            }
+            idle = true;
+            if (published.get((int) sequence & mask) != sequence && !closed) {
+                LockSupport.parkNanos(this, IDLE_NANOS);
+            }
+            idle = false;
+        }
+    }
+
+    private void dispatch(int slot) {
+        int type = types[slot] & ~BLACK;
+        boolean isBlack = (types[slot] & BLACK) != 0;
+        for (GameEventListener listener : listeners) {
+            try {
+                if (type == MOVE) {
+                    listener.onMove(games[slot], moves[slot], rows[slot], columns[slot], isBlack);
+                } else if (type == WIN) {
+                    listener.onWin(games[slot], moves[slot], isBlack);
+                } else {
+                    listener.onDraw(games[slot], moves[slot]);
+                }
+            } catch (RuntimeException e) {
+                report(e);
+            }
+        }
+    }
+
+    // A failing listener doesn't stop the others or the bus
+    private static void report(RuntimeException e) {
+        System.err.println("Event listener failed: " + e);
+    }
+
+    /**
+     * What publishing does when the buffer is full.
+     */
+    public enum Overflow {
+        /** Drop the new event, count it and report it to the listeners. The game never waits. */
+        DROP,
+        /** Wait until the delivery thread frees a slot. No event is lost, but a slow listener slows the game. */
+        BLOCK
+    }
+}
@@ -0,0 +1,36 @@
+package learn.gomoku.event;
+
+/**
+ * Receives the events of an EventBus, all on the bus's delivery thread.
+ *
+ * Every field is passed as a primitive, so delivering an event allocates nothing.
+ * Games are told apart by the id a Gomoku gets from EventBus.nextGameId(), and moves
+ * are numbered from 1. A listener may be slow; it delays the listeners after it and,
+ * once the buffer is full, the events that follow. The game that made them is only held
+ * up on a bus with Overflow.BLOCK, where it waits for room in the buffer.
+ */
+public interface GameEventListener {
+
+    void onMove(long game, int move, int row, int column, boolean isBlack);
+
+    /**
+     * The move numbered moves made five in a row and ended the game.
+     */
+    default void onWin(long game, int moves, boolean blackWins) {
+    }
+
+    default void onDraw(long game, int moves) {
+    }
+
+    /**
+     * Called after every batch of events, for example to flush what the listener wrote.
+     */
+    default void onBatchEnd() {
+    }
+
+    /**
+     * Called with the number of events dropped since the last call because the buffer was full.
+     */
+    default void onDropped(long events) {
+    }
+}
@@ -0,0 +1,241 @@
+package learn.gomoku.game;
+
+import java.util.Arrays;
+
+/**
+ * Packed board with one bitset per colour.
+ *
+ * Cells are laid out row by row with one empty padding column after every row
+ * (cell index = row * (width + 1) + column), so a run of stones can never wrap
+ * from the end of one row onto the start of the next. With that layout every
+ * direction is a fixed shift: 1 along a row, stride down a column and
+ * stride + 1 / stride - 1 along the two diagonals.
+ */
+public class BitBoard implements Board {
+
+    public static final byte EMPTY = 0;
+    public static final byte BLACK = 1;
+    public static final byte WHITE = 2;
+
+    // Direction indexes, see delta(int)
+    public static final int ROW = 0;
+    public static final int COLUMN = 1;
+    public static final int DIAGONAL_DOWN = 2;
+    public static final int DIAGONAL_UP = 3;
+    public static final int DIRECTIONS = 4;
+
+    private final int width;
+    private final int stride;
+    private final int words;
+    private final int[] deltas;
+    private final long[] black;
+    private final long[] white;
+
+    public BitBoard() {
+        this(Gomoku.WIDTH);
+    }
+
+    public BitBoard(int width) {
+        if (width < 1) {
+            throw new IllegalArgumentException("Board width must be positive.");
+        }
+        this.width = width;
+        this.stride = width + 1;
+        this.words = (width * stride + 63) >>> 6;
+        this.deltas = new int[]{1, stride, stride + 1, stride - 1};
+        this.black = new long[words];
+        this.white = new long[words];
+    }
+
+    public BitBoard(BitBoard other) {
+        this.width = other.width;
+        this.stride = other.stride;
+        this.words = other.words;
+        this.deltas = other.deltas;
+        this.black = other.black.clone();
+        this.white = other.white.clone();
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    public int getStride() {
+        return stride;
+    }
+
+    public int delta(int direction) {
+        return deltas[direction];
+    }
+
+    public int index(int row, int column) {
+        return row * stride + column;
+    }
+
+    public int row(int cell) {
+        return cell / stride;
+    }
+
+    public int column(int cell) {
+        return cell % stride;
+    }
+
+    @Override
+    public boolean isOnBoard(int row, int column) {
+        return row >= 0 && row < width && column >= 0 && column < width;
+    }
+
+    public boolean isEmpty(int cell) {
+        return ((black[cell >>> 6] | white[cell >>> 6]) >>> cell & 1L) == 0;
+    }
+
+    public byte get(int cell) {
+        if ((black[cell >>> 6] >>> cell & 1L) != 0) {
+            return BLACK;
+        }
+        if ((white[cell >>> 6] >>> cell & 1L) != 0) {
+            return WHITE;
+        }
+        return EMPTY;
+    }
+
+    @Override
+    public byte get(int row, int column) {
+        return get(index(row, column));
+    }
+
+    @Override
+    public void set(int row, int column, boolean isBlack) {
+        set(index(row, column), isBlack);
+    }
+
+    @Override
+    public void clear(int row, int column) {
+        clear(index(row, column));
+    }
+
+    public void set(int cell, boolean isBlack) {
+        long[] stones = isBlack ? black : white;
+        stones[cell >>> 6] |= 1L << cell;
+    }
+
+    public void clear(int cell) {
+        long mask = ~(1L << cell);
+        black[cell >>> 6] &= mask;
+        white[cell >>> 6] &= mask;
+    }
+
+    public void clear() {
+        Arrays.fill(black, 0);
+        Arrays.fill(white, 0);
+    }
+
+    @Override
+    public BitBoard copy() {
+        return new BitBoard(this);
+    }
+
+    @Override
+    public int count() {
+        int result = 0;
+        for (int i = 0; i < words; i++) {
+            result += Long.bitCount(black[i]) + Long.bitCount(white[i]);
+        }
+        return result;
+    }
+
+    /**
+     * True if the stone on cell is part of exactly five in a row along any direction.
+     * Six or more in a row (an overline) does not count.
+     */
+    public boolean isFive(int cell) {
+        return isFive(cell, ROW) || isFive(cell, COLUMN)
+                || isFive(cell, DIAGONAL_DOWN) || isFive(cell, DIAGONAL_UP);
+    }
+
+    /**
+     * True if the stone on cell is part of exactly five in a row along one direction.
+     */
+    public boolean isFive(int cell, int direction) {
+        long[] stones = stonesAt(cell);
+        if (stones == null) {
+            return false;
+        }
+
+        int d = deltas[direction];
+
+        // Walk the possible starts of the five back from the cell. A start is only
+        // possible while the run of stones is unbroken, so this usually stops after one or two.
+        for (int start = cell; start >= 0 && (stones[start >>> 6] >>> start & 1L) != 0; start -= d) {
+            if (cell - start > 4 * d) {
+                break;
+            }
+            if ((exactFiveStarts(stones, start >>> 6, d) >>> start & 1L) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * True if the given colour has exactly five in a row anywhere on the board.
+     */
+    public boolean hasFive(boolean isBlack) {
+        long[] stones = isBlack ? black : white;
+        for (int direction = 0; direction < DIRECTIONS; direction++) {
+            for (int i = 0; i < words; i++) {
+                if (exactFiveStarts(stones, i, deltas[direction]) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private long[] stonesAt(int cell) {
+        if ((black[cell >>> 6] >>> cell & 1L) != 0) {
+            return black;
+        }
+        if ((white[cell >>> 6] >>> cell & 1L) != 0) {
+            return white;
+        }
+        return null;
+    }
+
+    // Word i of the cells that start exactly five in a row along delta d:
+    // the start and the next four cells are set, the cell before and the sixth cell are not.
+    private long exactFiveStarts(long[] stones, int i, int d) {
+        return stones[i]
+                & down(stones, i, d)
+                & down(stones, i, 2 * d)
+                & down(stones, i, 3 * d)
+                & down(stones, i, 4 * d)
+                & ~up(stones, i, d)
+                & ~down(stones, i, 5 * d);
+    }
+
+    // Word i of the bitset shifted towards bit zero by n (bit j of the result is bit j + n).
+    private long down(long[] stones, int i, int n) {
+        int w = i + (n >>> 6);
+        int b = n & 63;
+        long low = w < words ? stones[w] : 0;
+        if (b == 0) {
+            return low;
+        }
+        long high = w + 1 < words ? stones[w + 1] : 0;
+        return (low >>> b) | (high << (64 - b));
+    }
+
+    // Word i of the bitset shifted away from bit zero by n (bit j of the result is bit j - n).
+    private long up(long[] stones, int i, int n) {
+        int w = i - (n >>> 6);
+        int b = n & 63;
+        long high = w >= 0 ? stones[w] : 0;
+        if (b == 0) {
+            return high;
+        }
+        long low = w >= 1 ? stones[w - 1] : 0;
+        return (high << b) | (low >>> (64 - b));
+    }
+}
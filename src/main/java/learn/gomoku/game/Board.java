@@ -0,0 +1,44 @@
+package learn.gomoku.game;
+
+/**
+ * Stones on a square board, addressed by row and column.
+ *
+ * Standard sizes use a BitBoard, whose memory grows with the area of the board.
+ * Boards wider than MAX_DENSE_WIDTH use a SparseBoard, whose memory grows with the
+ * number of stones, so they can be practically unbounded.
+ */
+public interface Board {
+
+    int MAX_DENSE_WIDTH = 64;
+
+    static Board create(int width) {
+        return width <= MAX_DENSE_WIDTH ? new BitBoard(width) : new SparseBoard(width);
+    }
+
+    int getWidth();
+
+    boolean isOnBoard(int row, int column);
+
+    /**
+     * Returns BitBoard.EMPTY, BitBoard.BLACK or BitBoard.WHITE.
+     */
+    byte get(int row, int column);
+
+    default boolean isEmpty(int row, int column) {
+        return get(row, column) == BitBoard.EMPTY;
+    }
+
+    void set(int row, int column, boolean isBlack);
+
+    void clear(int row, int column);
+
+    /**
+     * Number of stones on the board.
+     */
+    int count();
+
+    /**
+     * Returns an independent board with the same stones.
+     */
+    Board copy();
+}
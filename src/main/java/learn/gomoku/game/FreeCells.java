@@ -0,0 +1,81 @@
+package learn.gomoku.game;
+
+import java.util.Arrays;
+
+/**
+ * Set of empty cell indexes with O(1) add, remove and uniform random choice.
+ *
+ * The cells are kept packed at the front of an array and every cell knows its
+ * slot, so removing one swaps the last cell into its place.
+ */
+public class FreeCells {
+
+    private final int[] cells;
+    private final int[] slots;
+    private int size;
+
+    /**
+     * @param capacity one more than the largest cell index that will be stored
+     */
+    public FreeCells(int capacity) {
+        this.cells = new int[capacity];
+        this.slots = new int[capacity];
+        Arrays.fill(slots, -1);
+    }
+
+    /**
+     * All cells of an empty board.
+     */
+    public static FreeCells of(BitBoard board) {
+        int width = board.getWidth();
+        FreeCells free = new FreeCells(width * board.getStride());
+        for (int row = 0; row < width; row++) {
+            for (int col = 0; col < width; col++) {
+                int cell = board.index(row, col);
+                if (board.isEmpty(cell)) {
+                    free.add(cell);
+                }
+            }
+        }
+        return free;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int cell) {
+        return slots[cell] >= 0;
+    }
+
+    /**
+     * The cell in slot i, 0 <= i < size(). Slots change when cells are removed.
+     */
+    public int get(int i) {
+        return cells[i];
+    }
+
+    public void add(int cell) {
+        if (slots[cell] >= 0) {
+            return;
+        }
+        cells[size] = cell;
+        slots[cell] = size;
+        size++;
+    }
+
+    public void remove(int cell) {
+        int slot = slots[cell];
+        if (slot < 0) {
+            return;
+        }
+        int last = cells[--size];
+        cells[slot] = last;
+        slots[last] = slot;
+        slots[cell] = -1;
+    }
+}
@@ -0,0 +1,147 @@
+package learn.gomoku.game;
+
+import learn.gomoku.players.Player;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable state of a game after one move, safe to read from any thread.
+ *
+ * Snapshots share structure with each other: the moves are a persistent list where
+ * every snapshot adds one node to the list of the one before. The snapshot holds no board:
+ * the first cell read builds one from its moves, so taking a snapshot is O(1) for the game
+ * and only readers that look at cells pay O(moves), once per snapshot.
+ */
+public final class GameSnapshot {
+
+    private final Moves moves;
+    private final int width;
+    private final boolean blacksTurn;
+    private final boolean over;
+    private final Player current;
+    private final Player winner;
+    private final long hash;
+    private volatile Stone[] array;
+    private volatile Board board;
+
+    GameSnapshot(Moves moves, int width, boolean blacksTurn, boolean over,
+                 Player current, Player winner, long hash) {
+        this.moves = moves;
+        this.width = width;
+        this.blacksTurn = blacksTurn;
+        this.over = over;
+        this.current = current;
+        this.winner = winner;
+        this.hash = hash;
+    }
+
+    public int moveCount() {
+        return moves == null ? 0 : moves.size;
+    }
+
+    /**
+     * Returns the latest move, or null before the first move.
+     */
+    public Stone lastMove() {
+        return moves == null ? null : moves.stone;
+    }
+
+    /**
+     * Returns the moves in the order they were played. The list is built on first use.
+     */
+    public List<Stone> getMoves() {
+        return new MoveListView();
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns BitBoard.EMPTY, BitBoard.BLACK or BitBoard.WHITE for a cell on the board.
+     * The board is built from the moves on first use.
+     */
+    public byte getCell(int row, int column) {
+        return board().get(row, column);
+    }
+
+    public boolean isEmpty(int row, int column) {
+        return board().isEmpty(row, column);
+    }
+
+    public boolean isBlacksTurn() {
+        return blacksTurn;
+    }
+
+    public boolean isOver() {
+        return over;
+    }
+
+    public Player getCurrent() {
+        return current;
+    }
+
+    public Player getWinner() {
+        return winner;
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    // Places the moves on a board of its own, which is never changed once published
+    private Board board() {
+        Board result = board;
+        if (result == null) {
+            result = Board.create(width);
+            for (Moves node = moves; node != null; node = node.previous) {
+                result.set(node.stone.getRow(), node.stone.getColumn(), node.stone.isBlack());
+            }
+            board = result;
+        }
+        return result;
+    }
+
+    // Walks the persistent list once and keeps the moves in play order
+    private Stone[] moveArray() {
+        Stone[] result = array;
+        if (result == null) {
+            result = new Stone[moveCount()];
+            for (Moves node = moves; node != null; node = node.previous) {
+                result[node.size - 1] = node.stone;
+            }
+            array = result;
+        }
+        return result;
+    }
+
+    /**
+     * Node of the persistent move list: the latest move and the list before it.
+     */
+    static final class Moves {
+        final Stone stone;
+        final Moves previous;
+        final int size;
+
+        Moves(Stone stone, Moves previous) {
+            this.stone = stone;
+            this.previous = previous;
+            this.size = previous == null ? 1 : previous.size + 1;
+        }
+    }
+
+    private final class MoveListView extends AbstractList<Stone> implements RandomAccess {
+
+        @Override
+        public Stone get(int index) {
+            return moveArray()[index];
+        }
+
+        @Override
+        public int size() {
+            return moveCount();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package learn.gomoku.game;
 
+import learn.gomoku.event.EventBus;
+import learn.gomoku.metrics.Metrics;
 import learn.gomoku.players.Player;
 
 import java.util.ArrayList;
@@ -11,18 +13,91 @@ public class Gomoku {
 
     private final Player playerOne;
     private final Player playerTwo;
-    private final char[][] board = new char[WIDTH][WIDTH];
-
-    private ArrayList<Stone> stones = new ArrayList<>();
+    private final Player black;
+    private final int width;
+    private final Board board;
+    // Made at a player's first win and returned for any later one, after an undo
+    private Result playerOneWins;
+    private Result playerTwoWins;
+
+    private final ArrayList<Stone> stones = new ArrayList<>();
+    private final MoveHistory history;
     private boolean over;
     private Player current;
     private Player winner;
     private boolean blacksTurn = true;
+    private long hash;
+
+    // Snapshots, only kept up to date once enabled
+    private boolean snapshots;
+    private GameSnapshot.Moves moves;
+    private volatile GameSnapshot snapshot;
 
+    // Events, only published once a bus is set
+    private EventBus events;
+    private long gameId;
+
+    /**
+     * Returns a copy of the moves played so far. Prefer getMoveHistory(), which doesn't copy.
+     */
     public List<Stone> getStones() {
         return new ArrayList<>(stones);
     }
 
+    /**
+     * Returns a read-only view of the moves and the board that follows the game as it goes on.
+     */
+    public MoveHistory getMoveHistory() {
+        return history;
+    }
+
+    /**
+     * Starts publishing an immutable GameSnapshot after every place and undo.
+     * Publishing costs two small allocations per move and never copies the board, but it is
+     * still off until needed.
+     */
+    public void enableSnapshots() {
+        if (snapshots) {
+            return;
+        }
+        snapshots = true;
+        moves = null;
+        for (Stone stone : stones) {
+            moves = new GameSnapshot.Moves(stone, moves);
+        }
+        publish();
+    }
+
+    /**
+     * Returns the state as of the latest place or undo, or null if snapshots aren't enabled.
+     * Unlike the rest of this class, safe to call from any thread while the game is played.
+     */
+    public GameSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Publishes every move and the end of the game to the bus from now on, or stops with null.
+     * Publishing is lock-free and allocates nothing, and the listeners run on the bus's own
+     * thread. With Overflow.DROP they never slow down place(); with Overflow.BLOCK a full
+     * buffer makes place() wait until slow listeners catch up.
+     */
+    public void setEventBus(EventBus events) {
+        this.events = events;
+        this.gameId = events == null ? 0 : events.nextGameId();
+    }
+
+    /**
+     * The id of this game in the events of its bus, 0 without one.
+     */
+    public long getGameId() {
+        return gameId;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
     public boolean isOver() {
         return over;
     }
@@ -35,56 +110,188 @@ public class Gomoku {
         return winner;
     }
 
+    /**
+     * The player who plays black, the one who moved first.
+     */
+    public Player getBlack() {
+        return black;
+    }
+
+    public Player getWhite() {
+        return black == playerOne ? playerTwo : playerOne;
+    }
+
     public boolean isBlacksTurn() {
         return blacksTurn;
     }
 
+    /**
+     * 64-bit Zobrist hash of the stones on the board and whose turn it is.
+     * Updated incrementally, so reading it is free.
+     */
+    public long getHash() {
+        return hash;
+    }
+
     public Gomoku(Player playerOne, Player playerTwo) {
+        this(playerOne, playerTwo, Math.random() < 0.5);
+    }
+
+    /**
+     * Creates a game where the caller decides who plays black instead of leaving it to chance.
+     */
+    public Gomoku(Player playerOne, Player playerTwo, boolean playerOneFirst) {
+        this(playerOne, playerTwo, playerOneFirst, WIDTH);
+    }
+
+    /**
+     * Creates a game on a board of the given width, for example 19 for a Go board.
+     * Boards wider than Board.MAX_DENSE_WIDTH only store their stones.
+     */
+    public Gomoku(Player playerOne, Player playerTwo, boolean playerOneFirst, int width) {
         this.playerOne = playerOne;
         this.playerTwo = playerTwo;
+        this.width = width;
+        this.board = Board.create(width);
+        this.history = new MoveHistory(stones, board);
+        this.black = playerOneFirst ? playerOne : playerTwo;
 
-        if (Math.random() < 0.5) {
+        if (playerOneFirst) {
             current = playerOne;
         } else {
             current = playerTwo;
         }
     }
 
+    /**
+     * Places a stone of the player whose turn it is on the cell row * width + column.
+     * Unlike place(Stone), the caller needs no Stone. On a board of Gomoku.WIDTH the one
+     * recorded is shared, so a move allocates nothing; other widths allocate the Stone.
+     */
+    public Result place(int cell) {
+        if (cell < 0 || cell >= (long) width * width) {
+            return place((Stone) null);
+        }
+        return place(Stone.of(cell / width, cell % width, blacksTurn));
+    }
+
     public Result place(Stone stone) {
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        Result result = placeStone(stone);
+        if (snapshots && result.isSuccess()) {
+            moves = new GameSnapshot.Moves(stone, moves);
+            publish();
+        }
+        if (events != null && result.isSuccess()) {
+            publishEvents(stone);
+        }
+        if (Metrics.ENABLED) {
+            Metrics.placed(start, stone, result, over);
+        }
+        return result;
+    }
+
+    private void publishEvents(Stone stone) {
+        int count = stones.size();
+        events.publishMove(gameId, count, stone.getRow(), stone.getColumn(), stone.isBlack());
+        if (winner != null) {
+            events.publishWin(gameId, count, stone.isBlack());
+        } else if (over) {
+            events.publishDraw(gameId, count);
+        }
+    }
+
+    private Result placeStone(Stone stone) {
 
         if (isOver()) {
-            return new Result("Game is over.");
+            return Result.GAME_OVER;
         }
 
         if (!isValid(stone)) {
-            return new Result("Stone is off the board.");
+            return Result.OFF_BOARD;
         }
 
         if (blacksTurn != stone.isBlack()) {
-            return new Result("Wrong player.");
+            return Result.WRONG_PLAYER;
         }
 
-        if (board[stone.getRow()][stone.getColumn()] != 0) {
-            return new Result("Duplicate move.");
+        int row = stone.getRow();
+        int column = stone.getColumn();
+        if (!board.isEmpty(row, column)) {
+            return Result.DUPLICATE;
         }
 
-        board[stone.getRow()][stone.getColumn()] = blacksTurn ? 'B' : 'W';
+        board.set(row, column, blacksTurn);
+        hash ^= Zobrist.stone(cell(row, column), blacksTurn);
         stones.add(stone);
 
-        if (isWin(stone)) {
+        if (isWin(row, column)) {
             over = true;
             winner = current;
-            return new Result(current.getName() + " wins.", true);
+            return win();
         }
 
-        if (stones.size() == WIDTH * WIDTH) {
+        if (stones.size() == (long) width * width) {
             over = true;
-            return new Result("Game ends in a draw.", true);
+            return Result.DRAW;
         }
 
         blacksTurn = !blacksTurn;
+        hash ^= Zobrist.WHITE_TO_MOVE;
         swap();
-        return new Result(null, true);
+        return Result.MOVED;
+    }
+
+    private Result win() {
+        if (current == playerOne) {
+            if (playerOneWins == null) {
+                playerOneWins = Result.win(playerOne);
+            }
+            return playerOneWins;
+        }
+        if (playerTwoWins == null) {
+            playerTwoWins = Result.win(playerTwo);
+        }
+        return playerTwoWins;
+    }
+
+    /**
+     * Takes back the last move and restores the state from before it, including the hash,
+     * whose turn it is and, if that move ended the game, over and winner. O(1).
+     *
+     * @return the stone that was taken back, or null if no moves have been played
+     */
+    public Stone undo() {
+        if (stones.isEmpty()) {
+            return null;
+        }
+
+        Stone stone = stones.remove(stones.size() - 1);
+        int row = stone.getRow();
+        int column = stone.getColumn();
+
+        // A move that ended the game didn't pass the turn
+        if (over) {
+            over = false;
+            winner = null;
+        } else {
+            blacksTurn = !blacksTurn;
+            hash ^= Zobrist.WHITE_TO_MOVE;
+            swap();
+        }
+
+        board.clear(row, column);
+        hash ^= Zobrist.stone(cell(row, column), blacksTurn);
+
+        if (snapshots) {
+            moves = moves.previous;
+            publish();
+        }
+        return stone;
+    }
+
+    private void publish() {
+        snapshot = new GameSnapshot(moves, width, blacksTurn, over, current, winner, hash);
     }
 
     public void swap() {
@@ -93,51 +300,45 @@ public class Gomoku {
 
     private boolean isValid(Stone stone) {
         return stone != null
-                && stone.getRow() >= 0 && stone.getRow() < WIDTH
-                && stone.getColumn() >= 0 && stone.getColumn() < WIDTH;
+                && board.isOnBoard(stone.getRow(), stone.getColumn());
     }
 
-    private boolean isWin(Stone stone) {
-        char symbol = board[stone.getRow()][stone.getColumn()];
-        return isHorizontalWin(stone.getRow(), stone.getColumn(), symbol)
-                || isVerticalWin(stone.getRow(), stone.getColumn(), symbol)
-                || isDiagonalDownWin(stone.getRow(), stone.getColumn(), symbol)
-                || isDiagonalUpWin(stone.getRow(), stone.getColumn(), symbol);
+    // Cell index in the BitBoard layout, widened so that large boards don't overflow
+    private long cell(int row, int column) {
+        return (long) row * (width + 1) + column;
     }
 
-    private boolean isHorizontalWin(int row, int column, char symbol) {
-        return count(row, column, 1, 0, symbol)
-                + count(row, column, -1, 0, symbol) == 4;
+    private boolean isWin(int row, int column) {
+        return isHorizontalWin(row, column)
+                || isVerticalWin(row, column)
+                || isDiagonalDownWin(row, column)
+                || isDiagonalUpWin(row, column);
     }
 
-    private boolean isVerticalWin(int row, int column, char symbol) {
-        return count(row, column, 0, 1, symbol)
-                + count(row, column, 0, -1, symbol) == 4;
+    private boolean isHorizontalWin(int row, int column) {
+        return isFive(row, column, BitBoard.ROW);
     }
 
-    private boolean isDiagonalDownWin(int row, int column, char symbol) {
-        return count(row, column, 1, 1, symbol)
-                + count(row, column, -1, -1, symbol) == 4;
+    private boolean isVerticalWin(int row, int column) {
+        return isFive(row, column, BitBoard.COLUMN);
     }
 
-    private boolean isDiagonalUpWin(int row, int column, char symbol) {
-        return count(row, column, -1, 1, symbol)
-                + count(row, column, 1, -1, symbol) == 4;
+    private boolean isDiagonalDownWin(int row, int column) {
+        return isFive(row, column, BitBoard.DIAGONAL_DOWN);
     }
 
-    private int count(int row, int col, int deltaRow, int deltaCol, char symbol) {
-
-        int result = 0;
-        int r = row + deltaRow;
-        int c = col + deltaCol;
+    private boolean isDiagonalUpWin(int row, int column) {
+        return isFive(row, column, BitBoard.DIAGONAL_UP);
+    }
 
-        while (r >= 0 && r < WIDTH && c >= 0 && c < WIDTH && board[r][c] == symbol) {
-            result++;
-            r += deltaRow;
-            c += deltaCol;
+    // Dense boards test the line with shifts of their bitsets. A SparseBoard has none,
+    // so the cells around the move are read one by one into a PatternTable code.
+    private boolean isFive(int row, int column, int direction) {
+        if (board instanceof BitBoard) {
+            BitBoard bits = (BitBoard) board;
+            return bits.isFive(bits.index(row, column), direction);
         }
-
-        return result;
+        return PatternTable.pattern(board, row, column, direction, blacksTurn) == PatternTable.FIVE;
     }
 
 }
@@ -0,0 +1,62 @@
+package learn.gomoku.game;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read-only live view of the moves of a game and the board they made.
+ *
+ * Nothing is copied: the view reads the game's own move list and board, so it always
+ * shows the current position and every method is O(1). Players that are handed this
+ * view instead of a List can check instanceof MoveHistory and read cells directly
+ * rather than rebuilding the board from the moves.
+ *
+ * Use Gomoku.getStones() when a snapshot that doesn't change with the game is needed.
+ */
+public final class MoveHistory extends AbstractList<Stone> implements RandomAccess {
+
+    private final List<Stone> stones;
+    private final Board board;
+
+    MoveHistory(List<Stone> stones, Board board) {
+        this.stones = stones;
+        this.board = board;
+    }
+
+    @Override
+    public Stone get(int index) {
+        return stones.get(index);
+    }
+
+    @Override
+    public int size() {
+        return stones.size();
+    }
+
+    public int moveCount() {
+        return stones.size();
+    }
+
+    /**
+     * Returns the latest move, or null before the first move.
+     */
+    public Stone lastMove() {
+        return stones.isEmpty() ? null : stones.get(stones.size() - 1);
+    }
+
+    public int getWidth() {
+        return board.getWidth();
+    }
+
+    /**
+     * Returns BitBoard.EMPTY, BitBoard.BLACK or BitBoard.WHITE for a cell on the board.
+     */
+    public byte getCell(int row, int column) {
+        return board.get(row, column);
+    }
+
+    public boolean isEmpty(int row, int column) {
+        return board.isEmpty(row, column);
+    }
+}
@@ -0,0 +1,168 @@
+package learn.gomoku.game;
+
+/**
+ * Lookup table from the cells around a move on one line to the pattern the move makes there.
+ *
+ * The ten cells within REACH on both sides of the move are packed into a base-3 code,
+ * one digit per cell: EMPTY_DIGIT, OWN_DIGIT for a stone of the moving colour and
+ * BLOCKED_DIGIT for an opponent stone or a cell past the edge of the board. The move
+ * itself is not part of the code. The table holds a pattern for all 3^10 codes and is
+ * built once when the class loads.
+ *
+ * Patterns follow the rules: FIVE is exactly five in a row through the move, six or
+ * more is an OVERLINE and doesn't win. A FOUR leaves one cell that makes five, an
+ * OPEN_FOUR two or more. A THREE leaves a move that makes a four, an OPEN_THREE one
+ * that makes an open four, and TWO and OPEN_TWO one that makes a three or open three.
+ */
+public final class PatternTable {
+
+    public static final int NONE = 0;
+    public static final int TWO = 1;
+    public static final int OPEN_TWO = 2;
+    public static final int THREE = 3;
+    public static final int OPEN_THREE = 4;
+    public static final int FOUR = 5;
+    public static final int OPEN_FOUR = 6;
+    public static final int FIVE = 7;
+    public static final int OVERLINE = 8;
+    public static final int PATTERNS = 9;
+
+    public static final int EMPTY_DIGIT = 0;
+    public static final int OWN_DIGIT = 1;
+    public static final int BLOCKED_DIGIT = 2;
+
+    public static final int REACH = 5;
+    public static final int CODES = 59_049;
+
+    private static final int DIGITS = 2 * REACH;
+    private static final int[] POWERS = new int[DIGITS];
+    // Row and column steps of the BitBoard directions
+    private static final int[][] STEPS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+    private static final byte[] TABLE;
+
+    static {
+        int power = 1;
+        for (int i = 0; i < DIGITS; i++) {
+            POWERS[i] = power;
+            power *= 3;
+        }
+        TABLE = build();
+    }
+
+    private PatternTable() {
+    }
+
+    public static int pattern(int code) {
+        return TABLE[code];
+    }
+
+    /**
+     * Place value in a code of the cell offset steps from the move, -REACH to REACH but not 0.
+     */
+    public static int weight(int offset) {
+        return POWERS[offset < 0 ? offset + REACH : offset + REACH - 1];
+    }
+
+    /**
+     * Code of the cells around cell along direction, seen by the colour about to play on cell.
+     */
+    public static int code(BitBoard board, int cell, int direction, boolean isBlack) {
+        return code(board, board.row(cell), board.column(cell), direction, isBlack);
+    }
+
+    /**
+     * Code of the cells around a cell of any Board along direction, seen by the colour about to play there.
+     */
+    public static int code(Board board, int row, int col, int direction, boolean isBlack) {
+        byte own = isBlack ? BitBoard.BLACK : BitBoard.WHITE;
+        int deltaRow = STEPS[direction][0];
+        int deltaCol = STEPS[direction][1];
+        int code = 0;
+
+        for (int offset = -REACH; offset <= REACH; offset++) {
+            if (offset == 0) {
+                continue;
+            }
+            int r = row + offset * deltaRow;
+            int c = col + offset * deltaCol;
+            int digit;
+            if (!board.isOnBoard(r, c)) {
+                digit = BLOCKED_DIGIT;
+            } else {
+                byte stone = board.get(r, c);
+                digit = stone == BitBoard.EMPTY ? EMPTY_DIGIT : stone == own ? OWN_DIGIT : BLOCKED_DIGIT;
+            }
+            code += digit * weight(offset);
+        }
+        return code;
+    }
+
+    /**
+     * Pattern a stone of the colour on cell makes along direction, whether or not it is already there.
+     */
+    public static int pattern(BitBoard board, int cell, int direction, boolean isBlack) {
+        return TABLE[code(board, cell, direction, isBlack)];
+    }
+
+    public static int pattern(Board board, int row, int col, int direction, boolean isBlack) {
+        return TABLE[code(board, row, col, direction, isBlack)];
+    }
+
+    // Codes with more own stones come first when counting down, so every code only
+    // looks up codes that are already filled in.
+    private static byte[] build() {
+        byte[] table = new byte[CODES];
+        int[] digits = new int[DIGITS];
+
+        for (int code = CODES - 1; code >= 0; code--) {
+            for (int i = 0, rest = code; i < DIGITS; i++, rest /= 3) {
+                digits[i] = rest % 3;
+            }
+
+            // Own stones joined to the move on both sides, digit REACH - 1 is the cell just before it
+            int run = 1;
+            for (int i = REACH - 1; i >= 0 && digits[i] == OWN_DIGIT; i--) {
+                run++;
+            }
+            for (int i = REACH; i < DIGITS && digits[i] == OWN_DIGIT; i++) {
+                run++;
+            }
+            if (run == 5) {
+                table[code] = FIVE;
+                continue;
+            }
+            if (run > 5) {
+                table[code] = OVERLINE;
+                continue;
+            }
+
+            // Best pattern one more own stone on this line leads to
+            int fivePoints = 0;
+            int best = NONE;
+            for (int i = 0; i < DIGITS; i++) {
+                if (digits[i] != EMPTY_DIGIT) {
+                    continue;
+                }
+                int next = table[code + POWERS[i]];
+                if (next == FIVE) {
+                    fivePoints++;
+                } else if (next != OVERLINE) {
+                    best = Math.max(best, next);
+                }
+            }
+
+            if (fivePoints >= 2) {
+                table[code] = OPEN_FOUR;
+            } else if (fivePoints == 1) {
+                table[code] = FOUR;
+            } else {
+                table[code] = (byte) (best == OPEN_FOUR ? OPEN_THREE
+                        : best == FOUR ? THREE
+                        : best == OPEN_THREE ? OPEN_TWO
+                        : best == THREE ? TWO
+                        : NONE);
+            }
+        }
+        return table;
+    }
+}
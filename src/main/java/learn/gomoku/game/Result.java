@@ -1,9 +1,28 @@
 package learn.gomoku.game;
 
+import learn.gomoku.players.Player;
+
 import java.util.Objects;
 
 public class Result {
 
+    /**
+     * What happened to a move. Gomoku.place returns a shared Result for each of these but
+     * WIN, whose message names the winner and which is made once per game, so placing a
+     * stone allocates nothing until the winning move.
+     */
+    public enum Code {
+        MOVED, WIN, DRAW, GAME_OVER, OFF_BOARD, WRONG_PLAYER, DUPLICATE, OTHER
+    }
+
+    public static final Result MOVED = new Result(Code.MOVED, null, true);
+    public static final Result DRAW = new Result(Code.DRAW, "Game ends in a draw.", true);
+    public static final Result GAME_OVER = new Result(Code.GAME_OVER, "Game is over.", false);
+    public static final Result OFF_BOARD = new Result(Code.OFF_BOARD, "Stone is off the board.", false);
+    public static final Result WRONG_PLAYER = new Result(Code.WRONG_PLAYER, "Wrong player.", false);
+    public static final Result DUPLICATE = new Result(Code.DUPLICATE, "Duplicate move.", false);
+
+    private final Code code;
     private final boolean success;
     private final String message;
 
@@ -12,10 +31,27 @@ public class Result {
     }
 
     public Result(String message, boolean success) {
+        this(Code.OTHER, message, success);
+    }
+
+    private Result(Code code, String message, boolean success) {
+        this.code = code;
         this.message = message;
         this.success = success;
     }
 
+    /**
+     * The result of a winning move by the player, with the message "<name> wins.".
+     * A game makes one when the player first wins and returns it for any later win.
+     */
+    public static Result win(Player winner) {
+        return new Result(Code.WIN, winner.getName() + " wins.", true);
+    }
+
+    public Code getCode() {
+        return code;
+    }
+
     public boolean isSuccess() {
         return success;
     }
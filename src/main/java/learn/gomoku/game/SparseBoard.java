@@ -0,0 +1,149 @@
+package learn.gomoku.game;
+
+import java.util.Arrays;
+
+/**
+ * Board that only stores its stones, for boards too large to keep a bit per cell.
+ *
+ * Stones live in an open-addressing hash table keyed by row and column packed into
+ * a long, with linear probing. Removing a stone shifts the following entries of its
+ * probe run back, so the table never fills up with deleted markers. The table doubles
+ * when it is half full, so memory grows with the stones played, not with the width.
+ */
+public class SparseBoard implements Board {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final int width;
+    private long[] keys;
+    // Stone of the key in the same slot, EMPTY for a free slot
+    private byte[] stones;
+    private int mask;
+    private int count;
+
+    public SparseBoard(int width) {
+        if (width < 1) {
+            throw new IllegalArgumentException("Board width must be positive.");
+        }
+        this.width = width;
+        this.keys = new long[INITIAL_CAPACITY];
+        this.stones = new byte[INITIAL_CAPACITY];
+        this.mask = INITIAL_CAPACITY - 1;
+    }
+
+    public SparseBoard(SparseBoard other) {
+        this.width = other.width;
+        this.keys = other.keys.clone();
+        this.stones = other.stones.clone();
+        this.mask = other.mask;
+        this.count = other.count;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public boolean isOnBoard(int row, int column) {
+        return row >= 0 && row < width && column >= 0 && column < width;
+    }
+
+    @Override
+    public byte get(int row, int column) {
+        long key = key(row, column);
+        for (int i = slot(key); stones[i] != BitBoard.EMPTY; i = i + 1 & mask) {
+            if (keys[i] == key) {
+                return stones[i];
+            }
+        }
+        return BitBoard.EMPTY;
+    }
+
+    @Override
+    public void set(int row, int column, boolean isBlack) {
+        long key = key(row, column);
+        byte stone = isBlack ? BitBoard.BLACK : BitBoard.WHITE;
+        int i = slot(key);
+        while (stones[i] != BitBoard.EMPTY) {
+            if (keys[i] == key) {
+                stones[i] = stone;
+                return;
+            }
+            i = i + 1 & mask;
+        }
+        keys[i] = key;
+        stones[i] = stone;
+        if (++count * 2 > stones.length) {
+            grow();
+        }
+    }
+
+    @Override
+    public void clear(int row, int column) {
+        long key = key(row, column);
+        int i = slot(key);
+        while (stones[i] != BitBoard.EMPTY && keys[i] != key) {
+            i = i + 1 & mask;
+        }
+        if (stones[i] == BitBoard.EMPTY) {
+            return;
+        }
+        stones[i] = BitBoard.EMPTY;
+        count--;
+
+        // Move back every later entry of the run whose home slot is not between the gap and itself
+        int gap = i;
+        for (int j = gap + 1 & mask; stones[j] != BitBoard.EMPTY; j = j + 1 & mask) {
+            int home = slot(keys[j]);
+            if ((j - home & mask) >= (j - gap & mask)) {
+                keys[gap] = keys[j];
+                stones[gap] = stones[j];
+                stones[j] = BitBoard.EMPTY;
+                gap = j;
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(stones, BitBoard.EMPTY);
+        count = 0;
+    }
+
+    @Override
+    public int count() {
+        return count;
+    }
+
+    @Override
+    public SparseBoard copy() {
+        return new SparseBoard(this);
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        byte[] oldStones = stones;
+        keys = new long[oldKeys.length * 2];
+        stones = new byte[oldStones.length * 2];
+        mask = stones.length - 1;
+        for (int i = 0; i < oldStones.length; i++) {
+            if (oldStones[i] != BitBoard.EMPTY) {
+                int j = slot(oldKeys[i]);
+                while (stones[j] != BitBoard.EMPTY) {
+                    j = j + 1 & mask;
+                }
+                keys[j] = oldKeys[i];
+                stones[j] = oldStones[i];
+            }
+        }
+    }
+
+    private static long key(int row, int column) {
+        return (long) row << 32 | column & 0xFFFFFFFFL;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ h >>> 32) & mask;
+    }
+}
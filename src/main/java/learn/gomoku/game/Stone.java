@@ -2,6 +2,19 @@ package learn.gomoku.game;
 
 public class Stone {
 
+    // Every stone of a standard board, indexed by (row * WIDTH + column) * 2 + (isBlack ? 1 : 0)
+    private static final Stone[] STONES = new Stone[Gomoku.WIDTH * Gomoku.WIDTH * 2];
+
+    static {
+        for (int row = 0; row < Gomoku.WIDTH; row++) {
+            for (int column = 0; column < Gomoku.WIDTH; column++) {
+                int index = (row * Gomoku.WIDTH + column) * 2;
+                STONES[index] = new Stone(row, column, false);
+                STONES[index + 1] = new Stone(row, column, true);
+            }
+        }
+    }
+
     private final int row;
     private final int column;
     private final boolean black;
@@ -12,6 +25,18 @@ public class Stone {
         this.black = isBlack;
     }
 
+    /**
+     * Returns a shared stone for the cells of a Gomoku.WIDTH board, rows and columns 0 to 14,
+     * and a new one anywhere else. Games on other widths therefore still allocate a Stone per
+     * move outside that corner. Stones are immutable, so moves can use these instead of allocating.
+     */
+    public static Stone of(int row, int column, boolean isBlack) {
+        if (row < 0 || row >= Gomoku.WIDTH || column < 0 || column >= Gomoku.WIDTH) {
+            return new Stone(row, column, isBlack);
+        }
+        return STONES[(row * Gomoku.WIDTH + column) * 2 + (isBlack ? 1 : 0)];
+    }
+
     public int getRow() {
         return row;
     }
@@ -0,0 +1,52 @@
+package learn.gomoku.game;
+
+/**
+ * Zobrist keys for hashing positions.
+ *
+ * The hash of a position is the xor of one key per stone plus WHITE_TO_MOVE when it
+ * is white's turn, so placing or removing a stone and passing the turn are each
+ * a single xor.
+ */
+public final class Zobrist {
+
+    public static final long WHITE_TO_MOVE;
+
+    // Keys are precomputed for cell indexes of boards up to this width, larger
+    // boards fall back to mixing the cell index directly.
+    private static final int TABLE_WIDTH = 32;
+    private static final int TABLE_CELLS = TABLE_WIDTH * (TABLE_WIDTH + 1);
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+    private static final long[] KEYS = new long[TABLE_CELLS * 2];
+
+    static {
+        for (int i = 0; i < KEYS.length; i++) {
+            KEYS[i] = mix(SEED * (i + 1));
+        }
+        WHITE_TO_MOVE = mix(SEED * (KEYS.length + 1));
+    }
+
+    private Zobrist() {
+    }
+
+    public static long stone(int cell, boolean isBlack) {
+        return stone((long) cell, isBlack);
+    }
+
+    /**
+     * Key for a cell index of a board too large for int indexes, row * (width + 1) + column.
+     */
+    public static long stone(long cell, boolean isBlack) {
+        long i = (cell << 1) | (isBlack ? 0 : 1);
+        if (cell >= 0 && cell < TABLE_CELLS) {
+            return KEYS[(int) i];
+        }
+        return mix(SEED * (i + 1));
+    }
+
+    // splitmix64 finaliser
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,133 @@
+package learn.gomoku.metrics;
+
+import learn.gomoku.game.Result;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms of games, moves and engine searches, safe to update
+ * from any number of threads. Metrics.get() is the one the game and players report to.
+ */
+public class GameMetrics {
+
+    /**
+     * Reasons Gomoku.place refuses a move, as counted by reject(), by index.
+     */
+    public static final String[] REJECTIONS = {
+            "Duplicate move.", "Stone is off the board.", "Wrong player.", "Game is over.", "Other"
+    };
+
+    private final LatencyHistogram place = new LatencyHistogram();
+    private final LatencyHistogram generateMove = new LatencyHistogram();
+    private final LongAdder[] rejected = new LongAdder[REJECTIONS.length];
+    private final LongAdder games = new LongAdder();
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder playouts = new LongAdder();
+    private final long created = System.nanoTime();
+
+    public GameMetrics() {
+        for (int i = 0; i < rejected.length; i++) {
+            rejected[i] = new LongAdder();
+        }
+    }
+
+    public void recordPlace(long nanos) {
+        place.record(nanos);
+    }
+
+    public void recordGenerateMove(long nanos) {
+        generateMove.record(nanos);
+    }
+
+    /**
+     * Counts a refused move by the message of its Result.
+     */
+    public void reject(String message) {
+        rejected[rejection(message)].increment();
+    }
+
+    /**
+     * Counts a refused move by its Result, without comparing messages for the results place() returns.
+     */
+    public void reject(Result result) {
+        rejected[rejection(result)].increment();
+    }
+
+    public void gameOver() {
+        games.increment();
+    }
+
+    public void searched(long nodes) {
+        this.nodes.add(nodes);
+    }
+
+    public void playedOut(long playouts) {
+        this.playouts.add(playouts);
+    }
+
+    public LatencyHistogram getPlace() {
+        return place;
+    }
+
+    public LatencyHistogram getGenerateMove() {
+        return generateMove;
+    }
+
+    public long getRejected(int reason) {
+        return rejected[reason].sum();
+    }
+
+    public long getGames() {
+        return games.sum();
+    }
+
+    public long getNodes() {
+        return nodes.sum();
+    }
+
+    public long getPlayouts() {
+        return playouts.sum();
+    }
+
+    public MetricsSnapshot snapshot() {
+        long[] rejections = new long[rejected.length];
+        for (int i = 0; i < rejected.length; i++) {
+            rejections[i] = rejected[i].sum();
+        }
+        return new MetricsSnapshot(System.nanoTime() - created, getGames(), getNodes(), getPlayouts(), rejections,
+                MetricsSnapshot.Latency.of(place), MetricsSnapshot.Latency.of(generateMove));
+    }
+
+    static int rejection(Result result) {
+        switch (result.getCode()) {
+            case DUPLICATE:
+                return 0;
+            case OFF_BOARD:
+                return 1;
+            case WRONG_PLAYER:
+                return 2;
+            case GAME_OVER:
+                return 3;
+            default:
+                return rejection(result.getMessage());
+        }
+    }
+
+    static int rejection(String message) {
+        if (message == null) {
+            return REJECTIONS.length - 1;
+        }
+        switch (message) {
+            case "Duplicate move.":
+                return 0;
+            case "Stone is off the board.":
+                return 1;
+            case "Wrong player.":
+                return 2;
+            case "Game is over.":
+                return 3;
+            default:
+                return REJECTIONS.length - 1;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package learn.gomoku.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("learn.gomoku.GenerateMove")
+@Label("Generate Move")
+@Category("Gomoku")
+@Description("A move chosen by Player.generateMove")
+@StackTrace(false)
+final class GenerateMoveEvent extends jdk.jfr.Event {
+
+    @Label("Player")
+    String player;
+
+    @Label("Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    long latency;
+}
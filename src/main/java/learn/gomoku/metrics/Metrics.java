@@ -0,0 +1,127 @@
+package learn.gomoku.metrics;
+
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import learn.gomoku.game.Result;
+import learn.gomoku.game.Stone;
+import learn.gomoku.players.Player;
+
+import java.util.List;
+
+/**
+ * Opt-in instrumentation of the game and the players, reported to one GameMetrics.
+ *
+ * Off unless the JVM starts with -Dgomoku.metrics=true. ENABLED is a static final, so
+ * when it is off the JIT drops every "if (Metrics.ENABLED)" block from the hot paths and
+ * the hooks cost nothing. When it is on, the hooks record into lock-free counters and
+ * histograms without allocating, and also emit the JFR events learn.gomoku.Place and
+ * learn.gomoku.GenerateMove, plus learn.gomoku.Metrics every second, whenever a flight
+ * recording has them enabled. Only those events are allocated, one per recorded call,
+ * and only while a recording is on.
+ */
+public final class Metrics {
+
+    public static final boolean ENABLED = Boolean.getBoolean("gomoku.metrics");
+
+    private static final GameMetrics METRICS = new GameMetrics();
+    // Checked before creating a JFR event, so that no event is allocated unless a recording wants it
+    private static final EventType PLACE = ENABLED ? EventType.getEventType(PlaceEvent.class) : null;
+    private static final EventType GENERATE_MOVE = ENABLED ? EventType.getEventType(GenerateMoveEvent.class) : null;
+    // Last snapshot sent to JFR, only touched by the periodic event hook
+    private static MetricsSnapshot lastEvent;
+
+    static {
+        if (ENABLED) {
+            FlightRecorder.addPeriodicEvent(MetricsEvent.class, Metrics::emitMetricsEvent);
+        }
+    }
+
+    private Metrics() {
+    }
+
+    public static GameMetrics get() {
+        return METRICS;
+    }
+
+    /**
+     * Records a call of Gomoku.place that started at start, from System.nanoTime().
+     */
+    public static void placed(long start, Stone stone, Result result, boolean over) {
+        long nanos = System.nanoTime() - start;
+        METRICS.recordPlace(nanos);
+        if (!result.isSuccess()) {
+            METRICS.reject(result);
+        } else if (over) {
+            METRICS.gameOver();
+        }
+
+        if (!PLACE.isEnabled()) {
+            return;
+        }
+        PlaceEvent event = new PlaceEvent();
+        if (event.shouldCommit()) {
+            if (stone != null) {
+                event.row = stone.getRow();
+                event.column = stone.getColumn();
+                event.black = stone.isBlack();
+            }
+            event.success = result.isSuccess();
+            event.latency = nanos;
+            event.commit();
+        }
+    }
+
+    /**
+     * Calls player.generateMove, timing it when metrics are enabled.
+     */
+    public static Stone generateMove(Player player, List<Stone> moves) {
+        if (!ENABLED) {
+            return player.generateMove(moves);
+        }
+        long start = System.nanoTime();
+        Stone stone = player.generateMove(moves);
+        long nanos = System.nanoTime() - start;
+        METRICS.recordGenerateMove(nanos);
+
+        if (GENERATE_MOVE.isEnabled()) {
+            GenerateMoveEvent event = new GenerateMoveEvent();
+            if (event.shouldCommit()) {
+                event.player = player.getName();
+                event.latency = nanos;
+                event.commit();
+            }
+        }
+        return stone;
+    }
+
+    /**
+     * Adds the nodes of a finished alpha-beta or threat search.
+     */
+    public static void searched(long nodes) {
+        METRICS.searched(nodes);
+    }
+
+    /**
+     * Adds the playouts of a finished Monte Carlo search.
+     */
+    public static void playedOut(long playouts) {
+        METRICS.playedOut(playouts);
+    }
+
+    private static void emitMetricsEvent() {
+        MetricsSnapshot snapshot = METRICS.snapshot();
+        MetricsEvent event = new MetricsEvent();
+        event.games = snapshot.getGames();
+        event.gamesPerSecond = snapshot.getGamesPerSecond(lastEvent);
+        event.nodes = snapshot.getNodes();
+        event.nodesPerSecond = snapshot.getNodesPerSecond(lastEvent);
+        event.playoutsPerSecond = snapshot.getPlayoutsPerSecond(lastEvent);
+        for (int i = 0; i < GameMetrics.REJECTIONS.length; i++) {
+            event.rejected += snapshot.getRejected(i);
+        }
+        event.placeP99 = snapshot.getPlace().getP99();
+        event.generateMoveP99 = snapshot.getGenerateMove().getP99();
+        event.commit();
+        lastEvent = snapshot;
+    }
+}
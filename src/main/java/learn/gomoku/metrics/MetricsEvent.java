@@ -0,0 +1,44 @@
+package learn.gomoku.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("learn.gomoku.Metrics")
+@Label("Gomoku Metrics")
+@Category("Gomoku")
+@Description("Totals and rates of Metrics.get(), every period")
+@Period("1 s")
+@StackTrace(false)
+final class MetricsEvent extends jdk.jfr.Event {
+
+    @Label("Games")
+    long games;
+
+    @Label("Games per Second")
+    double gamesPerSecond;
+
+    @Label("Nodes")
+    long nodes;
+
+    @Label("Nodes per Second")
+    double nodesPerSecond;
+
+    @Label("Playouts per Second")
+    double playoutsPerSecond;
+
+    @Label("Rejected Moves")
+    long rejected;
+
+    @Label("Place p99")
+    @Timespan(Timespan.NANOSECONDS)
+    long placeP99;
+
+    @Label("Generate Move p99")
+    @Timespan(Timespan.NANOSECONDS)
+    long generateMoveP99;
+}
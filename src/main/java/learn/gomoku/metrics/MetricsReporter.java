@@ -0,0 +1,57 @@
+package learn.gomoku.metrics;
+
+import java.io.Closeable;
+import java.io.PrintStream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prints a snapshot of a GameMetrics every period, as text or as one JSON object per line,
+ * with the rates since the snapshot before.
+ */
+public class MetricsReporter implements Closeable {
+
+    private final GameMetrics metrics;
+    private final PrintStream out;
+    private final boolean json;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "metrics-reporter");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private MetricsSnapshot previous;
+
+    public MetricsReporter(GameMetrics metrics, PrintStream out, boolean json) {
+        this.metrics = metrics;
+        this.out = out;
+        this.json = json;
+    }
+
+    public void start(long period, TimeUnit unit) {
+        timer.scheduleAtFixedRate(this::report, period, period, unit);
+    }
+
+    /**
+     * Prints a snapshot now.
+     */
+    public synchronized void report() {
+        MetricsSnapshot snapshot = metrics.snapshot();
+        if (json) {
+            out.println(snapshot.toJson(previous));
+        } else {
+            out.print(snapshot.toText(previous));
+        }
+        out.flush();
+        previous = snapshot;
+    }
+
+    /**
+     * Stops the reports, printing a last one.
+     */
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        report();
+    }
+}
@@ -0,0 +1,168 @@
+package learn.gomoku.metrics;
+
+import java.util.Locale;
+
+/**
+ * The values of a GameMetrics at one moment. Rates are worked out against an earlier
+ * snapshot, or against the start when there is none.
+ */
+public final class MetricsSnapshot {
+
+    private final long uptimeNanos;
+    private final long games;
+    private final long nodes;
+    private final long playouts;
+    private final long[] rejected;
+    private final Latency place;
+    private final Latency generateMove;
+
+    MetricsSnapshot(long uptimeNanos, long games, long nodes, long playouts, long[] rejected,
+                    Latency place, Latency generateMove) {
+        this.uptimeNanos = uptimeNanos;
+        this.games = games;
+        this.nodes = nodes;
+        this.playouts = playouts;
+        this.rejected = rejected;
+        this.place = place;
+        this.generateMove = generateMove;
+    }
+
+    public long getUptimeNanos() {
+        return uptimeNanos;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getPlayouts() {
+        return playouts;
+    }
+
+    /**
+     * Refused moves for a reason of GameMetrics.REJECTIONS.
+     */
+    public long getRejected(int reason) {
+        return rejected[reason];
+    }
+
+    public Latency getPlace() {
+        return place;
+    }
+
+    public Latency getGenerateMove() {
+        return generateMove;
+    }
+
+    public double getGamesPerSecond(MetricsSnapshot previous) {
+        return rate(games, previous == null ? 0 : previous.games, previous);
+    }
+
+    public double getNodesPerSecond(MetricsSnapshot previous) {
+        return rate(nodes, previous == null ? 0 : previous.nodes, previous);
+    }
+
+    public double getPlayoutsPerSecond(MetricsSnapshot previous) {
+        return rate(playouts, previous == null ? 0 : previous.playouts, previous);
+    }
+
+    public String toText(MetricsSnapshot previous) {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.ROOT, "games %d (%.1f/s), nodes %d (%.0f/s), playouts %d (%.0f/s)%n",
+                games, getGamesPerSecond(previous), nodes, getNodesPerSecond(previous),
+                playouts, getPlayoutsPerSecond(previous)));
+        text.append("place ").append(place).append(System.lineSeparator());
+        text.append("generateMove ").append(generateMove).append(System.lineSeparator());
+        text.append("rejected");
+        for (int i = 0; i < rejected.length; i++) {
+            text.append(' ').append(GameMetrics.REJECTIONS[i]).append(' ').append(rejected[i]);
+        }
+        return text.append(System.lineSeparator()).toString();
+    }
+
+    public String toJson(MetricsSnapshot previous) {
+        StringBuilder json = new StringBuilder();
+        json.append(String.format(Locale.ROOT, "{\"uptimeNanos\":%d,\"games\":%d,\"gamesPerSecond\":%.3f,"
+                        + "\"nodes\":%d,\"nodesPerSecond\":%.1f,\"playouts\":%d,\"playoutsPerSecond\":%.1f,",
+                uptimeNanos, games, getGamesPerSecond(previous), nodes, getNodesPerSecond(previous),
+                playouts, getPlayoutsPerSecond(previous)));
+        json.append("\"place\":").append(place.toJson()).append(',');
+        json.append("\"generateMove\":").append(generateMove.toJson()).append(',');
+        json.append("\"rejected\":{");
+        for (int i = 0; i < rejected.length; i++) {
+            json.append(i == 0 ? "" : ",").append('"').append(GameMetrics.REJECTIONS[i]).append("\":").append(rejected[i]);
+        }
+        return json.append("}}").toString();
+    }
+
+    @Override
+    public String toString() {
+        return toText(null);
+    }
+
+    private double rate(long now, long before, MetricsSnapshot previous) {
+        long nanos = uptimeNanos - (previous == null ? 0 : previous.uptimeNanos);
+        return nanos <= 0 ? 0 : (now - before) * 1e9 / nanos;
+    }
+
+    /**
+     * Count and percentiles of a LatencyHistogram, in nanoseconds.
+     */
+    public static final class Latency {
+
+        private final long count;
+        private final long mean;
+        private final long p50;
+        private final long p99;
+        private final long max;
+
+        Latency(long count, long mean, long p50, long p99, long max) {
+            this.count = count;
+            this.mean = mean;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.max = max;
+        }
+
+        static Latency of(LatencyHistogram histogram) {
+            long count = histogram.getCount();
+            return new Latency(count, count == 0 ? 0 : histogram.getTotal() / count,
+                    histogram.percentile(0.5), histogram.percentile(0.99), histogram.getMax());
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMean() {
+            return mean;
+        }
+
+        public long getP50() {
+            return p50;
+        }
+
+        public long getP99() {
+            return p99;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        String toJson() {
+            return "{\"count\":" + count + ",\"meanNanos\":" + mean + ",\"p50Nanos\":" + p50
+                    + ",\"p99Nanos\":" + p99 + ",\"maxNanos\":" + max + "}";
+        }
+
+        @Override
+        public String toString() {
+            return "count " + count + ", mean " + mean + " ns, p50 " + p50 + " ns, p99 " + p99
+                    + " ns, max " + max + " ns";
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package learn.gomoku.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("learn.gomoku.Place")
+@Label("Place")
+@Category("Gomoku")
+@Description("A move passed to Gomoku.place")
+@StackTrace(false)
+final class PlaceEvent extends jdk.jfr.Event {
+
+    @Label("Row")
+    int row;
+
+    @Label("Column")
+    int column;
+
+    @Label("Black")
+    boolean black;
+
+    @Label("Success")
+    boolean success;
+
+    @Label("Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    long latency;
+}
@@ -0,0 +1,76 @@
+package learn.gomoku.players;
+
+import learn.gomoku.game.Stone;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves typed in by a person: asks for a row and a column and reads them from a Scanner
+ * on a thread of its own, so the caller never blocks on the console.
+ *
+ * A line that is being read when the request is cancelled or runs out of time can't be
+ * interrupted; the answer is read and thrown away. close() ends the reading thread.
+ */
+public class ConsoleMoveSource implements MoveSource {
+
+    private final Scanner console;
+    private final PrintStream out;
+    private final ExecutorService reader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "console-moves");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ConsoleMoveSource(Scanner console, PrintStream out) {
+        this.console = console;
+        this.out = out;
+    }
+
+    /**
+     * Completes with a stone of the side to move, or exceptionally with a
+     * NumberFormatException when the answer isn't a number.
+     */
+    @Override
+    public CompletableFuture<Stone> requestMove(List<Stone> moves, long deadline) {
+        boolean isBlack = moves.isEmpty() || !moves.get(moves.size() - 1).isBlack();
+        CompletableFuture<Stone> move = new CompletableFuture<>();
+        if (deadline != NO_DEADLINE) {
+            move.orTimeout(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+        try {
+            reader.execute(() -> {
+                if (move.isDone()) {
+                    return;
+                }
+                try {
+                    out.print("Enter a row: ");
+                    int row = Integer.parseInt(console.nextLine());
+                    out.print("Enter a column: ");
+                    int column = Integer.parseInt(console.nextLine());
+                    move.complete(Stone.of(row, column, isBlack));
+                } catch (RuntimeException e) {
+                    move.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            move.completeExceptionally(e);
+        }
+        return move;
+    }
+
+    /**
+     * Stops the reading thread once the request it is reading, if any, has its answer.
+     * Moves requested after this fail with a RejectedExecutionException.
+     */
+    @Override
+    public void close() {
+        reader.shutdown();
+    }
+}
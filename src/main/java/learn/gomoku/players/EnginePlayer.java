@@ -0,0 +1,41 @@
+package learn.gomoku.players;
+
+import learn.gomoku.game.Stone;
+
+import java.util.List;
+
+/**
+ * Player that computes its moves and can be told from another thread to stop, so a
+ * MoveSource can cut it off at a deadline. Engines that can use the opponent's time
+ * also ponder. Engines may hold threads of their own, which close() releases.
+ */
+public interface EnginePlayer extends Player, AutoCloseable {
+
+    /**
+     * Asks a generateMove or ponder running on another thread to return as soon as possible.
+     * A stop that comes before the work has started may be missed, so callers repeat it
+     * until the work has returned, as PlayerMoveSource does.
+     */
+    void stop();
+
+    /**
+     * Whether ponder() does anything, so that a MoveSource only spends a thread on it when it does.
+     */
+    default boolean canPonder() {
+        return false;
+    }
+
+    /**
+     * Thinks about the position after moves, with the opponent to move, until stop() is called,
+     * keeping what it finds for its own next move. Returns at once unless overridden.
+     */
+    default void ponder(List<Stone> moves) {
+    }
+
+    /**
+     * Releases the threads of the engine. It can't move after this. Does nothing unless overridden.
+     */
+    @Override
+    default void close() {
+    }
+}
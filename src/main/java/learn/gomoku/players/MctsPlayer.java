@@ -0,0 +1,167 @@
+package learn.gomoku.players;
+
+import learn.gomoku.book.OpeningBook;
+import learn.gomoku.engine.Mcts;
+import learn.gomoku.engine.MctsResult;
+import learn.gomoku.game.Board;
+import learn.gomoku.game.MoveHistory;
+import learn.gomoku.game.Stone;
+import learn.gomoku.metrics.Metrics;
+
+import java.util.List;
+
+public class MctsPlayer implements EnginePlayer {
+
+    public static final long DEFAULT_TIME_LIMIT_MILLIS = 1000;
+
+    private Mcts mcts;
+    private String name;
+    private long timeLimitMillis;
+    private long playouts;
+    private MctsResult lastResult;
+    private OpeningBook book;
+    private int bookMoves;
+
+    public MctsPlayer() {
+        this("MCTS Engine", DEFAULT_TIME_LIMIT_MILLIS, Runtime.getRuntime().availableProcessors());
+    }
+
+    public MctsPlayer(String name, long timeLimitMillis, int threads) {
+        this.name = name;
+        this.timeLimitMillis = timeLimitMillis;
+        this.mcts = new Mcts(threads);
+    }
+
+    @Override
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    public long getTimeLimitMillis() {
+        return timeLimitMillis;
+    }
+
+    /**
+     * Wall-clock budget per move, 0 for none.
+     */
+    public void setTimeLimitMillis(long timeLimitMillis) {
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    public long getPlayouts() {
+        return playouts;
+    }
+
+    /**
+     * Playouts per move over all threads, 0 for none.
+     */
+    public void setPlayouts(long playouts) {
+        this.playouts = playouts;
+    }
+
+    public int getThreads() {
+        return mcts.getThreads();
+    }
+
+    public void setThreads(int threads) {
+        if (threads != mcts.getThreads()) {
+            mcts.close();
+            mcts = new Mcts(threads, mcts.getWidth());
+        }
+    }
+
+    public OpeningBook getOpeningBook() {
+        return book;
+    }
+
+    /**
+     * Plays from the book, before any playouts, while the game is in it.
+     * Books of another width than the game are never hit. Null turns the book off.
+     */
+    public void setOpeningBook(OpeningBook book) {
+        this.book = book;
+    }
+
+    /**
+     * Number of moves this player took from its opening book so far.
+     */
+    public int getBookMoves() {
+        return bookMoves;
+    }
+
+    /**
+     * Statistics of the most recent move, including playouts per second.
+     * Null if that move came from the opening book.
+     */
+    public MctsResult getLastResult() {
+        return lastResult;
+    }
+
+    @Override
+    public Stone generateMove(List<Stone> previousMoves) {
+
+        boolean isBlack = true;
+        if (previousMoves != null && !previousMoves.isEmpty()) {
+            Stone lastMove = previousMoves.get(previousMoves.size() - 1);
+            isBlack = !lastMove.isBlack();
+        }
+
+        List<Stone> moves = previousMoves == null ? List.of() : previousMoves;
+        // Other lists carry no width, so they are played on the board of the previous game
+        if (moves instanceof MoveHistory) {
+            resize(((MoveHistory) moves).getWidth());
+        }
+
+        if (book != null) {
+            Stone move = book.lookup(moves, mcts.getWidth(), OpeningBook.DEFAULT_MIN_GAMES);
+            if (move != null) {
+                bookMoves++;
+                lastResult = null;
+                return move;
+            }
+        }
+
+        lastResult = mcts.search(moves, playouts, timeLimitMillis);
+        if (lastResult == null) {
+            return null;
+        }
+        if (Metrics.ENABLED) {
+            Metrics.playedOut(lastResult.getPlayouts());
+        }
+
+        return Stone.of(lastResult.getRow(), lastResult.getColumn(), isBlack);
+    }
+
+    /**
+     * Asks a move search running on another thread to return with the playouts run so far.
+     */
+    @Override
+    public void stop() {
+        mcts.stop();
+    }
+
+    /**
+     * Shuts down the playout threads.
+     */
+    @Override
+    public void close() {
+        mcts.close();
+    }
+
+    private void resize(int width) {
+        if (width == mcts.getWidth()) {
+            return;
+        }
+        if (width > Board.MAX_DENSE_WIDTH) {
+            throw new IllegalArgumentException(name + " can only play on boards up to "
+                    + Board.MAX_DENSE_WIDTH + " wide.");
+        }
+        mcts.close();
+        mcts = new Mcts(mcts.getThreads(), width);
+    }
+}
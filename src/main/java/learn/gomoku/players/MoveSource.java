@@ -0,0 +1,70 @@
+package learn.gomoku.players;
+
+import learn.gomoku.game.Stone;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Asynchronous source of the moves of one side of a game: an engine, a person at the
+ * console or a client over the network.
+ *
+ * requestMove returns at once. The future completes with the move, or exceptionally with
+ * a TimeoutException when the deadline passes first. Cancelling the future, or the
+ * deadline passing, tells the source to stop working on the move as soon as it can.
+ * The moves handed in must not change until the future completes.
+ *
+ * opponentThinking is called when the other side starts on its move, so a source can
+ * use the time, for example an engine that searches the position ahead and keeps the
+ * results in its transposition table for its own turn.
+ */
+public interface MoveSource extends AutoCloseable {
+
+    /**
+     * Deadline of a request without a time limit.
+     */
+    long NO_DEADLINE = Long.MAX_VALUE;
+
+    /**
+     * @param moves     the moves so far; the new stone is for the side whose turn it is
+     * @param deadline  System.nanoTime() by which the move is needed, or NO_DEADLINE
+     */
+    CompletableFuture<Stone> requestMove(List<Stone> moves, long deadline);
+
+    /**
+     * The opponent is thinking about its move after moves. Does nothing unless overridden.
+     */
+    default void opponentThinking(List<Stone> moves) {
+    }
+
+    /**
+     * Stops any work the source still does for the game, such as pondering. Does nothing unless overridden.
+     */
+    @Override
+    default void close() {
+    }
+
+    /**
+     * Source of the moves of an existing Player, computed on the executor.
+     */
+    static MoveSource of(Player player, Executor executor) {
+        return new PlayerMoveSource(player, executor);
+    }
+
+    /**
+     * Waits for a requested move, for callers that have nothing else to do meanwhile.
+     * A RuntimeException of the source is thrown as it is instead of wrapped.
+     */
+    static Stone await(CompletableFuture<Stone> move) {
+        try {
+            return move.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package learn.gomoku.players;
+
+import learn.gomoku.game.Stone;
+import learn.gomoku.metrics.Metrics;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Adapter that runs a blocking Player.generateMove on an executor, so every existing
+ * Player works as a MoveSource. Pass Runnable::run as the executor to compute moves on
+ * the calling thread.
+ *
+ * An EnginePlayer is stopped when its request is cancelled or times out. Engines start
+ * every search afresh and miss a stop that comes just before, so the stop is repeated
+ * until generateMove has returned. An engine that can ponder also thinks while the
+ * opponent does: it searches the position on the executor without a time limit, and its
+ * own next request stops that search before starting. A SearchPlayer keeps the pondered
+ * results in its transposition table, where the move search starts from them. Other players only run when asked for a move. Pondering takes
+ * a thread of the executor for the whole turn of the opponent, so it needs an executor
+ * with threads to spare. The source owns an EnginePlayer: closing it closes the engine.
+ */
+public class PlayerMoveSource implements MoveSource {
+
+    private final Player player;
+    private final Executor executor;
+    // Held while the player works, since a stopped search may still be returning when the next one starts
+    private final Object thinking = new Object();
+    // Pondering search of the player, done when there is none
+    private CompletableFuture<Void> pondering = CompletableFuture.completedFuture(null);
+
+    public PlayerMoveSource(Player player, Executor executor) {
+        this.player = player;
+        this.executor = executor;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    @Override
+    public CompletableFuture<Stone> requestMove(List<Stone> moves, long deadline) {
+        CompletableFuture<Stone> move = new CompletableFuture<>();
+        Running running = new Running();
+        if (deadline != NO_DEADLINE) {
+            move.orTimeout(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+        if (player instanceof EnginePlayer) {
+            EnginePlayer engine = (EnginePlayer) player;
+            move.whenComplete((stone, error) -> {
+                if (error != null) {
+                    stopWhileRunning(engine, running);
+                }
+            });
+        }
+
+        try {
+            executor.execute(() -> {
+                stopPondering();
+                synchronized (thinking) {
+                    running.start();
+                    try {
+                        // Cancelled or out of time before it started
+                        if (!move.isDone()) {
+                            move.complete(Metrics.generateMove(player, moves));
+                        }
+                    } catch (RuntimeException e) {
+                        move.completeExceptionally(e);
+                    } finally {
+                        running.finish();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            move.completeExceptionally(e);
+        }
+        return move;
+    }
+
+    @Override
+    public void opponentThinking(List<Stone> moves) {
+        if (!(player instanceof EnginePlayer) || !((EnginePlayer) player).canPonder()) {
+            return;
+        }
+        EnginePlayer engine = (EnginePlayer) player;
+        // The game goes on while the engine ponders, so it gets a copy of the moves. The copy
+        // has no width, so the engine ponders on the board of the game it just moved in.
+        List<Stone> position = List.copyOf(moves);
+        synchronized (this) {
+            stopPondering();
+            try {
+                pondering = CompletableFuture.runAsync(() -> {
+                    synchronized (thinking) {
+                        engine.ponder(position);
+                    }
+                }, executor);
+            } catch (RejectedExecutionException e) {
+                pondering = CompletableFuture.completedFuture(null);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        stopPondering();
+        if (player instanceof EnginePlayer) {
+            ((EnginePlayer) player).close();
+        }
+    }
+
+    // Stops the engine every millisecond while the request runs it, on the timer of CompletableFuture
+    // rather than a thread of the executor
+    private static void stopWhileRunning(EnginePlayer engine, Running running) {
+        if (running.stop(engine)) {
+            CompletableFuture.delayedExecutor(1, TimeUnit.MILLISECONDS)
+                    .execute(() -> stopWhileRunning(engine, running));
+        }
+    }
+
+    // Stops the pondering search and waits for it. A stop that comes before the search has
+    // started is missed by the engine, so it is repeated until the search returns.
+    private synchronized void stopPondering() {
+        while (!pondering.isDone()) {
+            // Only an EnginePlayer ever ponders
+            ((EnginePlayer) player).stop();
+            try {
+                pondering.get(1, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException | ExecutionException e) {
+                // Checked again by the loop
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Whether a request runs the player. A request that hasn't started yet needs no stop: it
+     * only starts after its future is done, sees that and returns. The lock keeps a late stop
+     * from reaching the next request.
+     */
+    private static final class Running {
+        private boolean started;
+        private boolean finished;
+
+        synchronized void start() {
+            started = true;
+        }
+
+        synchronized void finish() {
+            finished = true;
+        }
+
+        // Stops the engine if the request runs it, false once there is nothing left to stop
+        synchronized boolean stop(EnginePlayer engine) {
+            if (!started || finished) {
+                return false;
+            }
+            engine.stop();
+            return true;
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package learn.gomoku.players;
 
+import learn.gomoku.game.BitBoard;
+import learn.gomoku.game.Board;
+import learn.gomoku.game.FreeCells;
 import learn.gomoku.game.Gomoku;
+import learn.gomoku.game.MoveHistory;
 import learn.gomoku.game.Stone;
 
 import java.util.List;
@@ -23,8 +27,15 @@ public class RandomPlayer implements Player {
             "Humbug", "Cauliflower", "Shoes", "Hopeless", "Zombie", "Monster", "Fuzzy"};
 
     private final Random random = new Random();
+    private BitBoard layout = new BitBoard(Gomoku.WIDTH);
     private String name;
 
+    // Empty cells of the game being played, kept in step with previousMoves
+    private FreeCells free = FreeCells.of(layout);
+    private int seen;
+    private int firstCell = -1;
+    private int lastCell = -1;
+
     public RandomPlayer() {
         name = String.format("%s %s %s",
                 titles[random.nextInt(titles.length)],
@@ -43,6 +54,17 @@ public class RandomPlayer implements Player {
         return name;
     }
 
+    /**
+     * Picks a uniformly random empty cell, so every move is legal on the first try.
+     * Only the moves added since the previous call are looked at, which makes a move O(1)
+     * when the player is called once per turn of the same game, whether with its MoveHistory
+     * or a copy. A list that is shorter, or doesn't start and end its known part with the
+     * moves seen last time, is taken for a new game and read from the start.
+     *
+     * The board width is taken from a MoveHistory and is Gomoku.WIDTH for any other list.
+     * Boards too large for a free-cell set draw random cells until one is empty, which
+     * takes very few tries since such boards are almost empty.
+     */
     @Override
     public Stone generateMove(List<Stone> previousMoves) {
 
@@ -52,11 +74,81 @@ public class RandomPlayer implements Player {
             isBlack = !lastMove.isBlack();
         }
 
-        return new Stone(
-                random.nextInt(Gomoku.WIDTH),
-                random.nextInt(Gomoku.WIDTH),
-                isBlack);
+        if (previousMoves instanceof MoveHistory) {
+            MoveHistory history = (MoveHistory) previousMoves;
+            if (history.getWidth() > Board.MAX_DENSE_WIDTH) {
+                return sparseMove(history, isBlack);
+            }
+            resize(history.getWidth());
+        } else {
+            resize(Gomoku.WIDTH);
+        }
+
+        sync(previousMoves == null ? List.of() : previousMoves);
+        if (free.isEmpty()) {
+            return null;
+        }
+
+        int cell = free.get(random.nextInt(free.size()));
+        return Stone.of(layout.row(cell), layout.column(cell), isBlack);
     }
 
+    private Stone sparseMove(MoveHistory history, boolean isBlack) {
+        int width = history.getWidth();
+        if (history.moveCount() >= (long) width * width) {
+            return null;
+        }
+        int row;
+        int column;
+        do {
+            row = random.nextInt(width);
+            column = random.nextInt(width);
+        } while (!history.isEmpty(row, column));
+        return Stone.of(row, column, isBlack);
+    }
 
+    /**
+     * Forgets the game followed so far, so the next move reads its list from the start.
+     * Callers that switch one player between games call this, since another game that
+     * starts and ends like the last one seen would pass for it.
+     */
+    public void reset() {
+        free = FreeCells.of(layout);
+        seen = 0;
+        firstCell = -1;
+        lastCell = -1;
+    }
+
+    private void resize(int width) {
+        if (layout.getWidth() != width) {
+            layout = new BitBoard(width);
+            reset();
+        }
+    }
+
+    // Removes the cells of new moves from the free set, starting over when the moves belong to another game.
+    private void sync(List<Stone> moves) {
+        int size = moves.size();
+        if (size < seen || seen > 0
+                && (cellOf(moves.get(0)) != firstCell || cellOf(moves.get(seen - 1)) != lastCell)) {
+            reset();
+        }
+
+        for (int i = seen; i < size; i++) {
+            int cell = cellOf(moves.get(i));
+            if (cell >= 0) {
+                free.remove(cell);
+            }
+        }
+        seen = size;
+        firstCell = size > 0 ? cellOf(moves.get(0)) : -1;
+        lastCell = size > 0 ? cellOf(moves.get(size - 1)) : -1;
+    }
+
+    private int cellOf(Stone stone) {
+        if (!layout.isOnBoard(stone.getRow(), stone.getColumn())) {
+            return -1;
+        }
+        return layout.index(stone.getRow(), stone.getColumn());
+    }
 }
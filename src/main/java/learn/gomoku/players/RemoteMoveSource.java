@@ -0,0 +1,58 @@
+package learn.gomoku.players;
+
+import learn.gomoku.game.Stone;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Moves that arrive from elsewhere, such as a client of a GameServer. A request calls
+ * the onRequest hook, for example to tell the client it is its turn, and waits for
+ * whoever receives the client's move to offer() it.
+ */
+public class RemoteMoveSource implements MoveSource {
+
+    private final Consumer<List<Stone>> onRequest;
+    private CompletableFuture<Stone> pending;
+
+    public RemoteMoveSource(Consumer<List<Stone>> onRequest) {
+        this.onRequest = onRequest;
+    }
+
+    @Override
+    public CompletableFuture<Stone> requestMove(List<Stone> moves, long deadline) {
+        CompletableFuture<Stone> move = new CompletableFuture<>();
+        if (deadline != NO_DEADLINE) {
+            move.orTimeout(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+        synchronized (this) {
+            pending = move;
+        }
+        onRequest.accept(moves);
+        return move;
+    }
+
+    /**
+     * Completes the request that is waiting with stone.
+     *
+     * @return false if no request was waiting, for example a move out of turn
+     */
+    public boolean offer(Stone stone) {
+        CompletableFuture<Stone> move;
+        synchronized (this) {
+            move = pending;
+            pending = null;
+        }
+        // Completed outside the lock, since it runs the code waiting for the move
+        return move != null && move.complete(stone);
+    }
+
+    /**
+     * True while a request waits for a move.
+     */
+    public synchronized boolean isWaiting() {
+        return pending != null && !pending.isDone();
+    }
+}
@@ -0,0 +1,269 @@
+package learn.gomoku.players;
+
+import learn.gomoku.book.OpeningBook;
+import learn.gomoku.engine.ParallelSearch;
+import learn.gomoku.engine.Search;
+import learn.gomoku.engine.SearchResult;
+import learn.gomoku.engine.ThreatSolver;
+import learn.gomoku.engine.TranspositionTable;
+import learn.gomoku.game.Board;
+import learn.gomoku.game.MoveHistory;
+import learn.gomoku.game.Stone;
+import learn.gomoku.metrics.Metrics;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+public class SearchPlayer implements EnginePlayer {
+
+    public static final long DEFAULT_TIME_LIMIT_MILLIS = 1000;
+
+    private ParallelSearch search;
+    private ThreatSolver solver;
+    private boolean threatCheck = true;
+    private String name;
+    private long timeLimitMillis;
+    private long nodeLimit;
+    private int maxDepth = Search.MAX_PLY;
+    private SearchResult lastResult;
+    private OpeningBook book;
+    private int bookMoves;
+
+    public SearchPlayer() {
+        this("Search Engine", DEFAULT_TIME_LIMIT_MILLIS);
+    }
+
+    public SearchPlayer(String name, long timeLimitMillis) {
+        this(name, timeLimitMillis, 1);
+    }
+
+    public SearchPlayer(String name, long timeLimitMillis, int threads) {
+        this.name = name;
+        this.timeLimitMillis = timeLimitMillis;
+        this.search = new ParallelSearch(threads);
+        this.solver = new ThreatSolver(search.getWidth());
+    }
+
+    @Override
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    public long getTimeLimitMillis() {
+        return timeLimitMillis;
+    }
+
+    /**
+     * Wall-clock budget per move, 0 for none.
+     */
+    public void setTimeLimitMillis(long timeLimitMillis) {
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    public long getNodeLimit() {
+        return nodeLimit;
+    }
+
+    /**
+     * Node budget per move, 0 for none.
+     */
+    public void setNodeLimit(long nodeLimit) {
+        this.nodeLimit = nodeLimit;
+    }
+
+    public int getThreads() {
+        return search.getThreads();
+    }
+
+    /**
+     * Number of threads searching each move. More than one runs a Lazy SMP search
+     * where the threads share one transposition table.
+     */
+    public void setThreads(int threads) {
+        if (threads != search.getThreads()) {
+            search.close();
+            search = new ParallelSearch(threads, search.getTable(), search.getWidth());
+        }
+    }
+
+    public TranspositionTable getTable() {
+        return search.getTable();
+    }
+
+    /**
+     * Replaces the transposition table, for example with one opened on a file with
+     * TranspositionTable.open() so the analysis carries over to later runs. One table
+     * can be shared by several players.
+     */
+    public void setTable(TranspositionTable table) {
+        search.close();
+        search = new ParallelSearch(search.getThreads(), table, search.getWidth());
+    }
+
+    /**
+     * Replaces the transposition table with one opened on a file, see TranspositionTable.open().
+     */
+    public void openTable(Path path, int megabytes) throws IOException {
+        setTable(TranspositionTable.open(path, megabytes));
+    }
+
+    public boolean isThreatCheck() {
+        return threatCheck;
+    }
+
+    /**
+     * When on, every move first looks for a win by continuous fours and plays it
+     * without running the full search.
+     */
+    public void setThreatCheck(boolean threatCheck) {
+        this.threatCheck = threatCheck;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    public OpeningBook getOpeningBook() {
+        return book;
+    }
+
+    /**
+     * Plays from the book, before any threat check or search, while the game is in it.
+     * Books of another width than the game are never hit. Null turns the book off.
+     */
+    public void setOpeningBook(OpeningBook book) {
+        this.book = book;
+    }
+
+    /**
+     * Number of moves this player took from its opening book so far.
+     */
+    public int getBookMoves() {
+        return bookMoves;
+    }
+
+    /**
+     * Statistics of the most recent move, including nodes searched per second.
+     * Null if that move came from the opening book.
+     */
+    public SearchResult getLastResult() {
+        return lastResult;
+    }
+
+    @Override
+    public Stone generateMove(List<Stone> previousMoves) {
+
+        boolean isBlack = true;
+        if (previousMoves != null && !previousMoves.isEmpty()) {
+            Stone lastMove = previousMoves.get(previousMoves.size() - 1);
+            isBlack = !lastMove.isBlack();
+        }
+
+        List<Stone> moves = previousMoves == null ? List.of() : previousMoves;
+        resize(moves);
+
+        if (book != null) {
+            Stone move = book.lookup(moves, search.getWidth(), OpeningBook.DEFAULT_MIN_GAMES);
+            if (move != null) {
+                bookMoves++;
+                lastResult = null;
+                return move;
+            }
+        }
+
+        if (threatCheck) {
+            long start = System.nanoTime();
+            solver.setPosition(moves);
+            List<Stone> win = solver.solveVcf();
+            if (!win.isEmpty()) {
+                Stone first = win.get(0);
+                lastResult = new SearchResult(first.getRow(), first.getColumn(), Search.WIN - win.size(), 0,
+                        solver.getNodes(), System.nanoTime() - start);
+                if (Metrics.ENABLED) {
+                    Metrics.searched(solver.getNodes());
+                }
+                return Stone.of(first.getRow(), first.getColumn(), isBlack);
+            }
+        }
+
+        search.setPosition(moves);
+        lastResult = search.search(timeLimitMillis, nodeLimit, maxDepth);
+        if (lastResult == null) {
+            return null;
+        }
+        if (Metrics.ENABLED) {
+            Metrics.searched(lastResult.getNodes());
+        }
+
+        return Stone.of(lastResult.getRow(), lastResult.getColumn(), isBlack);
+    }
+
+    @Override
+    public boolean canPonder() {
+        return true;
+    }
+
+    /**
+     * Searches the position after moves, with the opponent to move, until stop() is called or
+     * the search ends on its own. The result is thrown away but stays in the transposition
+     * table, where the next move search finds it.
+     */
+    @Override
+    public void ponder(List<Stone> moves) {
+        resize(moves);
+        search.setPosition(moves);
+        SearchResult result = search.search(0, 0, maxDepth);
+        if (Metrics.ENABLED && result != null) {
+            Metrics.searched(result.getNodes());
+        }
+    }
+
+    /**
+     * Asks a search running on another thread, for a move or pondering, to return as soon as possible.
+     */
+    @Override
+    public void stop() {
+        search.stop();
+    }
+
+    /**
+     * Shuts down the helper threads of the search. The transposition table is left alone,
+     * since other players may share it.
+     */
+    @Override
+    public void close() {
+        search.close();
+    }
+
+    // The width of the game a MoveHistory belongs to. Other lists carry no width, so they are
+    // played on the board of the previous game, Gomoku.WIDTH until there has been one.
+    private void resize(List<Stone> moves) {
+        if (moves instanceof MoveHistory) {
+            resize(((MoveHistory) moves).getWidth());
+        }
+    }
+
+    // Rebuilds the engines for a game on a board of another width, keeping the table
+    private void resize(int width) {
+        if (width == search.getWidth()) {
+            return;
+        }
+        if (width > Board.MAX_DENSE_WIDTH) {
+            throw new IllegalArgumentException(name + " can only play on boards up to "
+                    + Board.MAX_DENSE_WIDTH + " wide.");
+        }
+        search.close();
+        search = new ParallelSearch(search.getThreads(), search.getTable(), width);
+        solver = new ThreatSolver(width);
+    }
+}
@@ -0,0 +1,131 @@
+package learn.gomoku.record;
+
+import learn.gomoku.game.BitBoard;
+import learn.gomoku.game.Gomoku;
+import learn.gomoku.game.Stone;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A game as stored in a record file: the names of both players, how the game ended
+ * and its moves as cell indexes, row * width + column. Black moves first and the
+ * colours alternate, so the moves don't store their colour.
+ */
+public final class GameRecord {
+
+    public static final int UNFINISHED = 0;
+    public static final int WIN = 1;
+    public static final int DRAW = 2;
+
+    private final int width;
+    private final String blackName;
+    private final String whiteName;
+    private final int result;
+    private final byte winner;
+    private final int[] cells;
+
+    GameRecord(int width, String blackName, String whiteName, int result, byte winner, int[] cells) {
+        this.width = width;
+        this.blackName = blackName;
+        this.whiteName = whiteName;
+        this.result = result;
+        this.winner = winner;
+        this.cells = cells;
+    }
+
+    /**
+     * Converts a list of moves, as returned by Gomoku.getStones(), to a record.
+     *
+     * @param result  UNFINISHED, WIN or DRAW
+     * @param winner  BitBoard.BLACK or BitBoard.WHITE for a WIN, BitBoard.EMPTY otherwise
+     */
+    public static GameRecord fromStones(List<Stone> stones, int width, String blackName, String whiteName,
+                                        int result, byte winner) {
+        if (width < 1 || width > GameRecordWriter.MAX_WIDTH) {
+            throw new IllegalArgumentException("Game records are limited to boards up to "
+                    + GameRecordWriter.MAX_WIDTH + " wide.");
+        }
+        if (result < UNFINISHED || result > DRAW || (result == WIN) == (winner == BitBoard.EMPTY)) {
+            throw new IllegalArgumentException("Only won games have a winner.");
+        }
+        int[] cells = new int[stones.size()];
+        for (int i = 0; i < cells.length; i++) {
+            Stone stone = stones.get(i);
+            if (stone.isBlack() != (i % 2 == 0)) {
+                throw new IllegalArgumentException("Move " + (i + 1) + " is played by the wrong colour.");
+            }
+            if (stone.getRow() < 0 || stone.getRow() >= width
+                    || stone.getColumn() < 0 || stone.getColumn() >= width) {
+                throw new IllegalArgumentException("Move " + (i + 1) + " is off the board.");
+            }
+            cells[i] = stone.getRow() * width + stone.getColumn();
+        }
+        return new GameRecord(width, blackName, whiteName, result, winner, cells);
+    }
+
+    /**
+     * Records a game as it stands. The last move of a won game is the winning one.
+     */
+    public static GameRecord of(Gomoku game) {
+        List<Stone> moves = game.getMoveHistory();
+        int result = !game.isOver() ? UNFINISHED : game.getWinner() == null ? DRAW : WIN;
+        byte winner = result != WIN ? BitBoard.EMPTY
+                : moves.get(moves.size() - 1).isBlack() ? BitBoard.BLACK : BitBoard.WHITE;
+        return fromStones(moves, game.getWidth(), game.getBlack().getName(), game.getWhite().getName(),
+                result, winner);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public String getBlackName() {
+        return blackName;
+    }
+
+    public String getWhiteName() {
+        return whiteName;
+    }
+
+    /**
+     * UNFINISHED, WIN or DRAW.
+     */
+    public int getResult() {
+        return result;
+    }
+
+    /**
+     * BitBoard.BLACK or BitBoard.WHITE for a won game, BitBoard.EMPTY otherwise.
+     */
+    public byte getWinner() {
+        return winner;
+    }
+
+    public int getMoveCount() {
+        return cells.length;
+    }
+
+    /**
+     * Cell index of a move, row * width + column.
+     */
+    public int getCell(int move) {
+        return cells[move];
+    }
+
+    public int getRow(int move) {
+        return cells[move] / width;
+    }
+
+    public int getColumn(int move) {
+        return cells[move] % width;
+    }
+
+    public List<Stone> toStones() {
+        List<Stone> stones = new ArrayList<>(cells.length);
+        for (int i = 0; i < cells.length; i++) {
+            stones.add(Stone.of(getRow(i), getColumn(i), i % 2 == 0));
+        }
+        return stones;
+    }
+}
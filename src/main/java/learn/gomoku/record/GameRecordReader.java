@@ -0,0 +1,148 @@
+package learn.gomoku.record;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams game records from a channel, one game at a time, in the format written
+ * by GameRecordWriter. The channel is read in large blocks into a direct buffer, so
+ * memory use doesn't depend on the size of the file.
+ */
+public class GameRecordReader implements Closeable {
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final ReadableByteChannel channel;
+    private final int width;
+    private final int moveBytes;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private boolean endOfStream;
+
+    public GameRecordReader(ReadableByteChannel channel) throws IOException {
+        this.channel = channel;
+        buffer.flip();
+        if (!fill(GameRecordWriter.HEADER_BYTES)) {
+            throw new IOException("Not a game record file.");
+        }
+        this.width = header(buffer);
+        this.moveBytes = GameRecordWriter.moveBytes(width);
+    }
+
+    public static GameRecordReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new GameRecordReader(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the next game, or null at the end of the stream.
+     */
+    public GameRecord next() throws IOException {
+        if (!fill(6)) {
+            if (buffer.hasRemaining()) {
+                throw new EOFException("Truncated game record.");
+            }
+            return null;
+        }
+        // Filling the buffer moves its contents, so offsets are taken from the position each time
+        int moves = buffer.getShort(buffer.position()) & 0xFFFF;
+        int blackLength = buffer.get(buffer.position() + 4) & 0xFF;
+        require(6 + blackLength);
+        int whiteLength = buffer.get(buffer.position() + 5 + blackLength) & 0xFF;
+        require(6 + blackLength + whiteLength + moves * moveBytes);
+
+        buffer.getShort();
+        int result = buffer.get();
+        byte winner = buffer.get();
+        String black = name(buffer.get() & 0xFF);
+        String white = name(buffer.get() & 0xFF);
+        int[] cells = new int[moves];
+        if (moveBytes == 1) {
+            for (int i = 0; i < moves; i++) {
+                cells[i] = buffer.get() & 0xFF;
+            }
+        } else {
+            for (int i = 0; i < moves; i++) {
+                cells[i] = buffer.getShort() & 0xFFFF;
+            }
+        }
+        return new GameRecord(width, black, white, result, winner, cells);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reads and checks the header at the start of a file, returning the board width.
+     */
+    static int readHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(GameRecordWriter.HEADER_BYTES);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                throw new IOException("Not a game record file.");
+            }
+        }
+        header.flip();
+        return header(header);
+    }
+
+    private static int header(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != GameRecordWriter.MAGIC) {
+            throw new IOException("Not a game record file.");
+        }
+        short version = buffer.getShort();
+        if (version != GameRecordWriter.VERSION) {
+            throw new IOException("Unsupported game record version " + version + ".");
+        }
+        return buffer.getShort();
+    }
+
+    private void require(int bytes) throws IOException {
+        if (!fill(bytes)) {
+            throw new EOFException("Truncated game record.");
+        }
+    }
+
+    // Makes at least bytes readable in the buffer, false if the stream ends first
+    private boolean fill(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return true;
+        }
+        if (buffer.capacity() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(bytes, buffer.capacity() * 2));
+            larger.put(buffer).flip();
+            buffer = larger;
+        }
+        buffer.compact();
+        while (buffer.position() < bytes && !endOfStream) {
+            if (channel.read(buffer) < 0) {
+                endOfStream = true;
+            }
+        }
+        buffer.flip();
+        return buffer.remaining() >= bytes;
+    }
+
+    private String name(int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
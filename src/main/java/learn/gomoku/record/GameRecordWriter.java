@@ -0,0 +1,170 @@
+package learn.gomoku.record;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams game records to a channel in the binary record format.
+ *
+ * A file is a header followed by records, all big-endian:
+ *
+ *   header  int magic, short version, short board width
+ *   record  short move count, byte result, byte winner,
+ *           byte length and UTF-8 bytes of the black name, the same for the white name,
+ *           one cell index per move
+ *
+ * A cell index takes one byte on boards of up to 256 cells, such as 15 by 15, and two
+ * bytes on larger boards. Records are collected in a direct buffer and written out when
+ * it fills up, so the cost per game is a few puts. write() is synchronized, so the
+ * threads of a tournament can share a writer.
+ */
+public class GameRecordWriter implements Closeable {
+
+    public static final int MAX_WIDTH = 255;
+
+    static final int MAGIC = 0x474D4B52;
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 8;
+    static final int MAX_NAME_BYTES = 255;
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final WritableByteChannel channel;
+    private final int width;
+    private final int moveBytes;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private long games;
+
+    /**
+     * Starts a new record stream on channel by writing the header.
+     */
+    public GameRecordWriter(WritableByteChannel channel, int width) throws IOException {
+        this(channel, width, true);
+    }
+
+    private GameRecordWriter(WritableByteChannel channel, int width, boolean header) throws IOException {
+        if (width < 1 || width > MAX_WIDTH) {
+            throw new IllegalArgumentException("Game records are limited to boards up to " + MAX_WIDTH + " wide.");
+        }
+        this.channel = channel;
+        this.width = width;
+        this.moveBytes = moveBytes(width);
+        if (header) {
+            buffer.putInt(MAGIC).putShort(VERSION).putShort((short) width);
+        }
+    }
+
+    /**
+     * Opens a record file for appending, creating it if needed. An existing file must
+     * hold games on a board of the same width.
+     */
+    public static GameRecordWriter open(Path path, int width) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                return new GameRecordWriter(channel, width, true);
+            }
+            int existing = GameRecordReader.readHeader(channel);
+            if (existing != width) {
+                throw new IOException(path + " holds games on a " + existing + " wide board.");
+            }
+            channel.position(channel.size());
+            return new GameRecordWriter(channel, width, false);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Number of games written by this writer.
+     */
+    public synchronized long getGames() {
+        return games;
+    }
+
+    public synchronized void write(GameRecord record) throws IOException {
+        if (record.getWidth() != width) {
+            throw new IllegalArgumentException("Game is on a " + record.getWidth()
+                    + " wide board, the records are " + width + " wide.");
+        }
+        byte[] black = name(record.getBlackName());
+        byte[] white = name(record.getWhiteName());
+        int moves = record.getMoveCount();
+        int bytes = 6 + black.length + white.length + moves * moveBytes;
+        if (buffer.remaining() < bytes) {
+            drain();
+            if (buffer.capacity() < bytes) {
+                buffer = ByteBuffer.allocateDirect(bytes);
+            }
+        }
+
+        buffer.putShort((short) moves)
+                .put((byte) record.getResult())
+                .put(record.getWinner())
+                .put((byte) black.length).put(black)
+                .put((byte) white.length).put(white);
+        if (moveBytes == 1) {
+            for (int i = 0; i < moves; i++) {
+                buffer.put((byte) record.getCell(i));
+            }
+        } else {
+            for (int i = 0; i < moves; i++) {
+                buffer.putShort((short) record.getCell(i));
+            }
+        }
+        games++;
+    }
+
+    /**
+     * Writes out the buffered records.
+     */
+    public synchronized void flush() throws IOException {
+        drain();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+
+    static int moveBytes(int width) {
+        return width * width <= 256 ? 1 : 2;
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // UTF-8 bytes of the name, cut to whole characters that fit in MAX_NAME_BYTES
+    private static byte[] name(String name) {
+        if (name == null) {
+            return new byte[0];
+        }
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        while (bytes.length > MAX_NAME_BYTES) {
+            name = name.substring(0, name.length() - 1);
+            bytes = name.getBytes(StandardCharsets.UTF_8);
+        }
+        return bytes;
+    }
+}
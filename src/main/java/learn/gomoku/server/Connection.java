@@ -0,0 +1,71 @@
+package learn.gomoku.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+
+/**
+ * A client of the GameServer: its channel, a buffer of the line being received and
+ * the lines waiting to be sent. Only the selector thread touches it.
+ */
+class Connection {
+
+    static final int MAX_LINE = 256;
+    // A client that doesn't read its updates is dropped rather than buffered without end
+    static final int MAX_PENDING = 1024;
+
+    final SocketChannel channel;
+    final SelectionKey key;
+    final ByteBuffer input = ByteBuffer.allocate(MAX_LINE);
+    private final ArrayDeque<ByteBuffer> output = new ArrayDeque<>();
+    String name;
+    Session session;
+    Session.Seat seat;
+    boolean open = true;
+
+    Connection(SocketChannel channel, SelectionKey key) {
+        this.channel = channel;
+        this.key = key;
+    }
+
+    /**
+     * Queues a line. Lines are written by flush(), so the lines a client gets in one
+     * pass of the selector loop go out together in a single write.
+     */
+    void send(String line) throws IOException {
+        if (!open) {
+            return;
+        }
+        if (output.size() >= MAX_PENDING) {
+            throw new IOException("Client is not reading.");
+        }
+        output.add(ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8)));
+    }
+
+    boolean hasOutput() {
+        return !output.isEmpty();
+    }
+
+    /**
+     * Writes as many queued lines as the socket takes, and asks to be told when it
+     * can take more if some are left.
+     */
+    void flush() throws IOException {
+        if (!open) {
+            return;
+        }
+        channel.write(output.toArray(new ByteBuffer[0]));
+        while (!output.isEmpty() && !output.peek().hasRemaining()) {
+            output.poll();
+        }
+        int ops = output.isEmpty()
+                ? SelectionKey.OP_READ
+                : SelectionKey.OP_READ | SelectionKey.OP_WRITE;
+        if (key.interestOps() != ops) {
+            key.interestOps(ops);
+        }
+    }
+}
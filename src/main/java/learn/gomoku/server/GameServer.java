@@ -0,0 +1,612 @@
+package learn.gomoku.server;
+
+import learn.gomoku.book.BookPlayer;
+import learn.gomoku.book.OpeningBook;
+import learn.gomoku.engine.TranspositionTable;
+import learn.gomoku.event.EventBus;
+import learn.gomoku.game.Result;
+import learn.gomoku.game.Stone;
+import learn.gomoku.players.EnginePlayer;
+import learn.gomoku.players.MctsPlayer;
+import learn.gomoku.players.MoveSource;
+import learn.gomoku.players.Player;
+import learn.gomoku.players.PlayerMoveSource;
+import learn.gomoku.players.RandomPlayer;
+import learn.gomoku.players.RemoteMoveSource;
+import learn.gomoku.players.SearchPlayer;
+import learn.gomoku.tournament.Tournament;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * TCP server hosting any number of concurrent games over a line protocol.
+ *
+ * One selector thread owns every connection and every Gomoku, so games need no locks
+ * and a session costs a few small objects rather than a thread. The lines for a client
+ * are collected during a pass of the loop and written together at its end. Every move goes
+ * through Gomoku.place. Bots think on a separate fixed pool with a bounded queue and
+ * hand their moves back to the selector thread, so a slow bot never holds up a human
+ * and a flood of bot games is refused instead of piling up. Like a Tournament, each
+ * bot thread keeps its players, one per kind of bot, which is given the time limit of
+ * the game it moves for. Clients can't ask for more than MAX_BOT_MILLIS per move.
+ *
+ * Client to server, one command per line:
+ *
+ *   JOIN name [opponent]   start a game against random (default), search[:millis],
+ *                          mcts[:millis] or human, the next client to ask for a human;
+ *                          millis is cut to 1..MAX_BOT_MILLIS
+ *   MOVE row column        place a stone
+ *   QUIT                   leave the game and disconnect
+ *
+ * Server to client:
+ *
+ *   WAITING                                 waiting for a human opponent
+ *   GAME width BLACK|WHITE opponent-name    a game started, with your colour
+ *   MOVE row column BLACK|WHITE             a stone was placed, by either side
+ *   TURN                                    it is your move
+ *   ERROR message                           the command was refused
+ *   OVER WIN|LOSS|DRAW message              the game ended; JOIN to play again
+ */
+public class GameServer implements Closeable {
+
+    public static final int DEFAULT_PORT = 1515;
+    public static final int DEFAULT_BOT_QUEUE = 10_000;
+
+    static final int MAX_BOT_ATTEMPTS = 1000;
+    // Longest a client may let a bot think per move, so no game holds a bot thread for long
+    static final long MAX_BOT_MILLIS = 5_000;
+    // Connections the OS may hold before they are accepted, when thousands arrive at once
+    static final int BACKLOG = 4096;
+
+    private final ServerSocketChannel server;
+    private final Selector selector;
+    private final ThreadPoolExecutor bots;
+    // The players of a bot thread by kind of bot: random, search or mcts
+    private final ThreadLocal<Map<String, Player>> botPlayers = ThreadLocal.withInitial(HashMap::new);
+    // The bot each of those players last moved for
+    private final ThreadLocal<Map<String, BotPlayer>> lastBots = ThreadLocal.withInitial(HashMap::new);
+    // Work handed to the selector thread, such as finished bot moves
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    // Set while the selector thread has been woken and hasn't run the tasks yet
+    private final AtomicBoolean woken = new AtomicBoolean();
+    // Connections with lines to write at the end of this pass of the loop
+    private final ArrayDeque<Connection> dirty = new ArrayDeque<>();
+    private Connection waiting;
+    private volatile EventBus events;
+    private volatile OpeningBook book;
+    private volatile TranspositionTable table;
+    private Thread thread;
+    private volatile boolean running = true;
+
+    public GameServer(int port, int botThreads) throws IOException {
+        this(port, botThreads, DEFAULT_BOT_QUEUE);
+    }
+
+    /**
+     * @param port        port to listen on, 0 for any free port
+     * @param botThreads  threads computing bot moves
+     * @param botQueue    bot moves that may wait for a thread before new ones are refused
+     */
+    public GameServer(int port, int botThreads, int botQueue) throws IOException {
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(port), BACKLOG);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        this.bots = new ThreadPoolExecutor(botThreads, botThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(botQueue), runnable -> {
+                    Thread bot = new Thread(runnable, "game-server-bot");
+                    bot.setDaemon(true);
+                    return bot;
+                });
+    }
+
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * Publishes the moves and results of the games started from now on, for spectators and loggers.
+     */
+    public void setEventBus(EventBus events) {
+        this.events = events;
+    }
+
+    /**
+     * Makes the bots created from now on play from the book, null for none. Set it before
+     * start(), since bot threads keep the players they have already made.
+     */
+    public void setOpeningBook(OpeningBook book) {
+        this.book = book;
+    }
+
+    /**
+     * Makes the search bots created from now on share the table, for example one opened on
+     * a file so their analysis outlives the server. Null gives every bot its own.
+     */
+    public void setTable(TranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Starts serving on a new thread.
+     */
+    public synchronized void start() {
+        thread = new Thread(this::serve, "game-server");
+        thread.start();
+    }
+
+    /**
+     * Stops the server, disconnecting every client.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        Thread serving;
+        synchronized (this) {
+            serving = thread;
+        }
+        if (serving != null) {
+            try {
+                serving.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        bots.shutdownNow();
+    }
+
+    private void serve() {
+        try {
+            while (running) {
+                selector.select();
+                woken.set(false);
+                for (Runnable task = tasks.poll(); task != null; task = tasks.poll()) {
+                    task.run();
+                }
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        Connection connection = (Connection) key.attachment();
+                        if (key.isReadable()) {
+                            read(connection);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            flush(connection);
+                        }
+                    }
+                }
+                selector.selectedKeys().clear();
+                for (Connection connection = dirty.poll(); connection != null; connection = dirty.poll()) {
+                    flush(connection);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Game server stopped: " + e.getMessage());
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                closeQuietly(key.channel());
+            }
+            closeQuietly(selector);
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        key.attach(new Connection(channel, key));
+    }
+
+    private void read(Connection connection) {
+        ByteBuffer input = connection.input;
+        try {
+            if (connection.channel.read(input) < 0) {
+                disconnect(connection);
+                return;
+            }
+        } catch (IOException e) {
+            disconnect(connection);
+            return;
+        }
+
+        input.flip();
+        int start = 0;
+        for (int i = 0; i < input.limit() && connection.open; i++) {
+            if (input.get(i) == '\n') {
+                byte[] bytes = new byte[i - start];
+                input.get(start, bytes);
+                handle(connection, new String(bytes, StandardCharsets.UTF_8).trim());
+                start = i + 1;
+            }
+        }
+        if (!connection.open) {
+            return;
+        }
+        input.position(start);
+        input.compact();
+        if (!input.hasRemaining()) {
+            send(connection, "ERROR Line too long.");
+            flush(connection);
+            disconnect(connection);
+        }
+    }
+
+    private void flush(Connection connection) {
+        try {
+            connection.flush();
+        } catch (IOException e) {
+            disconnect(connection);
+        }
+    }
+
+    private void handle(Connection connection, String line) {
+        if (line.isEmpty()) {
+            return;
+        }
+        String[] words = line.split("\\s+");
+        switch (words[0].toUpperCase()) {
+            case "JOIN":
+                join(connection, words);
+                break;
+            case "MOVE":
+                move(connection, words);
+                break;
+            case "QUIT":
+                disconnect(connection);
+                break;
+            default:
+                send(connection, "ERROR Unknown command " + words[0] + ".");
+        }
+    }
+
+    private void join(Connection connection, String[] words) {
+        if (connection.session != null || connection == waiting) {
+            send(connection, "ERROR Already in a game.");
+            return;
+        }
+        if (words.length < 2) {
+            send(connection, "ERROR Usage: JOIN <name> [opponent]");
+            return;
+        }
+        connection.name = words[1];
+        String opponent = words.length > 2 ? words[2].toLowerCase() : "random";
+
+        if (opponent.equals("human")) {
+            if (waiting == null) {
+                waiting = connection;
+                send(connection, "WAITING");
+            } else {
+                Connection other = waiting;
+                waiting = null;
+                begin(human(other), human(connection));
+            }
+            return;
+        }
+
+        String type;
+        try {
+            type = botType(opponent);
+        } catch (IllegalArgumentException e) {
+            send(connection, "ERROR Unknown opponent " + opponent + ".");
+            return;
+        }
+        begin(human(connection), bot(type));
+    }
+
+    // The Tournament.playerType() type of a bot opponent, rebuilt with its time limit cut to 1..MAX_BOT_MILLIS
+    static String botType(String opponent) {
+        Tournament.playerType(opponent);
+        String[] parts = opponent.split(":");
+        if (parts[0].equals("random")) {
+            return parts[0];
+        }
+        long millis = parts.length > 1 ? Long.parseLong(parts[1]) : Tournament.DEFAULT_MOVE_MILLIS;
+        return parts[0] + ":" + Math.max(1, Math.min(millis, MAX_BOT_MILLIS));
+    }
+
+    private Session.Seat human(Connection connection) {
+        Session.Seat seat = Session.Seat.human(connection);
+        seat.source = new RemoteMoveSource(moves -> {
+            if (seat.announced != moves.size()) {
+                seat.announced = moves.size();
+                send(connection, "TURN");
+            }
+        });
+        return seat;
+    }
+
+    private Session.Seat bot(String type) {
+        Session.Seat seat = Session.Seat.bot(type);
+        seat.source = new PlayerMoveSource(new BotPlayer(type), bots);
+        return seat;
+    }
+
+    private void begin(Session.Seat first, Session.Seat second) {
+        Session session = new Session(first, second, Math.random() < 0.5);
+        session.game.setEventBus(events);
+        for (Session.Seat seat : new Session.Seat[]{first, second}) {
+            if (!seat.isBot()) {
+                seat.connection.session = session;
+                seat.connection.seat = seat;
+                send(seat.connection, "GAME " + session.game.getWidth() + " " + colour(session.isBlack(seat))
+                        + " " + session.other(seat).getName());
+            }
+        }
+        next(session);
+    }
+
+    private void move(Connection connection, String[] words) {
+        Session session = connection.session;
+        if (session == null) {
+            send(connection, "ERROR Not in a game.");
+            return;
+        }
+        int row;
+        int column;
+        try {
+            row = Integer.parseInt(words[1]);
+            column = Integer.parseInt(words[2]);
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            send(connection, "ERROR Usage: MOVE <row> <column>");
+            return;
+        }
+        Stone stone = Stone.of(row, column, session.isBlack(connection.seat));
+        if (((RemoteMoveSource) connection.seat.source).offer(stone)) {
+            return;
+        }
+        // Nobody asked this side for a move, so Gomoku.place refuses it and says why
+        Result result = session.game.place(stone);
+        if (!result.isSuccess()) {
+            send(connection, "ERROR " + result.getMessage());
+            return;
+        }
+        played(session, row, column, result);
+    }
+
+    // Tells both sides about a placed stone and moves the game on
+    private void played(Session session, int row, int column, Result result) {
+        List<Stone> moves = session.game.getMoveHistory();
+        String line = "MOVE " + row + " " + column + " " + colour(moves.get(moves.size() - 1).isBlack());
+        for (Session.Seat seat : new Session.Seat[]{session.first, session.second}) {
+            if (!seat.isBot()) {
+                send(seat.connection, line);
+            }
+        }
+        if (session.game.isOver()) {
+            end(session, result.getMessage());
+        } else {
+            next(session);
+        }
+    }
+
+    // Asks the side to move for its move, through the same MoveSource path for clients and bots.
+    // The game doesn't change while a bot thinks: the other side's moves are refused by
+    // Gomoku.place as out of turn, so the bot can read the move history.
+    private void next(Session session) {
+        Session.Seat seat = session.current();
+        List<Stone> moves = session.game.getMoveHistory();
+        seat.source.requestMove(moves, MoveSource.NO_DEADLINE)
+                .whenComplete((stone, error) -> onSelector(() -> moved(session, seat, stone, error)));
+        session.other(seat).source.opponentThinking(moves);
+    }
+
+    private void moved(Session session, Session.Seat seat, Stone stone, Throwable error) {
+        if (session.closed) {
+            return;
+        }
+        if (error != null) {
+            boolean busy = error instanceof RejectedExecutionException
+                    || error.getCause() instanceof RejectedExecutionException;
+            abort(session, busy ? "Server is busy." : seat.getName() + " can't move.");
+            return;
+        }
+        if (stone == null) {
+            abort(session, seat.getName() + " can't move.");
+            return;
+        }
+        Result result = session.game.place(stone);
+        if (!result.isSuccess()) {
+            if (!seat.isBot()) {
+                send(seat.connection, "ERROR " + result.getMessage());
+            } else if (++session.botAttempts > MAX_BOT_ATTEMPTS) {
+                abort(session, seat.getName() + " keeps making illegal moves.");
+                return;
+            }
+            next(session);
+            return;
+        }
+        session.botAttempts = 0;
+        played(session, stone.getRow(), stone.getColumn(), result);
+    }
+
+    private void end(Session session, String message) {
+        session.closed = true;
+        for (Session.Seat seat : new Session.Seat[]{session.first, session.second}) {
+            if (!seat.isBot()) {
+                String outcome = session.game.getWinner() == null ? "DRAW"
+                        : session.game.getWinner() == seat ? "WIN" : "LOSS";
+                leave(seat.connection);
+                send(seat.connection, "OVER " + outcome + " " + message);
+            }
+        }
+    }
+
+    // Ends a game that can't go on, neither side wins
+    private void abort(Session session, String message) {
+        session.closed = true;
+        for (Session.Seat seat : new Session.Seat[]{session.first, session.second}) {
+            if (!seat.isBot()) {
+                leave(seat.connection);
+                send(seat.connection, "OVER DRAW " + message);
+            }
+        }
+    }
+
+    private void leave(Connection connection) {
+        connection.session = null;
+        connection.seat = null;
+    }
+
+    private void disconnect(Connection connection) {
+        if (!connection.open) {
+            return;
+        }
+        connection.open = false;
+        connection.key.cancel();
+        closeQuietly(connection.channel);
+        if (waiting == connection) {
+            waiting = null;
+        }
+
+        Session session = connection.session;
+        if (session != null && !session.closed) {
+            session.closed = true;
+            Session.Seat other = session.other(connection.seat);
+            leave(connection);
+            if (!other.isBot()) {
+                leave(other.connection);
+                send(other.connection, "OVER WIN Opponent left.");
+            }
+        }
+    }
+
+    private void send(Connection connection, String line) {
+        try {
+            boolean idle = !connection.hasOutput();
+            connection.send(line);
+            if (idle && connection.open) {
+                dirty.add(connection);
+            }
+        } catch (IOException e) {
+            disconnect(connection);
+        }
+    }
+
+    // Runs a task on the selector thread, waking it once for any number of tasks
+    // Runs the task now when already on the selector thread, such as for a client's move
+    private void onSelector(Runnable task) {
+        if (Thread.currentThread() == thread) {
+            task.run();
+        } else {
+            post(task);
+        }
+    }
+
+    private void post(Runnable task) {
+        tasks.add(task);
+        if (woken.compareAndSet(false, true)) {
+            selector.wakeup();
+        }
+    }
+
+    /**
+     * Bot of a botType() type, played by the player of that kind kept by the bot thread it runs on,
+     * with the time limit of this bot. Stops are passed on to that player. Bots don't ponder: it
+     * would hold a bot thread for every client that is thinking, and the next move may run on
+     * another thread with another player.
+     */
+    private final class BotPlayer implements EnginePlayer {
+
+        private final String type;
+        private final String kind;
+        private final long millis;
+        // The player of the bot thread while it computes a move for this bot
+        private volatile Player working;
+
+        BotPlayer(String type) {
+            String[] parts = type.split(":");
+            this.type = type;
+            this.kind = parts[0];
+            this.millis = parts.length > 1 ? Long.parseLong(parts[1]) : Tournament.DEFAULT_MOVE_MILLIS;
+        }
+
+        @Override
+        public void setName(String name) {
+        }
+
+        @Override
+        public String getName() {
+            return type + " bot";
+        }
+
+        @Override
+        public Stone generateMove(List<Stone> previousMoves) {
+            Player player = botPlayers.get()
+                    .computeIfAbsent(kind, bot -> BookPlayer.of(book, withTable(Tournament.playerType(bot).get())));
+            if (lastBots.get().put(kind, this) != this) {
+                // A RandomPlayer follows one game at a time, so it starts over on another
+                Player inner = player instanceof BookPlayer ? ((BookPlayer) player).getPlayer() : player;
+                if (inner instanceof RandomPlayer) {
+                    ((RandomPlayer) inner).reset();
+                }
+            }
+            if (player instanceof SearchPlayer) {
+                ((SearchPlayer) player).setTimeLimitMillis(millis);
+            } else if (player instanceof MctsPlayer) {
+                ((MctsPlayer) player).setTimeLimitMillis(millis);
+            }
+            working = player;
+            try {
+                return player.generateMove(previousMoves);
+            } finally {
+                working = null;
+            }
+        }
+
+        @Override
+        public void stop() {
+            Player player = working;
+            if (player instanceof EnginePlayer) {
+                ((EnginePlayer) player).stop();
+            }
+        }
+    }
+
+    private Player withTable(Player player) {
+        if (player instanceof SearchPlayer && table != null) {
+            ((SearchPlayer) player).setTable(table);
+        }
+        return player;
+    }
+
+    private static String colour(boolean isBlack) {
+        return isBlack ? "BLACK" : "WHITE";
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+            // Nothing left to do with a channel that fails to close
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package learn.gomoku.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Plays many games against a GameServer at once and measures move latency.
+ *
+ * Every session is a client on one shared selector that joins a game against a bot,
+ * answers every TURN with a random empty cell and joins again until it has played its
+ * games. The latency of a move runs from sending it to the next TURN or the end of the
+ * game, so it includes the server's and the bot's work.
+ */
+public class LoadGenerator {
+
+    // Give up when nothing arrives for this long
+    static final long IDLE_TIMEOUT_MILLIS = 30_000;
+
+    private final InetSocketAddress address;
+    private final int sessions;
+    private final int games;
+    private final String opponent;
+    private final Random random = new Random();
+    private long[] latencies = new long[1024];
+    private int samples;
+
+    public LoadGenerator(InetSocketAddress address, int sessions, int games, String opponent) {
+        this.address = address;
+        this.sessions = sessions;
+        this.games = games;
+        this.opponent = opponent;
+    }
+
+    public Report run() throws IOException {
+        long start = System.nanoTime();
+        int active = sessions;
+        long played = 0;
+        try (Selector selector = Selector.open()) {
+            for (int i = 0; i < sessions; i++) {
+                SocketChannel channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                channel.connect(address);
+                channel.register(selector, SelectionKey.OP_CONNECT, new Client("load-" + i, channel));
+            }
+
+            while (active > 0) {
+                if (selector.select(IDLE_TIMEOUT_MILLIS) == 0) {
+                    throw new IOException("Server stopped responding with " + active + " sessions open.");
+                }
+                for (SelectionKey key : selector.selectedKeys()) {
+                    Client client = (Client) key.attachment();
+                    if (key.isConnectable()) {
+                        client.channel.finishConnect();
+                        client.channel.socket().setTcpNoDelay(true);
+                        key.interestOps(SelectionKey.OP_READ);
+                        client.send("JOIN " + client.name + " " + opponent);
+                    } else if (key.isReadable()) {
+                        int finished = client.read();
+                        played += finished;
+                        if (client.done) {
+                            key.cancel();
+                            client.channel.close();
+                            active--;
+                        }
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+        }
+        long[] sorted = Arrays.copyOf(latencies, samples);
+        Arrays.sort(sorted);
+        return new Report(sessions, played, sorted, System.nanoTime() - start);
+    }
+
+    private void record(long nanos) {
+        if (samples == latencies.length) {
+            latencies = Arrays.copyOf(latencies, samples * 2);
+        }
+        latencies[samples++] = nanos;
+    }
+
+    /**
+     * Runs a load test: LoadGenerator [host:]port sessions [games] [opponent]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: load [host:]port <sessions> [games per session] [opponent]");
+            return;
+        }
+        String[] target = args[0].split(":");
+        InetSocketAddress address = target.length > 1
+                ? new InetSocketAddress(target[0], Integer.parseInt(target[1]))
+                : new InetSocketAddress("localhost", Integer.parseInt(target[0]));
+        int sessions = Integer.parseInt(args[1]);
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        String opponent = args.length > 3 ? args[3] : "random";
+        System.out.println(new LoadGenerator(address, sessions, games, opponent).run());
+    }
+
+    /**
+     * Outcome of a load test. Latencies are in nanoseconds.
+     */
+    public static final class Report {
+
+        private final int sessions;
+        private final long games;
+        private final long[] latencies;
+        private final long nanos;
+
+        Report(int sessions, long games, long[] latencies, long nanos) {
+            this.sessions = sessions;
+            this.games = games;
+            this.latencies = latencies;
+            this.nanos = nanos;
+        }
+
+        public long getGames() {
+            return games;
+        }
+
+        public long getMoves() {
+            return latencies.length;
+        }
+
+        /**
+         * Latency below which the given share of moves fall, for example 0.99.
+         */
+        public long percentile(double share) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(share * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(index, latencies.length - 1))];
+        }
+
+        @Override
+        public String toString() {
+            double seconds = nanos / 1e9;
+            return String.format("Sessions: %d, games: %d, moves: %d (%.0f moves/s)%n"
+                            + "Move latency p50: %.3f ms, p99: %.3f ms, max: %.3f ms",
+                    sessions, games, getMoves(), getMoves() / seconds,
+                    percentile(0.5) / 1e6, percentile(0.99) / 1e6, percentile(1.0) / 1e6);
+        }
+    }
+
+    // One session: its socket, the partial line read so far and its view of the board
+    private final class Client {
+
+        final String name;
+        final SocketChannel channel;
+        final ByteBuffer input = ByteBuffer.allocate(Connection.MAX_LINE * 4);
+        boolean[] taken = new boolean[0];
+        int width;
+        int gamesLeft = games;
+        long sentAt;
+        boolean done;
+
+        Client(String name, SocketChannel channel) {
+            this.name = name;
+            this.channel = channel;
+        }
+
+        // Handles the lines that arrived, returns the number of games that ended
+        int read() throws IOException {
+            if (channel.read(input) < 0) {
+                throw new IOException(name + " was disconnected.");
+            }
+            input.flip();
+            int finished = 0;
+            int start = 0;
+            for (int i = 0; i < input.limit(); i++) {
+                if (input.get(i) == '\n') {
+                    byte[] bytes = new byte[i - start];
+                    input.get(start, bytes);
+                    finished += handle(new String(bytes, StandardCharsets.UTF_8).split(" "));
+                    start = i + 1;
+                }
+            }
+            input.position(start);
+            input.compact();
+            return finished;
+        }
+
+        private int handle(String[] words) throws IOException {
+            switch (words[0]) {
+                case "GAME":
+                    width = Integer.parseInt(words[1]);
+                    taken = new boolean[width * width];
+                    return 0;
+                case "MOVE":
+                    taken[Integer.parseInt(words[1]) * width + Integer.parseInt(words[2])] = true;
+                    return 0;
+                case "TURN":
+                    measure();
+                    move();
+                    return 0;
+                case "OVER":
+                    measure();
+                    if (--gamesLeft > 0) {
+                        send("JOIN " + name + " " + opponent);
+                    } else {
+                        done = true;
+                    }
+                    return 1;
+                case "ERROR":
+                    throw new IOException(name + " got " + String.join(" ", words));
+                default:
+                    return 0;
+            }
+        }
+
+        private void measure() {
+            if (sentAt != 0) {
+                record(System.nanoTime() - sentAt);
+                sentAt = 0;
+            }
+        }
+
+        private void move() throws IOException {
+            int cell;
+            do {
+                cell = random.nextInt(taken.length);
+            } while (taken[cell]);
+            sentAt = System.nanoTime();
+            send("MOVE " + cell / width + " " + cell % width);
+        }
+
+        void send(String line) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+            // Commands are tiny and a client sends one at a time, so the socket takes them whole
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+}
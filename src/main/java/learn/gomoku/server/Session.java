@@ -0,0 +1,88 @@
+package learn.gomoku.server;
+
+import learn.gomoku.game.Gomoku;
+import learn.gomoku.game.Stone;
+import learn.gomoku.players.MoveSource;
+import learn.gomoku.players.Player;
+
+import java.util.List;
+
+/**
+ * One game on the server. Only the selector thread of the GameServer touches it.
+ */
+class Session {
+
+    final Gomoku game;
+    final Seat first;
+    final Seat second;
+    // Set when a player leaves, so a bot move that is still on its way is dropped
+    boolean closed;
+    int botAttempts;
+
+    Session(Seat first, Seat second, boolean firstBlack) {
+        this.first = first;
+        this.second = second;
+        this.game = new Gomoku(first, second, firstBlack);
+    }
+
+    Seat current() {
+        return (Seat) game.getCurrent();
+    }
+
+    Seat other(Seat seat) {
+        return seat == first ? second : first;
+    }
+
+    boolean isBlack(Seat seat) {
+        return game.getBlack() == seat;
+    }
+
+    /**
+     * A side of a game: a connected client, or a bot of a Tournament.playerType() type.
+     * Seats carry the name for Gomoku; moves come from the MoveSource of the seat, a
+     * RemoteMoveSource fed by the client's MOVE lines or a PlayerMoveSource on the bot executor.
+     */
+    static final class Seat implements Player {
+
+        final Connection connection;
+        final String botType;
+        // Where the moves of this side come from, set by the server
+        MoveSource source;
+        // Move count the client was last sent TURN for, so a refused move doesn't repeat it
+        int announced = -1;
+        private String name;
+
+        private Seat(String name, Connection connection, String botType) {
+            this.name = name;
+            this.connection = connection;
+            this.botType = botType;
+        }
+
+        static Seat human(Connection connection) {
+            return new Seat(connection.name, connection, null);
+        }
+
+        static Seat bot(String type) {
+            return new Seat(type + " bot", null, type);
+        }
+
+        boolean isBot() {
+            return connection == null;
+        }
+
+        @Override
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Stone generateMove(List<Stone> previousMoves) {
+            return null;
+        }
+    }
+}
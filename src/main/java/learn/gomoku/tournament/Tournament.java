@@ -0,0 +1,174 @@
+package learn.gomoku.tournament;
+
+import learn.gomoku.event.EventBus;
+import learn.gomoku.game.Gomoku;
+import learn.gomoku.game.Result;
+import learn.gomoku.game.Stone;
+import learn.gomoku.players.MctsPlayer;
+import learn.gomoku.players.MoveSource;
+import learn.gomoku.players.Player;
+import learn.gomoku.players.RandomPlayer;
+import learn.gomoku.players.SearchPlayer;
+import learn.gomoku.record.GameRecord;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * Plays many games between two kinds of players without any console I/O.
+ *
+ * Games are split over a ForkJoinPool in batches. Every worker thread creates
+ * its own pair of players once, since players keep per-game state and aren't
+ * thread-safe. The players swap colours every game.
+ */
+public class Tournament {
+
+    // Per-move time budget of a player type given without one
+    public static final long DEFAULT_MOVE_MILLIS = 100;
+
+    static final int BATCH = 64;
+    // A player that keeps making illegal moves can't finish a game
+    static final int MAX_ATTEMPTS = 1000;
+
+    private final Supplier<Player> first;
+    private final Supplier<Player> second;
+    private final int threads;
+    private final ThreadLocal<Player[]> players;
+    private GameListener listener;
+    private EventBus events;
+
+    public Tournament(Supplier<Player> first, Supplier<Player> second) {
+        this(first, second, Runtime.getRuntime().availableProcessors());
+    }
+
+    public Tournament(Supplier<Player> first, Supplier<Player> second, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is required.");
+        }
+        this.first = first;
+        this.second = second;
+        this.threads = threads;
+        this.players = ThreadLocal.withInitial(() -> new Player[]{this.first.get(), this.second.get()});
+    }
+
+    /**
+     * Creates a player supplier from a name: random, search or mcts, optionally followed by
+     * a per-move time budget in milliseconds, for example search:50.
+     */
+    public static Supplier<Player> playerType(String type) {
+        String[] parts = type.split(":");
+        long millis = parts.length > 1 ? Long.parseLong(parts[1]) : DEFAULT_MOVE_MILLIS;
+        switch (parts[0].toLowerCase()) {
+            case "random":
+                return RandomPlayer::new;
+            case "search":
+                return () -> new SearchPlayer("Search Engine", millis);
+            case "mcts":
+                return () -> new MctsPlayer("MCTS Engine", millis, 1);
+            default:
+                throw new IllegalArgumentException("Unknown player type: " + type);
+        }
+    }
+
+    /**
+     * Called with every finished game from the worker that played it, so it must be thread-safe.
+     */
+    public void setGameListener(GameListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Publishes every move and result of the games to the bus. The workers are not held up
+     * unless the bus uses Overflow.BLOCK and its listeners fall behind.
+     */
+    public void setEventBus(EventBus events) {
+        this.events = events;
+    }
+
+    public TournamentResult run(long games) {
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            TournamentResult result = pool.invoke(new Batch(0, games));
+            result.setNanos(System.nanoTime() - start);
+            return result;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays one game. Even game numbers give black to the first player.
+     */
+    void play(long number, Player one, Player two, TournamentResult result) {
+        boolean firstBlack = number % 2 == 0;
+        Gomoku game = new Gomoku(one, two, firstBlack);
+        game.setEventBus(events);
+        // Moves are computed on this worker, so the requests complete before they return
+        MoveSource first = MoveSource.of(one, Runnable::run);
+        MoveSource second = MoveSource.of(two, Runnable::run);
+
+        while (!game.isOver()) {
+            Player current = game.getCurrent();
+            int attempts = 0;
+            Result placed;
+            do {
+                MoveSource source = current == one ? first : second;
+                Stone stone = MoveSource.await(source.requestMove(game.getMoveHistory(), MoveSource.NO_DEADLINE));
+                if (stone == null) {
+                    throw new IllegalStateException(current.getName() + " can't generate moves.");
+                }
+                placed = game.place(stone);
+                if (++attempts > MAX_ATTEMPTS) {
+                    throw new IllegalStateException(current.getName() + " keeps making illegal moves.");
+                }
+            } while (!placed.isSuccess());
+        }
+
+        Player winner = game.getWinner();
+        result.record(game.getMoveHistory().moveCount(), winner == one, winner == two, firstBlack);
+        if (listener != null) {
+            listener.gameOver(GameRecord.of(game));
+        }
+    }
+
+    /**
+     * Receives every finished game of a tournament, for example to write it to a GameRecordWriter.
+     */
+    public interface GameListener {
+
+        void gameOver(GameRecord record);
+    }
+
+    private class Batch extends RecursiveTask<TournamentResult> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long from;
+        private final long to;
+
+        Batch(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected TournamentResult compute() {
+            if (to - from <= BATCH) {
+                Player[] pair = players.get();
+                TournamentResult result = new TournamentResult();
+                for (long number = from; number < to; number++) {
+                    play(number, pair[0], pair[1], result);
+                }
+                return result;
+            }
+
+            long middle = (from + to) >>> 1;
+            Batch left = new Batch(from, middle);
+            left.fork();
+            TournamentResult right = new Batch(middle, to).compute();
+            return right.merge(left.join());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package learn.gomoku.tournament;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable tally of a batch of games between a first and a second player.
+ * Every worker fills its own instance and the instances are merged at the end.
+ */
+public class TournamentResult {
+
+    private long games;
+    private long firstWins;
+    private long secondWins;
+    private long draws;
+    private long blackWins;
+    private long whiteWins;
+    // Grows to the longest game, so games on boards of any width fit
+    private long[] lengths = new long[0];
+    private long nanos;
+
+    /**
+     * Records a finished game.
+     *
+     * @param length      number of stones on the board at the end
+     * @param firstWon    the first player won
+     * @param secondWon   the second player won
+     * @param firstBlack  the first player played black
+     */
+    public void record(int length, boolean firstWon, boolean secondWon, boolean firstBlack) {
+        games++;
+        if (length >= lengths.length) {
+            lengths = Arrays.copyOf(lengths, length + 1);
+        }
+        lengths[length]++;
+        if (firstWon) {
+            firstWins++;
+        } else if (secondWon) {
+            secondWins++;
+        } else {
+            draws++;
+        }
+        if (firstWon || secondWon) {
+            if (firstWon == firstBlack) {
+                blackWins++;
+            } else {
+                whiteWins++;
+            }
+        }
+    }
+
+    public TournamentResult merge(TournamentResult other) {
+        games += other.games;
+        firstWins += other.firstWins;
+        secondWins += other.secondWins;
+        draws += other.draws;
+        blackWins += other.blackWins;
+        whiteWins += other.whiteWins;
+        if (other.lengths.length > lengths.length) {
+            lengths = Arrays.copyOf(lengths, other.lengths.length);
+        }
+        for (int i = 0; i < other.lengths.length; i++) {
+            lengths[i] += other.lengths[i];
+        }
+        return this;
+    }
+
+    void setNanos(long nanos) {
+        this.nanos = nanos;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getFirstWins() {
+        return firstWins;
+    }
+
+    public long getSecondWins() {
+        return secondWins;
+    }
+
+    public long getDraws() {
+        return draws;
+    }
+
+    public long getBlackWins() {
+        return blackWins;
+    }
+
+    public long getWhiteWins() {
+        return whiteWins;
+    }
+
+    /**
+     * Number of games by length: element n counts the games that ended with n stones on the board.
+     * The array ends at the longest game.
+     */
+    public long[] getLengthHistogram() {
+        return lengths.clone();
+    }
+
+    public double getAverageLength() {
+        long total = 0;
+        for (int i = 0; i < lengths.length; i++) {
+            total += i * lengths[i];
+        }
+        return games == 0 ? 0 : (double) total / games;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public double getGamesPerSecond() {
+        return nanos == 0 ? 0 : games * 1_000_000_000.0 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("Games:         %d (%.0f games/s)%n", games, getGamesPerSecond()));
+        text.append(String.format("First player:  %d wins%n", firstWins));
+        text.append(String.format("Second player: %d wins%n", secondWins));
+        text.append(String.format("Draws:         %d%n", draws));
+        text.append(String.format("Black / White: %d / %d%n", blackWins, whiteWins));
+        text.append(String.format("Average length: %.1f stones%n", getAverageLength()));
+        text.append("Length histogram (stones: games)");
+        // Buckets of 10 stones keep the histogram readable
+        for (int start = 0; start < lengths.length; start += 10) {
+            long count = 0;
+            for (int i = start; i < Math.min(start + 10, lengths.length); i++) {
+                count += lengths[i];
+            }
+            if (count > 0) {
+                text.append(String.format("%n  %3d-%3d: %d", start, Math.min(start + 9, lengths.length - 1), count));
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,110 @@
+package learn.gomoku;
+
+import learn.gomoku.game.Gomoku;
+import learn.gomoku.game.Stone;
+import learn.gomoku.players.RandomPlayer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoardRendererTest {
+
+    private static final String NEWLINE = System.lineSeparator();
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final PrintStream out = new PrintStream(bytes);
+    private final Gomoku game = new Gomoku(new RandomPlayer(), new RandomPlayer(), true, 6);
+
+    @Test
+    void shouldPrintWholeBoardInPlainMode() {
+        game.place(new Stone(1, 2, true));
+        BoardRenderer renderer = new BoardRenderer();
+
+        renderer.render(game.getMoveHistory(), out);
+        renderer.render(game.getMoveHistory(), out);
+
+        String frame = "   01 02 03 04 05 06 " + NEWLINE
+                + "01  _  _  _  _  _  _ " + NEWLINE
+                + "02  _  _  B  _  _  _ " + NEWLINE
+                + "03  _  _  _  _  _  _ " + NEWLINE
+                + "04  _  _  _  _  _  _ " + NEWLINE
+                + "05  _  _  _  _  _  _ " + NEWLINE
+                + "06  _  _  _  _  _  _ " + NEWLINE;
+        assertEquals(frame + frame, text());
+    }
+
+    @Test
+    void shouldWriteEachFrameOnce() {
+        int[] writes = new int[1];
+        PrintStream counting = new PrintStream(bytes) {
+            @Override
+            public void write(byte[] buffer, int offset, int length) {
+                writes[0]++;
+                super.write(buffer, offset, length);
+            }
+        };
+        BoardRenderer renderer = new BoardRenderer();
+
+        renderer.render(game.getMoveHistory(), counting);
+        game.place(new Stone(3, 3, true));
+        renderer.render(game.getMoveHistory(), counting);
+
+        assertEquals(2, writes[0]);
+    }
+
+    @Test
+    void shouldRedrawOnlyChangedCellsInAnsiMode() {
+        BoardRenderer renderer = new BoardRenderer(true);
+        renderer.render(game.getMoveHistory(), out);
+        assertTrue(text().startsWith("\u001b[2J\u001b[H   01 02"));
+        bytes.reset();
+
+        game.place(new Stone(2, 3, true));
+        renderer.render(game.getMoveHistory(), out);
+
+        // Row 3 is the fourth line and the fourth cell of a row ends at column 14
+        assertEquals("\u001b7\u001b[4;14HB\u001b8", text());
+        bytes.reset();
+
+        game.undo();
+        renderer.render(game.getMoveHistory(), out);
+        assertEquals("\u001b7\u001b[4;14H_\u001b8", text());
+    }
+
+    @Test
+    void shouldWriteNothingWithoutChangesInAnsiMode() {
+        BoardRenderer renderer = new BoardRenderer(true);
+        renderer.render(game.getMoveHistory(), out);
+        bytes.reset();
+
+        renderer.render(game.getMoveHistory(), out);
+
+        assertEquals("", text());
+    }
+
+    @Test
+    void shouldFollowStonesOnLargeBoards() {
+        Gomoku large = new Gomoku(new RandomPlayer(), new RandomPlayer(), true, 1000);
+        large.place(new Stone(500, 500, true));
+        large.place(new Stone(503, 498, false));
+        BoardRenderer renderer = new BoardRenderer();
+
+        renderer.render(large.getMoveHistory(), out);
+
+        String[] lines = text().split(NEWLINE);
+        // Two cells around the stones, rows 499 to 506 and columns 497 to 503
+        assertEquals(9, lines.length);
+        assertTrue(lines[0].startsWith("    497 498 499 500"));
+        assertTrue(lines[3].startsWith("501   _   _   _   _   B"));
+        assertTrue(lines[6].startsWith("504   _   _   W"));
+    }
+
+    private String text() {
+        return bytes.toString(StandardCharsets.US_ASCII);
+    }
+}
@@ -2,6 +2,8 @@ package learn.gomoku;
 
 import learn.gomoku.game.Gomoku;
 import learn.gomoku.game.Result;
+import learn.gomoku.game.Stone;
+import learn.gomoku.players.EnginePlayer;
 import learn.gomoku.players.HumanPlayer;
 import learn.gomoku.players.Player;
 import learn.gomoku.players.RandomPlayer;
@@ -13,7 +15,11 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.PrintStream;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -50,7 +56,6 @@ class GameControllerTest {
         Player player2 = new HumanPlayer();
         player2.setName("Jim");
         gameController.game = new Gomoku(player1, player2);
-        gameController.board = new char[Gomoku.WIDTH][Gomoku.WIDTH];
     }
 
     @AfterEach
@@ -163,7 +168,6 @@ class GameControllerTest {
         Player player1 = new RandomPlayer();
         Player player2 = new RandomPlayer();
         gameController.game = new Gomoku(player1, player2);
-        gameController.board = new char[Gomoku.WIDTH][Gomoku.WIDTH];
         String name = gameController.game.getCurrent().getName();
 
         gameController.play(scanner);
@@ -266,5 +270,57 @@ class GameControllerTest {
         assertTrue(capturedOutput.contains("Duplicate move."));
     }
 
+    // The engine plays black, so it moves first and then ponders while the human types
+    @Test
+    public void engineShouldPonderDuringTheHumansTurn() throws InterruptedException {
+        PonderingPlayer engine = new PonderingPlayer();
+        gameController.game = new Gomoku(engine, new HumanPlayer("Jim"), true);
+        Scanner console = new Scanner(new ByteArrayInputStream(("3" + System.lineSeparator() + "3"
+                + System.lineSeparator()).getBytes()));
+
+        assertTrue(gameController.play(console).isSuccess());
+        assertTrue(engine.pondering.await(5, TimeUnit.SECONDS));
+        assertEquals(1, engine.ponderedMoves);
+
+        // Still pondering after the human's move, until its own next move stops it
+        assertTrue(gameController.play(console).isSuccess());
+        assertFalse(engine.stopped);
+        assertTrue(gameController.play(console).isSuccess());
+        assertTrue(engine.stopped);
+
+        // Closing the controller closes the engines
+        gameController.close();
+        assertTrue(engine.closed);
+    }
+
+    private static class PonderingPlayer extends RandomPlayer implements EnginePlayer {
+        final CountDownLatch pondering = new CountDownLatch(1);
+        volatile int ponderedMoves = -1;
+        volatile boolean stopped;
+        volatile boolean closed;
+
+        @Override
+        public boolean canPonder() {
+            return true;
+        }
+
+        @Override
+        public void ponder(List<Stone> moves) {
+            ponderedMoves = moves.size();
+            pondering.countDown();
+            while (!stopped) {
+                Thread.onSpinWait();
+            }
+        }
+
+        @Override
+        public void stop() {
+            stopped = true;
+        }
 
-}
\ No newline at end of file
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
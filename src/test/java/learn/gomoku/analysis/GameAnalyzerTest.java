@@ -0,0 +1,97 @@
+package learn.gomoku.analysis;
+
+import learn.gomoku.game.BitBoard;
+import learn.gomoku.game.Gomoku;
+import learn.gomoku.game.Stone;
+import learn.gomoku.players.RandomPlayer;
+import learn.gomoku.record.GameRecord;
+import learn.gomoku.record.GameRecordWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameAnalyzerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldCountResultsOpeningsAndWinningLines() throws IOException {
+        // Black wins along row 7, white wins down column 0, and one game is broken
+        List<Stone> horizontal = new ArrayList<>();
+        List<Stone> vertical = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            horizontal.add(new Stone(7, 3 + i, true));
+            vertical.add(new Stone(14, 2 * i + 3, true));
+            if (i < 4) {
+                horizontal.add(new Stone(0, 2 * i, false));
+            }
+            vertical.add(new Stone(i, 0, false));
+        }
+        List<Stone> broken = List.of(new Stone(7, 7, true), new Stone(7, 7, false));
+
+        Path first = directory.resolve("first.gmr");
+        Path second = directory.resolve("second.gmr");
+        try (GameRecordWriter writer = GameRecordWriter.open(first, Gomoku.WIDTH)) {
+            writer.write(GameRecord.fromStones(horizontal, Gomoku.WIDTH, "Ann", "Ben", GameRecord.WIN, BitBoard.BLACK));
+            writer.write(GameRecord.fromStones(broken, Gomoku.WIDTH, "Ann", "Ben", GameRecord.UNFINISHED, BitBoard.EMPTY));
+        }
+        try (GameRecordWriter writer = GameRecordWriter.open(second, Gomoku.WIDTH)) {
+            writer.write(GameRecord.fromStones(vertical, Gomoku.WIDTH, "Ann", "Ben", GameRecord.WIN, BitBoard.WHITE));
+        }
+
+        GameStats stats = new GameAnalyzer(2).analyze(List.of(first, second));
+
+        assertEquals(2, stats.getGames());
+        assertEquals(1, stats.getInvalid());
+        assertEquals(1, stats.getBlackWins());
+        assertEquals(1, stats.getWhiteWins());
+        assertEquals(0.0, stats.getFirstPlayerAdvantage(), 1e-9);
+        assertEquals(9.5, stats.getAverageLength(), 1e-9);
+        assertEquals(1, stats.getWinDirection(BitBoard.ROW));
+        assertEquals(1, stats.getWinDirection(BitBoard.COLUMN));
+        assertEquals(0, stats.getWinDirection(BitBoard.DIAGONAL_DOWN));
+        assertEquals(1, stats.getOpeningGames(7, 3));
+        assertEquals(1.0, stats.getOpeningBlackWinRate(7, 3), 1e-9);
+        assertEquals(1, stats.getOpeningWhiteWins(14, 3));
+    }
+
+    @Test
+    void shouldMatchTheGamesThatWerePlayed() throws IOException {
+        Path path = directory.resolve("games.gmr");
+        RandomPlayer one = new RandomPlayer();
+        RandomPlayer two = new RandomPlayer();
+        long blackWins = 0;
+        long moves = 0;
+        int games = 2000;
+        try (GameRecordWriter writer = GameRecordWriter.open(path, Gomoku.WIDTH)) {
+            for (int i = 0; i < games; i++) {
+                Gomoku game = new Gomoku(one, two, i % 2 == 0);
+                while (!game.isOver()) {
+                    game.place(game.getCurrent().generateMove(game.getMoveHistory()));
+                }
+                blackWins += game.getWinner() == game.getBlack() ? 1 : 0;
+                moves += game.getMoveHistory().size();
+                writer.write(GameRecord.of(game));
+            }
+        }
+
+        GameStats stats = new GameAnalyzer(3).analyze(List.of(path));
+
+        assertEquals(games, stats.getGames());
+        assertEquals(0, stats.getInvalid());
+        assertEquals(blackWins, stats.getBlackWins());
+        assertEquals((double) moves / games, stats.getAverageLength(), 1e-9);
+        long lines = 0;
+        for (int direction = 0; direction < BitBoard.DIRECTIONS; direction++) {
+            lines += stats.getWinDirection(direction);
+        }
+        assertTrue(lines >= stats.getBlackWins() + stats.getWhiteWins());
+    }
+}
@@ -0,0 +1,155 @@
+package learn.gomoku.book;
+
+import learn.gomoku.game.BitBoard;
+import learn.gomoku.game.Gomoku;
+import learn.gomoku.game.Stone;
+import learn.gomoku.players.MctsPlayer;
+import learn.gomoku.players.RandomPlayer;
+import learn.gomoku.players.SearchPlayer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpeningBookTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldFindBookMovesInEveryOrientation() throws IOException {
+        List<Stone> game = randomOpening(new Random(7), 12);
+        OpeningBookBuilder builder = new OpeningBookBuilder(Gomoku.WIDTH);
+        builder.addGame(game, BitBoard.BLACK);
+        Path path = directory.resolve("book.bin");
+        builder.write(path);
+
+        OpeningBook book = OpeningBook.open(path);
+        assertEquals(Gomoku.WIDTH, book.getWidth());
+
+        // The same game rotated or mirrored any way follows the book in its own orientation.
+        // Where the position is symmetric itself any image of the move will do, so the
+        // positions after the moves are compared by their canonical keys.
+        for (int symmetry = 0; symmetry < Symmetry.COUNT; symmetry++) {
+            List<Stone> turned = transform(game, symmetry);
+            for (int ply = 0; ply < turned.size(); ply++) {
+                Stone move = book.lookup(turned.subList(0, ply), Gomoku.WIDTH, 1);
+                assertNotNull(move);
+                assertEquals(turned.get(ply).isBlack(), move.isBlack());
+                List<Stone> played = new ArrayList<>(turned.subList(0, ply));
+                played.add(move);
+                assertEquals(canonicalKey(turned.subList(0, ply + 1)), canonicalKey(played));
+            }
+        }
+        assertNull(book.lookup(game, Gomoku.WIDTH, 1));
+        assertNull(book.lookup(List.of(), 19, 1));
+    }
+
+    @Test
+    void shouldPreferMovesThatWin() throws IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder(Gomoku.WIDTH);
+        builder.addGame(List.of(new Stone(0, 0, true)), BitBoard.WHITE);
+        builder.addGame(List.of(new Stone(0, 0, true)), BitBoard.WHITE);
+        builder.addGame(List.of(new Stone(7, 7, true)), BitBoard.BLACK);
+        builder.addGame(List.of(new Stone(7, 7, true)), BitBoard.EMPTY);
+        Path path = directory.resolve("book.bin");
+        builder.write(path);
+
+        OpeningBook book = OpeningBook.open(path);
+        // Corner openings are all one position, the centre is its own
+        assertEquals(2, book.size());
+        Stone move = book.lookup(List.of(), Gomoku.WIDTH, 1);
+        assertEquals(7, move.getRow());
+        assertEquals(7, move.getColumn());
+        assertNull(book.lookup(List.of(), Gomoku.WIDTH, 3));
+    }
+
+    @Test
+    void shouldLeaveMovesOutOfBookToThePlayer() throws IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder(Gomoku.WIDTH);
+        builder.addGame(List.of(new Stone(7, 7, true)), BitBoard.BLACK);
+        Path path = directory.resolve("book.bin");
+        builder.write(path);
+        BookPlayer player = new BookPlayer(OpeningBook.open(path), new RandomPlayer(), 1);
+
+        Stone first = player.generateMove(List.of());
+        assertEquals(7, first.getRow());
+        assertEquals(7, first.getColumn());
+        assertNotNull(player.generateMove(List.of(first, new Stone(0, 0, false))));
+        assertEquals(1, player.getBookMoves());
+    }
+
+    @Test
+    void enginesShouldPlayFromTheBookBeforeSearching() throws IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder(Gomoku.WIDTH);
+        builder.addGame(List.of(new Stone(7, 7, true)), BitBoard.BLACK);
+        builder.addGame(List.of(new Stone(7, 7, true)), BitBoard.BLACK);
+        Path path = directory.resolve("book.bin");
+        builder.write(path);
+        OpeningBook book = OpeningBook.open(path);
+
+        SearchPlayer search = new SearchPlayer("Search", 50);
+        MctsPlayer mcts = new MctsPlayer("MCTS", 50, 1);
+        // Engines look the book up themselves, other players are wrapped
+        assertSame(search, BookPlayer.of(book, search));
+        assertSame(mcts, BookPlayer.of(book, mcts));
+        assertTrue(BookPlayer.of(book, new RandomPlayer()) instanceof BookPlayer);
+
+        Stone first = search.generateMove(List.of());
+        assertEquals(7, first.getRow());
+        assertEquals(7, first.getColumn());
+        assertNull(search.getLastResult());
+        assertEquals(1, search.getBookMoves());
+        assertNotNull(search.generateMove(List.of(first, new Stone(0, 0, false))));
+        assertNotNull(search.getLastResult());
+
+        assertEquals(7, mcts.generateMove(List.of()).getRow());
+        assertNull(mcts.getLastResult());
+        assertEquals(1, mcts.getBookMoves());
+    }
+
+    @Test
+    void shouldRejectFilesThatAreNotBooks() throws IOException {
+        Path path = directory.resolve("notes.txt");
+        Files.writeString(path, "not a book at all");
+
+        assertThrows(IOException.class, () -> OpeningBook.open(path));
+    }
+
+    private static List<Stone> randomOpening(Random random, int length) {
+        List<Stone> moves = new ArrayList<>();
+        boolean[] taken = new boolean[Gomoku.WIDTH * Gomoku.WIDTH];
+        while (moves.size() < length) {
+            int cell = random.nextInt(taken.length);
+            if (!taken[cell]) {
+                taken[cell] = true;
+                moves.add(new Stone(cell / Gomoku.WIDTH, cell % Gomoku.WIDTH, moves.size() % 2 == 0));
+            }
+        }
+        return moves;
+    }
+
+    private static long canonicalKey(List<Stone> moves) {
+        long[] hashes = new long[Symmetry.COUNT];
+        Symmetry.hashes(moves, moves.size(), Gomoku.WIDTH, hashes);
+        return hashes[Symmetry.canonicalSymmetry(hashes)];
+    }
+
+    private static List<Stone> transform(List<Stone> moves, int symmetry) {
+        List<Stone> result = new ArrayList<>();
+        for (Stone stone : moves) {
+            result.add(new Stone(
+                    Symmetry.row(symmetry, stone.getRow(), stone.getColumn(), Gomoku.WIDTH),
+                    Symmetry.column(symmetry, stone.getRow(), stone.getColumn(), Gomoku.WIDTH),
+                    stone.isBlack()));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,88 @@
+package learn.gomoku.engine;
+
+import learn.gomoku.game.BitBoard;
+import learn.gomoku.game.PatternTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LinePatternsTest {
+
+    private final BitBoard board = new BitBoard();
+    private final LinePatterns patterns = new LinePatterns(board);
+
+    @Test
+    void shouldClassifyRunsAlongALine() {
+        // Black three in a row on row 7 with both ends open.
+        place(7, 5, true);
+        place(7, 6, true);
+        place(7, 7, true);
+
+        // Extending it makes an open four, both ends of the row are still free.
+        assertEquals(PatternTable.OPEN_FOUR, patterns.getPattern(board.index(7, 4), BitBoard.ROW, true));
+        assertEquals(PatternTable.OPEN_FOUR, patterns.getPattern(board.index(7, 8), BitBoard.ROW, true));
+        // White can't make anything of those cells along the row.
+        assertEquals(PatternTable.NONE, patterns.getPattern(board.index(7, 4), BitBoard.ROW, false));
+        // Taken cells have no pattern.
+        assertEquals(PatternTable.NONE, patterns.getPattern(board.index(7, 6), BitBoard.ROW, true));
+
+        // Blocking one end turns the four on the other end into a closed one.
+        place(7, 4, false);
+        assertEquals(PatternTable.FOUR, patterns.getPattern(board.index(7, 8), BitBoard.ROW, true));
+
+        // One more black stone leaves a cell where black makes five.
+        place(7, 8, true);
+        assertEquals(PatternTable.FIVE, patterns.getPattern(board.index(7, 9), BitBoard.ROW, true));
+        assertEquals(1, patterns.getCount(true, PatternTable.FIVE));
+        assertTrue(patterns.evaluate(true) > 0);
+        assertTrue(patterns.evaluate(false) < 0);
+    }
+
+    @Test
+    void shouldNotCountOverlinesAsFive() {
+        // Black stones on both sides of an empty cell that would join them into six.
+        for (int col : new int[]{2, 3, 4, 6, 7}) {
+            place(3, col, true);
+        }
+        assertEquals(PatternTable.OVERLINE, patterns.getPattern(board.index(3, 5), BitBoard.ROW, true));
+        assertEquals(0, patterns.getCount(true, PatternTable.FIVE));
+    }
+
+    @Test
+    void incrementalUpdatesShouldMatchARecount() {
+        // Play and take back random stones, then compare with patterns counted from scratch.
+        Random random = new Random(7);
+        List<Integer> cells = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            if (!cells.isEmpty() && random.nextInt(3) == 0) {
+                int cell = cells.remove(cells.size() - 1);
+                board.clear(cell);
+                patterns.update(cell);
+                continue;
+            }
+            int cell = board.index(random.nextInt(board.getWidth()), random.nextInt(board.getWidth()));
+            if (board.isEmpty(cell)) {
+                board.set(cell, cells.size() % 2 == 0);
+                patterns.update(cell);
+                cells.add(cell);
+            }
+        }
+
+        LinePatterns recounted = new LinePatterns(board);
+        for (int pattern = 0; pattern < PatternTable.PATTERNS; pattern++) {
+            assertEquals(recounted.getCount(true, pattern), patterns.getCount(true, pattern));
+            assertEquals(recounted.getCount(false, pattern), patterns.getCount(false, pattern));
+        }
+        assertEquals(recounted.evaluate(true), patterns.evaluate(true));
+    }
+
+    private void place(int row, int col, boolean isBlack) {
+        int cell = board.index(row, col);
+        board.set(cell, isBlack);
+        patterns.update(cell);
+    }
+}
@@ -0,0 +1,107 @@
+package learn.gomoku.engine;
+
+import learn.gomoku.game.Board;
+import learn.gomoku.game.Gomoku;
+import learn.gomoku.game.Result;
+import learn.gomoku.game.Stone;
+import learn.gomoku.players.HumanPlayer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThreatSolverTest {
+
+    private final ThreatSolver solver = new ThreatSolver();
+
+    @Test
+    void shouldFindOpenFour() {
+        // Black has three in a row with both ends open, so making an open four wins.
+        List<Stone> moves = stones(7, 7, 0, 0, 7, 8, 0, 2, 7, 9, 0, 4, 6, 10, 14, 14);
+        solver.setPosition(moves);
+
+        List<Stone> win = solver.solveVcf();
+        assertEquals(3, win.size());
+        assertWins(moves, win);
+    }
+
+    @Test
+    void shouldFindLongSequenceOfFours() {
+        // White to move, and white only wins through a chain of fours.
+        List<Stone> moves = stones(4, 8, 7, 8, 10, 6, 10, 9, 5, 4, 9, 7, 6, 10, 8, 8, 5, 8, 6, 8,
+                7, 10, 6, 5, 8, 5, 7, 5, 5, 9, 4, 10, 10, 10);
+        solver.setPosition(moves);
+
+        List<Stone> win = solver.solveVcf();
+        assertTrue(win.size() >= 7);
+        assertFalse(win.get(0).isBlack());
+        assertWins(moves, win);
+    }
+
+    @Test
+    void shouldReportNoForcedWin() {
+        solver.setPosition(stones(7, 7, 7, 8, 8, 8, 6, 6));
+
+        assertTrue(solver.solveVcf().isEmpty());
+        assertTrue(solver.solveVct().isEmpty());
+    }
+
+    @Test
+    void shouldSolveGame() {
+        Gomoku game = new Gomoku(new HumanPlayer("Dori"), new HumanPlayer("Nemo"));
+        List<Stone> moves = stones(7, 7, 0, 0, 7, 8, 0, 2, 7, 9, 0, 4, 6, 10, 14, 14);
+        for (Stone stone : moves) {
+            game.place(stone);
+        }
+
+        assertFalse(ThreatSolver.solve(game).isEmpty());
+    }
+
+    @Test
+    void shouldSolveGameOnItsOwnWidth() {
+        // Black's four on row 17 only exists on a 19 wide board.
+        Gomoku game = new Gomoku(new HumanPlayer("Dori"), new HumanPlayer("Nemo"), true, 19);
+        for (Stone stone : stones(17, 13, 0, 0, 17, 14, 0, 2, 17, 15, 0, 4, 17, 16, 0, 6)) {
+            assertTrue(game.place(stone).isSuccess());
+        }
+
+        List<Stone> win = ThreatSolver.solve(game);
+        assertEquals(1, win.size());
+        assertEquals(17, win.get(0).getRow());
+        assertTrue(win.get(0).getColumn() == 12 || win.get(0).getColumn() == 17);
+    }
+
+    @Test
+    void shouldRejectBoardsWithoutBitBoard() {
+        assertThrows(IllegalArgumentException.class, () -> new ThreatSolver(Board.MAX_DENSE_WIDTH + 1));
+        Gomoku game = new Gomoku(new HumanPlayer("Dori"), new HumanPlayer("Nemo"), true, 1000);
+        assertThrows(IllegalArgumentException.class, () -> ThreatSolver.solve(game));
+    }
+
+    // Plays the winning line after the moves and checks that every move is legal and the last one wins.
+    private void assertWins(List<Stone> moves, List<Stone> win) {
+        Gomoku game = new Gomoku(new HumanPlayer("Dori"), new HumanPlayer("Nemo"));
+        for (Stone stone : moves) {
+            assertTrue(game.place(stone).isSuccess());
+        }
+        Result result = null;
+        for (Stone stone : win) {
+            assertFalse(game.isOver());
+            result = game.place(stone);
+            assertTrue(result.isSuccess());
+        }
+        assertTrue(game.isOver());
+        assertNotNull(game.getWinner());
+        assertTrue(result.getMessage().endsWith("wins."));
+    }
+
+    private static List<Stone> stones(int... cells) {
+        List<Stone> stones = new ArrayList<>();
+        for (int i = 0; i < cells.length; i += 2) {
+            stones.add(new Stone(cells[i], cells[i + 1], stones.size() % 2 == 0));
+        }
+        return stones;
+    }
+}
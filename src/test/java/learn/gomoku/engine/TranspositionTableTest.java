@@ -0,0 +1,86 @@
+package learn.gomoku.engine;
+
+import learn.gomoku.game.Gomoku;
+import learn.gomoku.game.Stone;
+import learn.gomoku.players.HumanPlayer;
+import learn.gomoku.players.SearchPlayer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReturnWhatWasStored() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(42, 112, -350, 6, TranspositionTable.UPPER);
+
+        long entry = table.probe(42);
+        assertEquals(112, TranspositionTable.move(entry));
+        assertEquals(-350, TranspositionTable.score(entry));
+        assertEquals(6, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.UPPER, TranspositionTable.bound(entry));
+        assertEquals(0, table.probe(43));
+
+        table.clear();
+        assertEquals(0, table.probe(42));
+    }
+
+    @Test
+    void shouldKeepDeeperEntries() {
+        TranspositionTable table = new TranspositionTable(1);
+        // Both hashes land in the same slot
+        long deep = 5;
+        long shallow = 5 + table.getCapacity();
+        table.store(deep, 1, 10, 8, TranspositionTable.EXACT);
+
+        table.store(shallow, 2, 20, 3, TranspositionTable.EXACT);
+        assertNotEquals(0, table.probe(deep));
+        assertEquals(0, table.probe(shallow));
+
+        table.store(shallow, 2, 20, 9, TranspositionTable.EXACT);
+        assertEquals(0, table.probe(deep));
+        assertEquals(9, TranspositionTable.depth(table.probe(shallow)));
+    }
+
+    @Test
+    void shouldReloadEntriesFromFile() throws IOException {
+        Path path = directory.resolve("table.bin");
+        TranspositionTable table = TranspositionTable.open(path, 1);
+        table.store(123_456_789L, 7, 99, 4, TranspositionTable.LOWER);
+        table.flush();
+
+        TranspositionTable reloaded = TranspositionTable.open(path, 1);
+        assertEquals(table.getCapacity(), reloaded.getCapacity());
+        assertEquals(99, TranspositionTable.score(reloaded.probe(123_456_789L)));
+
+        // A table of another size starts over
+        TranspositionTable resized = TranspositionTable.open(path, 2);
+        assertEquals(0, resized.probe(123_456_789L));
+    }
+
+    @Test
+    void searchPlayerShouldKeepItsResultsInAnOpenedTable() throws IOException {
+        Path path = directory.resolve("search.tt");
+        SearchPlayer player = new SearchPlayer("Search", 0);
+        player.setMaxDepth(2);
+        player.setThreatCheck(false);
+        player.openTable(path, 1);
+
+        Gomoku game = new Gomoku(new HumanPlayer("Dori"), new HumanPlayer("Nemo"), true);
+        game.place(new Stone(7, 7, true));
+        player.generateMove(game.getMoveHistory());
+        player.getTable().flush();
+
+        // The root of the search is in the file for a later run
+        TranspositionTable reloaded = TranspositionTable.open(path, 1);
+        assertNotEquals(0, reloaded.probe(game.getHash()));
+    }
+}
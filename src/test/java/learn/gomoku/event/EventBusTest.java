@@ -0,0 +1,195 @@
+package learn.gomoku.event;
+
+import learn.gomoku.game.Gomoku;
+import learn.gomoku.game.Stone;
+import learn.gomoku.players.RandomPlayer;
+import learn.gomoku.tournament.Tournament;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventBusTest {
+
+    @Test
+    void shouldPublishEveryMoveAndTheResult() {
+        Recorder recorder = new Recorder();
+        EventBus bus = new EventBus();
+        bus.subscribe(recorder);
+
+        Gomoku game = new Gomoku(new RandomPlayer(), new RandomPlayer(), true);
+        game.setEventBus(bus);
+        while (!game.isOver()) {
+            game.place(game.getCurrent().generateMove(game.getMoveHistory()));
+        }
+        bus.close();
+
+        List<Stone> stones = game.getStones();
+        assertEquals(stones.size(), recorder.moves.size());
+        for (int i = 0; i < stones.size(); i++) {
+            long[] move = recorder.moves.get(i);
+            assertEquals(game.getGameId(), move[0]);
+            assertEquals(i + 1, move[1]);
+            assertEquals(stones.get(i).getRow(), move[2]);
+            assertEquals(stones.get(i).getColumn(), move[3]);
+            assertEquals(stones.get(i).isBlack() ? 1 : 0, move[4]);
+        }
+        if (game.getWinner() == null) {
+            assertEquals(List.of(stones.size()), recorder.draws);
+        } else {
+            assertEquals(List.of(game.getWinner() == game.getBlack()), recorder.wins);
+        }
+    }
+
+    @Test
+    void shouldDeliverInBatches() {
+        Recorder recorder = new Recorder();
+        EventBus bus = new EventBus(1024, 10, EventBus.Overflow.DROP);
+        bus.subscribe(recorder);
+
+        for (int i = 1; i <= 100; i++) {
+            assertTrue(bus.publishMove(1, i, 0, 0, true));
+        }
+        bus.close();
+
+        assertEquals(100, recorder.moves.size());
+        assertTrue(recorder.batches >= 10);
+        assertTrue(recorder.largestBatch <= 10);
+    }
+
+    @Test
+    void shouldDropEventsWhenFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        Recorder recorder = new Recorder() {
+            @Override
+            public void onMove(long game, int move, int row, int column, boolean isBlack) {
+                awaitQuietly(release);
+                super.onMove(game, move, row, column, isBlack);
+            }
+        };
+        EventBus bus = new EventBus(4, 1, EventBus.Overflow.DROP);
+        bus.subscribe(recorder);
+
+        int accepted = 0;
+        for (int i = 1; i <= 20; i++) {
+            if (bus.publishMove(1, i, 0, 0, true)) {
+                accepted++;
+            }
+        }
+        release.countDown();
+        bus.close();
+
+        // The listener holds one event and the buffer four more
+        assertTrue(accepted <= 5);
+        assertEquals(20 - accepted, bus.getDropped());
+        assertEquals(accepted, recorder.moves.size());
+        assertEquals(bus.getDropped(), recorder.dropped.get());
+    }
+
+    @Test
+    void shouldWaitForSpaceWhenBlocking() throws InterruptedException {
+        Recorder recorder = new Recorder() {
+            @Override
+            public void onMove(long game, int move, int row, int column, boolean isBlack) {
+                super.onMove(game, move, row, column, isBlack);
+                if (move % 10 == 0) {
+                    Thread.yield();
+                }
+            }
+        };
+        EventBus bus = new EventBus(2, 1, EventBus.Overflow.BLOCK);
+        bus.subscribe(recorder);
+
+        Thread[] publishers = new Thread[2];
+        for (int t = 0; t < publishers.length; t++) {
+            long game = t + 1;
+            publishers[t] = new Thread(() -> {
+                for (int i = 1; i <= 500; i++) {
+                    assertTrue(bus.publishMove(game, i, 0, 0, true));
+                }
+            });
+            publishers[t].start();
+        }
+        for (Thread publisher : publishers) {
+            publisher.join();
+        }
+        bus.close();
+
+        assertEquals(0, bus.getDropped());
+        assertEquals(1000, recorder.moves.size());
+        // Each game's moves arrive in order
+        int[] last = new int[3];
+        for (long[] move : recorder.moves) {
+            assertEquals(last[(int) move[0]] + 1, move[1]);
+            last[(int) move[0]]++;
+        }
+    }
+
+    @Test
+    void shouldPublishTournamentGames() {
+        Recorder recorder = new Recorder();
+        EventBus bus = new EventBus(1 << 14, 64, EventBus.Overflow.BLOCK);
+        bus.subscribe(recorder);
+        Tournament tournament = new Tournament(RandomPlayer::new, RandomPlayer::new, 2);
+        tournament.setEventBus(bus);
+
+        tournament.run(50);
+        bus.close();
+
+        assertEquals(50, recorder.wins.size() + recorder.draws.size());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Only touched by the delivery thread until the bus is closed
+    private static class Recorder implements GameEventListener {
+
+        final List<long[]> moves = new ArrayList<>();
+        final List<Boolean> wins = new ArrayList<>();
+        final List<Integer> draws = new ArrayList<>();
+        final AtomicLong dropped = new AtomicLong();
+        int batches;
+        int largestBatch;
+        private int batch;
+
+        @Override
+        public void onMove(long game, int move, int row, int column, boolean isBlack) {
+            moves.add(new long[]{game, move, row, column, isBlack ? 1 : 0});
+            batch++;
+        }
+
+        @Override
+        public void onWin(long game, int moves, boolean blackWins) {
+            wins.add(blackWins);
+            batch++;
+        }
+
+        @Override
+        public void onDraw(long game, int moves) {
+            draws.add(moves);
+            batch++;
+        }
+
+        @Override
+        public void onBatchEnd() {
+            batches++;
+            largestBatch = Math.max(largestBatch, batch);
+            batch = 0;
+        }
+
+        @Override
+        public void onDropped(long events) {
+            dropped.addAndGet(events);
+        }
+    }
+}
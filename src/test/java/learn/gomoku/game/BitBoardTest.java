@@ -0,0 +1,111 @@
+package learn.gomoku.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BitBoardTest {
+
+    private final BitBoard board = new BitBoard();
+
+    @Test
+    void shouldFindFiveInEveryDirection() {
+        int[][] deltas = {{0, 1}, {1, 0}, {1, 1}, {-1, 1}};
+        int[] directions = {BitBoard.ROW, BitBoard.COLUMN, BitBoard.DIAGONAL_DOWN, BitBoard.DIAGONAL_UP};
+
+        for (int i = 0; i < deltas.length; i++) {
+            board.clear();
+            for (int k = 0; k < 5; k++) {
+                board.set(board.index(7 + k * deltas[i][0], 3 + k * deltas[i][1]), true);
+            }
+
+            // Every stone of the line is part of the five, but only in its own direction.
+            for (int k = 0; k < 5; k++) {
+                int cell = board.index(7 + k * deltas[i][0], 3 + k * deltas[i][1]);
+                assertTrue(board.isFive(cell));
+                assertTrue(board.isFive(cell, directions[i]));
+                assertFalse(board.isFive(cell, directions[(i + 1) % 4]));
+            }
+            assertTrue(board.hasFive(true));
+            assertFalse(board.hasFive(false));
+        }
+    }
+
+    @Test
+    void overlineShouldNotBeFive() {
+        for (int col = 0; col < 6; col++) {
+            board.set(board.index(0, col), true);
+        }
+        for (int col = 0; col < 6; col++) {
+            assertFalse(board.isFive(board.index(0, col)));
+        }
+        assertFalse(board.hasFive(true));
+    }
+
+    @Test
+    void shouldNotWrapAroundRows() {
+        // Three stones at the end of row 0 and two at the start of row 1.
+        board.set(board.index(0, 12), true);
+        board.set(board.index(0, 13), true);
+        board.set(board.index(0, 14), true);
+        board.set(board.index(1, 0), true);
+        board.set(board.index(1, 1), true);
+
+        assertFalse(board.isFive(board.index(0, 14)));
+        assertFalse(board.isFive(board.index(1, 0)));
+        assertFalse(board.hasFive(true));
+    }
+
+    @Test
+    void shouldMatchCellByCellScan() {
+        // Compare against a plain walk over random boards.
+        Random random = new Random(42);
+        for (int game = 0; game < 200; game++) {
+            board.clear();
+            char[][] grid = new char[Gomoku.WIDTH][Gomoku.WIDTH];
+            for (int i = 0; i < 120; i++) {
+                int row = random.nextInt(Gomoku.WIDTH);
+                int col = random.nextInt(Gomoku.WIDTH);
+                if (grid[row][col] == 0) {
+                    boolean black = random.nextBoolean();
+                    grid[row][col] = black ? 'B' : 'W';
+                    board.set(board.index(row, col), black);
+                }
+            }
+            for (int row = 0; row < Gomoku.WIDTH; row++) {
+                for (int col = 0; col < Gomoku.WIDTH; col++) {
+                    assertEquals(scanFive(grid, row, col), board.isFive(board.index(row, col)));
+                }
+            }
+        }
+    }
+
+    private boolean scanFive(char[][] grid, int row, int col) {
+        if (grid[row][col] == 0) {
+            return false;
+        }
+        int[][] deltas = {{0, 1}, {1, 0}, {1, 1}, {-1, 1}};
+        for (int[] delta : deltas) {
+            int total = 1 + count(grid, row, col, delta[0], delta[1])
+                    + count(grid, row, col, -delta[0], -delta[1]);
+            if (total == 5) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int count(char[][] grid, int row, int col, int deltaRow, int deltaCol) {
+        int result = 0;
+        int r = row + deltaRow;
+        int c = col + deltaCol;
+        while (r >= 0 && r < Gomoku.WIDTH && c >= 0 && c < Gomoku.WIDTH && grid[r][c] == grid[row][col]) {
+            result++;
+            r += deltaRow;
+            c += deltaCol;
+        }
+        return result;
+    }
+}
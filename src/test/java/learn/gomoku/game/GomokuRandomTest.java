@@ -4,6 +4,11 @@ import learn.gomoku.players.Player;
 import learn.gomoku.players.RandomPlayer;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 class GomokuRandomTest {
 
     @Test
@@ -41,6 +46,76 @@ class GomokuRandomTest {
         }
     }
 
+    @Test
+    void randomMovesShouldAlwaysBeLegal() {
+        // RandomPlayer only picks empty cells, so every move it generates
+        // should be placed successfully on the first try, right up to the end of the game.
+        RandomPlayer one = new RandomPlayer();
+        RandomPlayer two = new RandomPlayer();
+
+        // Play a few games in a row with the same players to check they start over for a new game.
+        for (int i = 0; i < 20; i++) {
+            Gomoku game = new Gomoku(one, two);
+            while (!game.isOver()) {
+                Stone stone = game.getCurrent().generateMove(game.getStones());
+                Result result = game.place(stone);
+                assertTrue(result.isSuccess(), result.toString());
+            }
+        }
+    }
+
+    @Test
+    void randomMovesShouldFitTheBoardOfTheGame() {
+        // Given the move history, RandomPlayer plays on the board of the game, dense or sparse.
+        RandomPlayer one = new RandomPlayer();
+        RandomPlayer two = new RandomPlayer();
+
+        for (int width : new int[]{19, 9, 100_000}) {
+            Gomoku game = new Gomoku(one, two, true, width);
+            for (int i = 0; i < 60 && !game.isOver(); i++) {
+                Stone stone = game.getCurrent().generateMove(game.getMoveHistory());
+                Result result = game.place(stone);
+                assertTrue(result.isSuccess(), result.toString());
+            }
+        }
+    }
+
+    @Test
+    void randomMovesShouldFollowTheGameTheyAreAskedFor() {
+        // One player taking turns in two games, as bots do on a server thread. The second game
+        // ends on the same cell the first one did, which used to pass for the same game.
+        RandomPlayer player = new RandomPlayer();
+        List<Stone> first = List.of(new Stone(7, 7, true), new Stone(0, 0, false));
+        List<Stone> second = List.of(new Stone(3, 3, true), new Stone(0, 0, false),
+                new Stone(5, 5, true), new Stone(1, 1, false));
+
+        for (int i = 0; i < 2000; i++) {
+            player.generateMove(first);
+            Stone stone = player.generateMove(second);
+            for (Stone taken : second) {
+                assertFalse(stone.getRow() == taken.getRow() && stone.getColumn() == taken.getColumn());
+            }
+        }
+    }
+
+    @Test
+    void resetShouldStartOverOnAnotherGame() {
+        // The second game starts and ends its first three moves like the first one, so only reset() tells them apart
+        RandomPlayer player = new RandomPlayer();
+        List<Stone> first = List.of(new Stone(7, 7, true), new Stone(0, 0, false), new Stone(9, 9, true));
+        List<Stone> second = List.of(new Stone(7, 7, true), new Stone(1, 1, false), new Stone(9, 9, true),
+                new Stone(2, 2, false));
+
+        for (int i = 0; i < 2000; i++) {
+            player.generateMove(first);
+            player.reset();
+            Stone stone = player.generateMove(second);
+            for (Stone taken : second) {
+                assertFalse(stone.getRow() == taken.getRow() && stone.getColumn() == taken.getColumn());
+            }
+        }
+    }
+
     @Test
     void makeNames() {
         // A simple test to exercise the logic within the `RandomPlayer` class
@@ -2,9 +2,14 @@ package learn.gomoku.game;
 
 import learn.gomoku.players.HumanPlayer;
 import learn.gomoku.players.Player;
+import learn.gomoku.players.RandomPlayer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class GomokuTest {
@@ -270,6 +275,185 @@ class GomokuTest {
         assertEquals(2, game.getStones().size());
     }
 
+    @Test
+    void moveHistoryShouldFollowTheGameWithoutCopying() {
+        // The history is a live view: the same object shows every new move and the board cells.
+        MoveHistory history = game.getMoveHistory();
+        assertEquals(0, history.moveCount());
+        assertNull(history.lastMove());
+
+        Stone first = new Stone(3, 4, game.isBlacksTurn());
+        game.place(first);
+        Stone second = new Stone(5, 6, game.isBlacksTurn());
+        game.place(second);
+
+        assertSame(history, game.getMoveHistory());
+        assertEquals(2, history.moveCount());
+        assertSame(first, history.get(0));
+        assertSame(second, history.lastMove());
+        assertEquals(BitBoard.BLACK, history.getCell(3, 4));
+        assertEquals(BitBoard.WHITE, history.getCell(5, 6));
+        assertTrue(history.isEmpty(0, 0));
+
+        // The view can't be changed from outside the game.
+        assertThrows(UnsupportedOperationException.class, () -> history.add(new Stone(0, 0, true)));
+    }
+
+    @Test
+    void undoShouldRestoreThePreviousState() {
+        // Nothing to take back at the start of the game.
+        assertNull(game.undo());
+
+        game.place(new Stone(7, 7, game.isBlacksTurn()));
+        Player current = game.getCurrent();
+        long hash = game.getHash();
+
+        Stone stone = new Stone(7, 8, game.isBlacksTurn());
+        game.place(stone);
+
+        // Undo returns the stone and puts back the turn, the hash and the empty cell.
+        assertSame(stone, game.undo());
+        assertEquals(1, game.getMoveHistory().moveCount());
+        assertSame(current, game.getCurrent());
+        assertFalse(game.isBlacksTurn());
+        assertEquals(hash, game.getHash());
+        assertTrue(game.getMoveHistory().isEmpty(7, 8));
+
+        // The same move can be played again.
+        assertTrue(game.place(new Stone(7, 8, game.isBlacksTurn())).isSuccess());
+
+        // Taking back every move leads to the hash of the empty board.
+        game.undo();
+        game.undo();
+        assertEquals(0, game.getHash());
+        assertTrue(game.isBlacksTurn());
+    }
+
+    @Test
+    void undoShouldReopenAWonGame() {
+        // Black plays along row 0, white along row 1, until black makes five.
+        for (int col = 0; col < 4; col++) {
+            game.place(new Stone(0, col, true));
+            game.place(new Stone(1, col, false));
+        }
+        Player black = game.getCurrent();
+        long hash = game.getHash();
+        game.place(new Stone(0, 4, true));
+        assertTrue(game.isOver());
+
+        // Taking back the winning move continues the game with black to move.
+        game.undo();
+        assertFalse(game.isOver());
+        assertNull(game.getWinner());
+        assertSame(black, game.getCurrent());
+        assertTrue(game.isBlacksTurn());
+        assertEquals(hash, game.getHash());
+
+        // Black can play somewhere else and white gets the turn.
+        assertTrue(game.place(new Stone(5, 5, true)).isSuccess());
+        assertFalse(game.isOver());
+        assertFalse(game.isBlacksTurn());
+    }
+
+    @Test
+    void shouldPlayOnALargerBoard() {
+        // A 19 by 19 board accepts stones past the standard 15 rows and columns.
+        Gomoku large = new Gomoku(new HumanPlayer("Dori"), new HumanPlayer("Nemo"), true, 19);
+        assertEquals(19, large.getWidth());
+        assertTrue(large.place(new Stone(18, 18, true)).isSuccess());
+        assertFalse(large.place(new Stone(19, 0, false)).isSuccess());
+    }
+
+    @Test
+    void shouldFindWinsOnASparseBoard() {
+        // Far past the dense sizes the board only stores stones, and wins are still found.
+        Player black = new HumanPlayer("Dori");
+        Gomoku huge = new Gomoku(black, new HumanPlayer("Nemo"), true, 1_000_000);
+        for (int col = 0; col < 4; col++) {
+            assertTrue(huge.place(new Stone(500_000, 999_990 + col, true)).isSuccess());
+            assertTrue(huge.place(new Stone(0, col, false)).isSuccess());
+        }
+        Result result = huge.place(new Stone(500_000, 999_994, true));
+        assertTrue(result.isSuccess());
+        assertTrue(huge.isOver());
+        assertSame(black, huge.getWinner());
+
+        // Undo works the same way on the sparse board.
+        huge.undo();
+        assertTrue(huge.getMoveHistory().isEmpty(500_000, 999_994));
+        assertFalse(huge.isOver());
+    }
+
+    @Test
+    void snapshotsShouldNotChangeWithTheGame() {
+        // Nothing is published until snapshots are enabled.
+        assertNull(game.getSnapshot());
+        Stone first = new Stone(7, 7, game.isBlacksTurn());
+        game.place(first);
+        game.enableSnapshots();
+
+        GameSnapshot before = game.getSnapshot();
+        assertEquals(1, before.moveCount());
+        assertSame(first, before.lastMove());
+
+        Stone second = new Stone(7, 8, game.isBlacksTurn());
+        game.place(second);
+        GameSnapshot after = game.getSnapshot();
+
+        // The new snapshot has the move, the old one still shows the board without it.
+        assertEquals(2, after.moveCount());
+        assertEquals(List.of(first, second), after.getMoves());
+        assertEquals(BitBoard.WHITE, after.getCell(7, 8));
+        assertTrue(before.isEmpty(7, 8));
+        assertNotEquals(before.isBlacksTurn(), after.isBlacksTurn());
+        assertEquals(game.getHash(), after.getHash());
+
+        // Undo publishes the earlier state again.
+        game.undo();
+        assertEquals(1, game.getSnapshot().moveCount());
+        assertTrue(game.getSnapshot().isEmpty(7, 8));
+        assertEquals(BitBoard.WHITE, after.getCell(7, 8));
+    }
+
+    @Test
+    void snapshotsShouldBeConsistentForOtherThreads() throws InterruptedException {
+        // A reader thread checks that every snapshot it sees agrees with itself while moves are played.
+        Gomoku played = new Gomoku(new RandomPlayer(), new RandomPlayer(), true);
+        played.enableSnapshots();
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> problem = new AtomicReference<>();
+
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                GameSnapshot snapshot = played.getSnapshot();
+                int stones = 0;
+                for (int row = 0; row < Gomoku.WIDTH; row++) {
+                    for (int col = 0; col < Gomoku.WIDTH; col++) {
+                        if (!snapshot.isEmpty(row, col)) {
+                            stones++;
+                        }
+                    }
+                }
+                if (stones != snapshot.moveCount() || snapshot.getMoves().size() != stones) {
+                    problem.set(stones + " stones for " + snapshot.moveCount() + " moves");
+                }
+            }
+        });
+        reader.start();
+
+        for (int i = 0; i < 50; i++) {
+            while (!played.isOver()) {
+                played.place(played.getCurrent().generateMove(played.getMoveHistory()));
+            }
+            while (played.undo() != null) {
+                // Take the whole game back and play another one
+            }
+        }
+        done.set(true);
+        reader.join();
+        assertNull(problem.get());
+    }
+
     @Test
     void shouldEndInDraw() {
         int[] rows = {0, 2, 1, 3, 4, 6, 5, 7, 8, 10, 9, 11, 12, 14, 13};
@@ -356,4 +540,81 @@ class GomokuTest {
         assertFalse(result.isSuccess());
         assertEquals("Game is over.", result.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void hashShouldMatchForTransposedMoveOrders() {
+        // The Zobrist hash only depends on which stones are where and whose turn it is,
+        // so reaching the same position through a different move order gives the same hash.
+        Gomoku other = new Gomoku(one, two);
+
+        game.place(new Stone(7, 7, true));
+        game.place(new Stone(7, 8, false));
+        game.place(new Stone(8, 8, true));
+
+        other.place(new Stone(8, 8, true));
+        other.place(new Stone(7, 8, false));
+        other.place(new Stone(7, 7, true));
+
+        assertEquals(game.getHash(), other.getHash());
+    }
+
+    @Test
+    void hashShouldIncludeTurnAndIgnoreFailedMoves() {
+        long start = game.getHash();
+
+        // A rejected move doesn't change the position.
+        game.place(new Stone(55, 4, true));
+        assertEquals(start, game.getHash());
+
+        // A successful move changes both the stones and whose turn it is.
+        game.place(new Stone(0, 0, true));
+        long afterBlack = game.getHash();
+        assertNotEquals(start, afterBlack);
+        assertEquals(start ^ Zobrist.stone(0, true) ^ Zobrist.WHITE_TO_MOVE, afterBlack);
+    }
+
+    @Test
+    void placeByCellShouldPlayForWhoseTurnItIs() {
+        // place(int) plays cell row * width + column with the current colour.
+        assertTrue(game.place(7 * Gomoku.WIDTH + 7).isSuccess());
+        assertTrue(game.place(7 * Gomoku.WIDTH + 8).isSuccess());
+
+        Stone last = game.getMoveHistory().lastMove();
+        assertEquals(7, last.getRow());
+        assertEquals(8, last.getColumn());
+        assertFalse(last.isBlack());
+
+        assertEquals(Result.DUPLICATE, game.place(7 * Gomoku.WIDTH + 7));
+        assertEquals(new Result("Stone is off the board."), game.place(Gomoku.WIDTH * Gomoku.WIDTH));
+        assertEquals(new Result("Stone is off the board."), game.place(-1));
+    }
+
+    @Test
+    void placeShouldReuseStonesAndResults() {
+        // Steady-state play allocates neither stones nor results.
+        assertSame(Stone.of(3, 4, true), Stone.of(3, 4, true));
+        assertNotSame(Stone.of(3, 4, true), Stone.of(3, 4, false));
+
+        assertSame(Result.MOVED, game.place(Stone.of(0, 0, true)));
+        assertSame(Result.WRONG_PLAYER, game.place(Stone.of(1, 0, true)));
+
+        Result win = null;
+        for (int column = 1; column < 5; column++) {
+            game.place(Stone.of(1, column - 1, false));
+            win = game.place(Stone.of(0, column, true));
+        }
+        assertTrue(game.isOver());
+        assertEquals(Result.Code.WIN, win.getCode());
+        assertEquals(game.getWinner().getName() + " wins.", win.getMessage());
+        assertSame(Result.GAME_OVER, game.place(Stone.of(9, 9, false)));
+
+        // Every win of the same player returns the same result.
+        while (game.undo() != null) {
+        }
+        for (int column = 0; column < 4; column++) {
+            game.place(Stone.of(0, column, true));
+            game.place(Stone.of(1, column, false));
+        }
+        assertSame(win, game.place(Stone.of(0, 4, true)));
+    }
+}
@@ -0,0 +1,52 @@
+package learn.gomoku.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SparseBoardTest {
+
+    @Test
+    void shouldMatchADenseBoard() {
+        // Random sets and clears on both kinds of board should leave the same stones.
+        SparseBoard sparse = new SparseBoard(Gomoku.WIDTH);
+        BitBoard dense = new BitBoard(Gomoku.WIDTH);
+        Random random = new Random(3);
+
+        for (int i = 0; i < 5000; i++) {
+            int row = random.nextInt(Gomoku.WIDTH);
+            int col = random.nextInt(Gomoku.WIDTH);
+            if (random.nextInt(3) == 0) {
+                sparse.clear(row, col);
+                dense.clear(row, col);
+            } else if (dense.isEmpty(row, col)) {
+                boolean isBlack = random.nextBoolean();
+                sparse.set(row, col, isBlack);
+                dense.set(row, col, isBlack);
+            }
+        }
+
+        for (int row = 0; row < Gomoku.WIDTH; row++) {
+            for (int col = 0; col < Gomoku.WIDTH; col++) {
+                assertEquals(dense.get(row, col), sparse.get(row, col));
+            }
+        }
+        assertEquals(dense.count(), sparse.count());
+    }
+
+    @Test
+    void shouldHoldStonesFarApartOnAHugeBoard() {
+        // A board this wide could never have a bit per cell.
+        SparseBoard board = new SparseBoard(Integer.MAX_VALUE);
+        board.set(0, 0, true);
+        board.set(Integer.MAX_VALUE - 1, Integer.MAX_VALUE - 1, false);
+
+        assertEquals(BitBoard.BLACK, board.get(0, 0));
+        assertEquals(BitBoard.WHITE, board.get(Integer.MAX_VALUE - 1, Integer.MAX_VALUE - 1));
+        assertTrue(board.isEmpty(1, 0));
+        assertFalse(board.isOnBoard(-1, 0));
+        assertEquals(2, board.count());
+    }
+}
@@ -0,0 +1,39 @@
+package learn.gomoku.metrics;
+
+import learn.gomoku.game.Gomoku;
+import learn.gomoku.game.Result;
+import learn.gomoku.game.Stone;
+import learn.gomoku.players.RandomPlayer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs in a JVM of its own started without -Dgomoku.metrics=true, see the surefire configuration.
+ */
+class MetricsDisabledTest {
+
+    @Test
+    void shouldPlayWithoutRecordingAnything() {
+        assertFalse(Metrics.ENABLED);
+        RandomPlayer one = new RandomPlayer();
+        RandomPlayer two = new RandomPlayer();
+        Gomoku game = new Gomoku(one, two, true);
+
+        // A rejected move, then a whole game through the uninstrumented hooks
+        assertFalse(game.place(new Stone(-1, 0, true)).isSuccess());
+        while (!game.isOver()) {
+            Stone stone = Metrics.generateMove(game.getCurrent(), game.getMoveHistory());
+            Result result = game.place(stone);
+            assertTrue(result.isSuccess(), result.toString());
+        }
+
+        GameMetrics metrics = Metrics.get();
+        assertEquals(0, metrics.getPlace().getCount());
+        assertEquals(0, metrics.getGenerateMove().getCount());
+        assertEquals(0, metrics.getGames());
+        for (int reason = 0; reason < GameMetrics.REJECTIONS.length; reason++) {
+            assertEquals(0, metrics.getRejected(reason));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package learn.gomoku.metrics;
+
+import learn.gomoku.game.Gomoku;
+import learn.gomoku.game.Stone;
+import learn.gomoku.players.HumanPlayer;
+import learn.gomoku.players.RandomPlayer;
+import learn.gomoku.tournament.Tournament;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsTest {
+
+    @Test
+    void shouldPlaceValuesInBucketsThatHoldThem() {
+        for (long value : new long[]{0, 1, 7, 8, 15, 16, 100, 1_000, 123_456_789, Long.MAX_VALUE}) {
+            int bucket = LatencyHistogram.bucket(value);
+            assertTrue(bucket < LatencyHistogram.BUCKETS);
+            assertTrue(LatencyHistogram.upperBound(bucket) >= value);
+            assertTrue(bucket == 0 || LatencyHistogram.upperBound(bucket - 1) < value);
+        }
+    }
+
+    @Test
+    void shouldReportPercentilesWithinAnEighth() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMax());
+        assertEquals(500_500_000, histogram.getTotal());
+        long p50 = histogram.percentile(0.5);
+        long p99 = histogram.percentile(0.99);
+        assertTrue(p50 >= 500_000 && p50 <= 500_000 * 9 / 8, "p50 " + p50);
+        assertTrue(p99 >= 990_000 && p99 <= 1_000_000, "p99 " + p99);
+        assertEquals(0, new LatencyHistogram().percentile(0.5));
+    }
+
+    @Test
+    void shouldCountRejectedMoves() {
+        assertTrue(Metrics.ENABLED, "tests run with -Dgomoku.metrics=true");
+        MetricsSnapshot before = Metrics.get().snapshot();
+        Gomoku game = new Gomoku(new HumanPlayer(), new HumanPlayer(), true);
+
+        game.place(new Stone(7, 7, true));
+        game.place(new Stone(7, 7, false));
+        game.place(new Stone(7, 8, true));
+        game.place(new Stone(20, 20, false));
+
+        MetricsSnapshot after = Metrics.get().snapshot();
+        assertEquals(1, after.getRejected(0) - before.getRejected(0));
+        assertEquals(1, after.getRejected(1) - before.getRejected(1));
+        assertEquals(1, after.getRejected(2) - before.getRejected(2));
+        assertEquals(4, after.getPlace().getCount() - before.getPlace().getCount());
+    }
+
+    @Test
+    void shouldCountGamesAndMoves() {
+        MetricsSnapshot before = Metrics.get().snapshot();
+
+        new Tournament(RandomPlayer::new, RandomPlayer::new, 1).run(20);
+
+        MetricsSnapshot after = Metrics.get().snapshot();
+        assertEquals(20, after.getGames() - before.getGames());
+        assertTrue(after.getGenerateMove().getCount() - before.getGenerateMove().getCount() >= 20 * 9);
+        assertTrue(after.getGamesPerSecond(before) > 0);
+    }
+
+    @Test
+    void shouldPrintTextAndJson() {
+        GameMetrics metrics = new GameMetrics();
+        metrics.recordPlace(2_000);
+        metrics.reject("Wrong player.");
+        metrics.gameOver();
+        metrics.searched(5_000);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        MetricsReporter reporter = new MetricsReporter(metrics, new PrintStream(bytes, true), true);
+        reporter.report();
+
+        String json = bytes.toString().trim();
+        assertTrue(json.startsWith("{\"uptimeNanos\":"));
+        assertTrue(json.contains("\"games\":1,"));
+        assertTrue(json.contains("\"nodes\":5000,"));
+        assertTrue(json.contains("\"place\":{\"count\":1,"));
+        assertTrue(json.contains("\"Wrong player.\":1"));
+        assertTrue(metrics.snapshot().toText(null).contains("games 1 "));
+    }
+}
@@ -0,0 +1,44 @@
+package learn.gomoku.players;
+
+import learn.gomoku.engine.MctsResult;
+import learn.gomoku.game.Stone;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MctsPlayerTest {
+
+    private final MctsPlayer player = new MctsPlayer("Engine", 0, 2);
+
+    @Test
+    void shouldCompleteFive() {
+        // Black has four in a row on row 7, so any playout through (7, 2) or (7, 7) is a win.
+        List<Stone> moves = List.of(
+                new Stone(7, 3, true), new Stone(0, 0, false),
+                new Stone(7, 4, true), new Stone(0, 14, false),
+                new Stone(7, 5, true), new Stone(14, 0, false),
+                new Stone(7, 6, true), new Stone(14, 14, false));
+        player.setPlayouts(5_000);
+
+        Stone stone = player.generateMove(moves);
+        assertTrue(stone.isBlack());
+        assertEquals(7, stone.getRow());
+        assertTrue(stone.getColumn() == 2 || stone.getColumn() == 7);
+    }
+
+    @Test
+    void shouldReportPlayouts() {
+        player.setPlayouts(2_000);
+
+        Stone stone = player.generateMove(List.of(new Stone(7, 7, true)));
+        assertFalse(stone.isBlack());
+
+        // Both threads run their share of the budget.
+        MctsResult result = player.getLastResult();
+        assertEquals(2_000, result.getPlayouts());
+        assertTrue(result.getVisits() > 0);
+        assertTrue(result.getPlayoutsPerSecond() > 0);
+    }
+}
@@ -0,0 +1,191 @@
+package learn.gomoku.players;
+
+import learn.gomoku.game.Gomoku;
+import learn.gomoku.game.Stone;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveSourceTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldAdaptPlayers() {
+        Gomoku game = new Gomoku(new RandomPlayer(), new RandomPlayer(), true);
+        MoveSource source = MoveSource.of(game.getCurrent(), Runnable::run);
+
+        CompletableFuture<Stone> move = source.requestMove(game.getMoveHistory(), MoveSource.NO_DEADLINE);
+
+        assertTrue(move.isDone());
+        assertTrue(game.place(move.join()).isSuccess());
+    }
+
+    @Test
+    void shouldStopAtTheDeadline() throws Exception {
+        SearchPlayer engine = new SearchPlayer("Engine", 60_000);
+        MoveSource source = MoveSource.of(engine, executor);
+        List<Stone> moves = List.of(new Stone(7, 7, true));
+
+        long start = System.nanoTime();
+        CompletableFuture<Stone> move = source.requestMove(moves, start + TimeUnit.MILLISECONDS.toNanos(100));
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> move.get(10, TimeUnit.SECONDS));
+        assertTrue(error.getCause() instanceof TimeoutException);
+
+        // The engine was stopped, so it is free for the next move straight away
+        engine.setTimeLimitMillis(100);
+        assertNotNull(source.requestMove(moves, MoveSource.NO_DEADLINE).get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldStopMctsAtTheDeadline() throws Exception {
+        MctsPlayer engine = new MctsPlayer("Engine", 60_000, 1);
+        MoveSource source = MoveSource.of(engine, executor);
+        List<Stone> moves = List.of(new Stone(7, 7, true));
+
+        CompletableFuture<Stone> move = source.requestMove(moves, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100));
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> move.get(10, TimeUnit.SECONDS));
+        assertTrue(error.getCause() instanceof TimeoutException);
+
+        // Requests are served one at a time, so this one only finishes if the playouts were stopped
+        engine.setTimeLimitMillis(100);
+        assertNotNull(source.requestMove(moves, MoveSource.NO_DEADLINE).get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldStopAnEngineThatHadNotStartedSearching() throws Exception {
+        // The deadline passes while the engine prepares, and its search then clears the stop as real engines do
+        SlowStartingEngine engine = new SlowStartingEngine();
+        MoveSource source = MoveSource.of(engine, executor);
+
+        CompletableFuture<Stone> move = source.requestMove(List.of(), System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10));
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> move.get(10, TimeUnit.SECONDS));
+        assertTrue(error.getCause() instanceof TimeoutException);
+        assertTrue(engine.returned.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldStopWhenCancelled() throws Exception {
+        SearchPlayer engine = new SearchPlayer("Engine", 60_000);
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            MoveSource source = MoveSource.of(engine, single);
+            List<Stone> moves = List.of(new Stone(7, 7, true));
+
+            CompletableFuture<Stone> move = source.requestMove(moves, MoveSource.NO_DEADLINE);
+            Thread.sleep(100);
+            move.cancel(true);
+
+            engine.setTimeLimitMillis(100);
+            assertNotNull(source.requestMove(moves, MoveSource.NO_DEADLINE).get(10, TimeUnit.SECONDS));
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldPonderWhileTheOpponentThinks() throws Exception {
+        SearchPlayer engine = new SearchPlayer("Engine", 200);
+        MoveSource source = MoveSource.of(engine, executor);
+        List<Stone> moves = new ArrayList<>(List.of(new Stone(7, 7, true), new Stone(7, 8, false)));
+
+        // The engine plays black and ponders after its own move while white thinks
+        moves.add(new Stone(8, 7, true));
+        source.opponentThinking(moves);
+        Thread.sleep(200);
+        moves.add(new Stone(6, 7, false));
+
+        Stone move = source.requestMove(moves, MoveSource.NO_DEADLINE).get(10, TimeUnit.SECONDS);
+        assertTrue(move.isBlack());
+        assertNotNull(engine.getLastResult());
+        source.close();
+    }
+
+    @Test
+    void shouldCompleteRemoteMovesWhenOffered() {
+        List<List<Stone>> requests = new ArrayList<>();
+        RemoteMoveSource source = new RemoteMoveSource(requests::add);
+        Stone stone = new Stone(7, 7, true);
+
+        assertFalse(source.offer(stone));
+        CompletableFuture<Stone> move = source.requestMove(List.of(), MoveSource.NO_DEADLINE);
+
+        assertEquals(1, requests.size());
+        assertTrue(source.isWaiting());
+        assertTrue(source.offer(stone));
+        assertSame(stone, move.join());
+        assertFalse(source.offer(stone));
+    }
+
+    @Test
+    void shouldReadMovesFromTheConsole() {
+        String input = "3" + System.lineSeparator() + "4" + System.lineSeparator() + "x" + System.lineSeparator();
+        Scanner console = new Scanner(new ByteArrayInputStream(input.getBytes()));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MoveSource source = new ConsoleMoveSource(console, new PrintStream(out, true));
+
+        Stone stone = MoveSource.await(source.requestMove(List.of(new Stone(7, 7, true)), MoveSource.NO_DEADLINE));
+
+        assertEquals(3, stone.getRow());
+        assertEquals(4, stone.getColumn());
+        assertFalse(stone.isBlack());
+        assertTrue(out.toString().contains("Enter a column: "));
+        assertThrows(NumberFormatException.class,
+                () -> MoveSource.await(source.requestMove(List.of(), MoveSource.NO_DEADLINE)));
+
+        // Closing ends the reading thread
+        source.close();
+        assertThrows(RejectedExecutionException.class,
+                () -> MoveSource.await(source.requestMove(List.of(), MoveSource.NO_DEADLINE)));
+    }
+
+    private static class SlowStartingEngine extends RandomPlayer implements EnginePlayer {
+        final CountDownLatch returned = new CountDownLatch(1);
+        volatile boolean stopped;
+
+        @Override
+        public Stone generateMove(List<Stone> previousMoves) {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // Searches without a time limit until stopped, or the executor is shut down
+            stopped = false;
+            while (!stopped && !Thread.currentThread().isInterrupted()) {
+                Thread.onSpinWait();
+            }
+            returned.countDown();
+            return null;
+        }
+
+        @Override
+        public void stop() {
+            stopped = true;
+        }
+    }
+}
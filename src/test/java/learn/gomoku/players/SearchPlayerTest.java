@@ -0,0 +1,85 @@
+package learn.gomoku.players;
+
+import learn.gomoku.engine.SearchResult;
+import learn.gomoku.game.Stone;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchPlayerTest {
+
+    private final SearchPlayer player = new SearchPlayer("Engine", 500);
+
+    @Test
+    void shouldPlayCenterOnEmptyBoard() {
+        Stone stone = player.generateMove(new ArrayList<>());
+        assertEquals(7, stone.getRow());
+        assertEquals(7, stone.getColumn());
+        assertTrue(stone.isBlack());
+    }
+
+    @Test
+    void shouldCompleteFive() {
+        // Black has four in a row on row 7 with both ends open, white has scattered stones.
+        List<Stone> moves = List.of(
+                new Stone(7, 3, true), new Stone(0, 0, false),
+                new Stone(7, 4, true), new Stone(0, 14, false),
+                new Stone(7, 5, true), new Stone(14, 0, false),
+                new Stone(7, 6, true), new Stone(14, 14, false));
+
+        Stone stone = player.generateMove(moves);
+        assertTrue(stone.isBlack());
+        assertEquals(7, stone.getRow());
+        assertTrue(stone.getColumn() == 2 || stone.getColumn() == 7);
+        assertTrue(player.getLastResult().isWin());
+    }
+
+    @Test
+    void shouldBlockFour() {
+        // White has four in a column with one open end; black must block at (5, 10).
+        List<Stone> moves = List.of(
+                new Stone(7, 7, true), new Stone(1, 10, false),
+                new Stone(9, 2, true), new Stone(2, 10, false),
+                new Stone(12, 4, true), new Stone(3, 10, false),
+                new Stone(0, 10, true), new Stone(4, 10, false));
+
+        Stone stone = player.generateMove(moves);
+        assertTrue(stone.isBlack());
+        assertEquals(5, stone.getRow());
+        assertEquals(10, stone.getColumn());
+    }
+
+    @Test
+    void shouldRespectNodeBudget() {
+        player.setTimeLimitMillis(0);
+        player.setNodeLimit(5_000);
+
+        List<Stone> moves = List.of(new Stone(7, 7, true), new Stone(7, 8, false));
+        Stone stone = player.generateMove(moves);
+
+        // The budget cuts the search short, but it still returns a legal move.
+        assertNotNull(stone);
+        SearchResult result = player.getLastResult();
+        assertTrue(result.getNodes() <= 5_000);
+        assertTrue(result.getNodesPerSecond() > 0);
+    }
+
+    @Test
+    void parallelSearchShouldBlockFour() {
+        // Same position as shouldBlockFour, searched by four threads sharing one table.
+        SearchPlayer parallel = new SearchPlayer("Parallel", 500, 4);
+        List<Stone> moves = List.of(
+                new Stone(7, 7, true), new Stone(1, 10, false),
+                new Stone(9, 2, true), new Stone(2, 10, false),
+                new Stone(12, 4, true), new Stone(3, 10, false),
+                new Stone(0, 10, true), new Stone(4, 10, false));
+
+        Stone stone = parallel.generateMove(moves);
+        assertEquals(5, stone.getRow());
+        assertEquals(10, stone.getColumn());
+        assertEquals(4, parallel.getThreads());
+    }
+}
@@ -0,0 +1,141 @@
+package learn.gomoku.record;
+
+import learn.gomoku.game.BitBoard;
+import learn.gomoku.game.Gomoku;
+import learn.gomoku.game.Stone;
+import learn.gomoku.players.RandomPlayer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameRecordTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReadBackWhatWasWritten() throws IOException {
+        Path path = directory.resolve("games.gmr");
+        // Enough games to fill the reader's buffer several times
+        Gomoku[] games = new Gomoku[1000];
+        try (GameRecordWriter writer = GameRecordWriter.open(path, Gomoku.WIDTH)) {
+            for (int i = 0; i < games.length; i++) {
+                games[i] = play(Gomoku.WIDTH);
+                writer.write(GameRecord.of(games[i]));
+            }
+        }
+
+        // A six byte header and the names per game, then one byte per move on a 15 by 15 board
+        long bytes = 8;
+        for (Gomoku game : games) {
+            bytes += 6 + game.getBlack().getName().length() + game.getWhite().getName().length()
+                    + game.getMoveHistory().size();
+        }
+        assertEquals(bytes, Files.size(path));
+
+        try (GameRecordReader reader = GameRecordReader.open(path)) {
+            assertEquals(Gomoku.WIDTH, reader.getWidth());
+            for (Gomoku game : games) {
+                assertSameGame(game, reader.next());
+            }
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void shouldUseTwoBytesPerMoveOnLargerBoards() throws IOException {
+        Path path = directory.resolve("games.gmr");
+        Gomoku game = play(19);
+        try (GameRecordWriter writer = GameRecordWriter.open(path, 19)) {
+            writer.write(GameRecord.of(game));
+        }
+
+        try (GameRecordReader reader = GameRecordReader.open(path)) {
+            assertSameGame(game, reader.next());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void shouldAppendToAnExistingFile() throws IOException {
+        Path path = directory.resolve("games.gmr");
+        List<Stone> moves = List.of(new Stone(7, 7, true), new Stone(7, 8, false));
+        GameRecord record = GameRecord.fromStones(moves, Gomoku.WIDTH, "Ann", "Ben",
+                GameRecord.UNFINISHED, BitBoard.EMPTY);
+        for (int i = 0; i < 3; i++) {
+            try (GameRecordWriter writer = GameRecordWriter.open(path, Gomoku.WIDTH)) {
+                writer.write(record);
+            }
+        }
+
+        try (GameRecordReader reader = GameRecordReader.open(path)) {
+            for (int i = 0; i < 3; i++) {
+                GameRecord read = reader.next();
+                assertEquals("Ann", read.getBlackName());
+                assertEquals(GameRecord.UNFINISHED, read.getResult());
+                assertEquals(8, read.getColumn(1));
+            }
+            assertNull(reader.next());
+        }
+        assertThrows(IOException.class, () -> GameRecordWriter.open(path, 19));
+    }
+
+    @Test
+    void shouldRejectTruncatedRecords() throws IOException {
+        Path path = directory.resolve("games.gmr");
+        try (GameRecordWriter writer = GameRecordWriter.open(path, Gomoku.WIDTH)) {
+            writer.write(GameRecord.of(play(Gomoku.WIDTH)));
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+
+        try (GameRecordReader reader = GameRecordReader.open(path)) {
+            assertThrows(EOFException.class, reader::next);
+        }
+    }
+
+    @Test
+    void shouldRejectMovesOutOfTurn() {
+        List<Stone> moves = List.of(new Stone(7, 7, true), new Stone(7, 8, true));
+
+        assertThrows(IllegalArgumentException.class, () -> GameRecord.fromStones(moves, Gomoku.WIDTH,
+                "Ann", "Ben", GameRecord.UNFINISHED, BitBoard.EMPTY));
+    }
+
+    private static Gomoku play(int width) {
+        RandomPlayer one = new RandomPlayer();
+        RandomPlayer two = new RandomPlayer();
+        Gomoku game = new Gomoku(one, two, true, width);
+        while (!game.isOver()) {
+            game.place(game.getCurrent().generateMove(game.getMoveHistory()));
+        }
+        return game;
+    }
+
+    private static void assertSameGame(Gomoku game, GameRecord record) {
+        List<Stone> moves = game.getStones();
+        assertEquals(game.getBlack().getName(), record.getBlackName());
+        assertEquals(game.getWhite().getName(), record.getWhiteName());
+        assertEquals(game.getWinner() == null ? GameRecord.DRAW : GameRecord.WIN, record.getResult());
+        assertEquals(moves.size(), record.getMoveCount());
+        List<Stone> read = record.toStones();
+        for (int i = 0; i < moves.size(); i++) {
+            assertEquals(moves.get(i).getRow(), read.get(i).getRow());
+            assertEquals(moves.get(i).getColumn(), read.get(i).getColumn());
+            assertEquals(moves.get(i).isBlack(), read.get(i).isBlack());
+        }
+        if (game.getWinner() != null) {
+            assertEquals(moves.get(moves.size() - 1).isBlack() ? BitBoard.BLACK : BitBoard.WHITE, record.getWinner());
+        }
+    }
+}
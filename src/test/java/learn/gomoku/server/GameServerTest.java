@@ -0,0 +1,152 @@
+package learn.gomoku.server;
+
+import learn.gomoku.tournament.Tournament;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameServerTest {
+
+    private GameServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new GameServer(0, 2);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    void shouldPlayAGameAgainstABot() throws IOException {
+        try (Client client = new Client()) {
+            client.send("MOVE 7 7");
+            assertEquals("ERROR Not in a game.", client.read());
+            client.send("JOIN Ann random");
+            String[] game = client.read().split(" ");
+            assertEquals("GAME", game[0]);
+            assertEquals("15", game[1]);
+
+            boolean[] taken = new boolean[15 * 15];
+            boolean triedTaken = false;
+            String line = client.read();
+            while (!line.startsWith("OVER")) {
+                String[] words = line.split(" ");
+                if (words[0].equals("MOVE")) {
+                    taken[Integer.parseInt(words[1]) * 15 + Integer.parseInt(words[2])] = true;
+                } else {
+                    assertEquals("TURN", line);
+                    if (!triedTaken && taken[7 * 15 + 7]) {
+                        // Every move goes through Gomoku.place, which refuses a taken cell
+                        client.send("MOVE 7 7");
+                        assertEquals("ERROR Duplicate move.", client.read());
+                        triedTaken = true;
+                    }
+                    int cell = 0;
+                    while (taken[cell]) {
+                        cell++;
+                    }
+                    client.send("MOVE " + cell / 15 + " " + cell % 15);
+                }
+                line = client.read();
+            }
+            assertTrue(line.matches("OVER (WIN|LOSS|DRAW) .*"), line);
+        }
+    }
+
+    @Test
+    void shouldPairHumansAndEndTheGameWhenOneLeaves() throws IOException {
+        try (Client first = new Client(); Client second = new Client()) {
+            first.send("JOIN Ann human");
+            assertEquals("WAITING", first.read());
+            second.send("JOIN Ben human");
+
+            String firstGame = first.read();
+            String secondGame = second.read();
+            assertTrue(firstGame.endsWith(" Ben"), firstGame);
+            assertTrue(secondGame.endsWith(" Ann"), secondGame);
+            Client black = firstGame.contains("BLACK") ? first : second;
+            Client white = black == first ? second : first;
+            assertEquals("TURN", black.read());
+
+            white.send("MOVE 7 7");
+            assertEquals("ERROR Wrong player.", white.read());
+            black.send("MOVE 7 7");
+            assertEquals("MOVE 7 7 BLACK", black.read());
+            assertEquals("MOVE 7 7 BLACK", white.read());
+            assertEquals("TURN", white.read());
+
+            white.send("QUIT");
+            assertEquals("OVER WIN Opponent left.", black.read());
+        }
+    }
+
+    @Test
+    void shouldCapTheTimeClientsGiveBots() throws IOException {
+        assertEquals("search:" + GameServer.MAX_BOT_MILLIS, GameServer.botType("search:999999999"));
+        assertEquals("mcts:1", GameServer.botType("mcts:0"));
+        assertEquals("search:" + Tournament.DEFAULT_MOVE_MILLIS, GameServer.botType("search"));
+        assertEquals("random", GameServer.botType("random:50"));
+        assertThrows(IllegalArgumentException.class, () -> GameServer.botType("search:soon"));
+
+        try (Client client = new Client()) {
+            client.send("JOIN Ann search:999999999");
+            String game = client.read();
+            assertTrue(game.endsWith(" search:" + GameServer.MAX_BOT_MILLIS + " bot"), game);
+        }
+    }
+
+    @Test
+    void shouldReportLatenciesUnderLoad() throws IOException {
+        LoadGenerator load = new LoadGenerator(
+                new InetSocketAddress("localhost", server.getPort()), 50, 2, "random");
+
+        LoadGenerator.Report report = load.run();
+
+        assertEquals(100, report.getGames());
+        assertTrue(report.getMoves() >= 100 * 4);
+        assertTrue(report.percentile(0.5) > 0);
+        assertTrue(report.percentile(0.99) >= report.percentile(0.5));
+    }
+
+    private final class Client implements AutoCloseable {
+
+        private final Socket socket;
+        private final BufferedReader in;
+        private final PrintWriter out;
+
+        Client() throws IOException {
+            socket = new Socket("localhost", server.getPort());
+            socket.setSoTimeout(10_000);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+        }
+
+        void send(String line) {
+            out.print(line + "\n");
+            out.flush();
+        }
+
+        String read() throws IOException {
+            return in.readLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
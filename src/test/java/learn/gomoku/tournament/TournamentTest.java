@@ -0,0 +1,61 @@
+package learn.gomoku.tournament;
+
+import learn.gomoku.players.HumanPlayer;
+import learn.gomoku.players.RandomPlayer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TournamentTest {
+
+    @Test
+    void shouldPlayEveryGame() {
+        Tournament tournament = new Tournament(RandomPlayer::new, RandomPlayer::new, 2);
+
+        TournamentResult result = tournament.run(500);
+
+        // Every game ends in exactly one outcome and one length.
+        assertEquals(500, result.getGames());
+        assertEquals(500, result.getFirstWins() + result.getSecondWins() + result.getDraws());
+        assertEquals(result.getFirstWins() + result.getSecondWins(), result.getBlackWins() + result.getWhiteWins());
+        assertEquals(500, Arrays.stream(result.getLengthHistogram()).sum());
+
+        // Nobody can win with fewer than nine stones on the board.
+        long[] lengths = result.getLengthHistogram();
+        for (int i = 0; i < 9; i++) {
+            assertEquals(0, lengths[i]);
+        }
+        assertTrue(result.getGamesPerSecond() > 0);
+    }
+
+    @Test
+    void shouldRejectPlayersThatCantMove() {
+        Tournament tournament = new Tournament(HumanPlayer::new, RandomPlayer::new, 1);
+
+        assertThrows(IllegalStateException.class, () -> tournament.run(2));
+    }
+
+    @Test
+    void shouldTellTheListenerAboutEveryGame() {
+        Tournament tournament = new Tournament(RandomPlayer::new, RandomPlayer::new, 2);
+        AtomicLong games = new AtomicLong();
+        AtomicLong stones = new AtomicLong();
+        tournament.setGameListener(record -> {
+            games.incrementAndGet();
+            stones.addAndGet(record.getMoveCount());
+        });
+
+        TournamentResult result = tournament.run(100);
+
+        assertEquals(100, games.get());
+        long total = 0;
+        long[] lengths = result.getLengthHistogram();
+        for (int i = 0; i < lengths.length; i++) {
+            total += i * lengths[i];
+        }
+        assertEquals(total, stones.get());
+    }
+}